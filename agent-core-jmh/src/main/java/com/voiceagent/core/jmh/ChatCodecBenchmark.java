@@ -0,0 +1,74 @@
+package com.voiceagent.core.jmh;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.voiceagent.core.ChatRequest;
+import com.voiceagent.core.ChatRequestEncoder;
+import com.voiceagent.core.ChatResponseParser;
+import com.voiceagent.core.ChatTurn;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Building a request with a full history, and pulling the reply out of a typical response
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatCodecBenchmark {
+
+    private static final String RESPONSE = "{\"id\":\"chatcmpl-123\",\"object\":\"chat.completion\","
+            + "\"created\":1700000000,\"model\":\"llama-3.1-8b-instant\",\"choices\":[{\"index\":0,"
+            + "\"message\":{\"role\":\"assistant\",\"content\":\"Sure, I can take a message. "
+            + "What would you like me to tell them?\"},\"logprobs\":null,\"finish_reason\":\"stop\"}],"
+            + "\"usage\":{\"queue_time\":0.02,\"prompt_tokens\":120,\"prompt_time\":0.01,"
+            + "\"completion_tokens\":18,\"completion_time\":0.02,\"total_tokens\":138,\"total_time\":0.03},"
+            + "\"system_fingerprint\":\"fp_1\",\"x_groq\":{\"id\":\"req_1\"}}";
+
+    private final ChatRequest request;
+
+    public ChatCodecBenchmark() {
+        List<ChatTurn> history = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            final int n = i;
+            history.add(new ChatTurn() {
+                @Override public String getUserText() { return "Is he available at " + n + " o'clock?"; }
+                @Override public String getAiText() { return "He is in a meeting, shall I take a \"message\"?"; }
+            });
+        }
+        request = new ChatRequest("llama-3.1-8b-instant", "You are a friendly phone assistant. Keep responses short.",
+                history, "Tell him to call me back after lunch.", 0.7, 150);
+    }
+
+    @Benchmark
+    public String encodeRequest() {
+        return ChatRequestEncoder.encode(request);
+    }
+
+    @Benchmark
+    public String parseStreaming() throws IOException {
+        return ChatResponseParser.parseContent(RESPONSE);
+    }
+
+    // Tree parse, the way the org.json code on the device read the whole document
+    @Benchmark
+    public String parseTree() {
+        JsonObject json = JsonParser.parseString(RESPONSE).getAsJsonObject();
+        return json.getAsJsonArray("choices").get(0).getAsJsonObject()
+                .getAsJsonObject("message").get("content").getAsString();
+    }
+}
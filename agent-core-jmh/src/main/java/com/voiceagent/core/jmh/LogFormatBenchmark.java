@@ -0,0 +1,59 @@
+package com.voiceagent.core.jmh;
+
+import com.voiceagent.core.LogLineFormatter;
+import com.voiceagent.core.LogTemplate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Formatting a log line: the original SimpleDateFormat + String.format path against LogLineFormatter
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogFormatBenchmark {
+
+    private final LogLineFormatter formatter = new LogLineFormatter();
+    private final StringBuilder line = new StringBuilder(256);
+    private long time = System.currentTimeMillis();
+    private int state = 1;
+    private String number = "01712345678";
+
+    @Benchmark
+    public String legacyFormat() {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+        String timestamp = sdf.format(new Date(time++));
+        return String.format("[%s] [%s] %s\n", timestamp, "VoiceAgent", "DEBUG: Call state: " + state + ", number: " + number);
+    }
+
+    @Benchmark
+    public StringBuilder formatterFormat() {
+        line.setLength(0);
+        formatter.format(time++, "VoiceAgent", "DEBUG", "Call state: " + state + ", number: " + number, line);
+        return line;
+    }
+
+    @Benchmark
+    public String legacyConcatMessage() {
+        return "Call state: " + state + ", number: " + number;
+    }
+
+    @Benchmark
+    public String templateMessage() {
+        return LogTemplate.format("Call state: {}, number: {phone}", state, number, null, 2);
+    }
+}
@@ -0,0 +1,109 @@
+package com.voiceagent.core.jmh;
+
+import com.voiceagent.core.LogLineFormatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per log line reaching the file. legacyWrite is the original AppLogger writer task:
+ * format, open a FileWriter, append, close. batchedWrite is what the log writer thread does
+ * now: format into a reused builder, encode into a direct buffer, and write the buffer to
+ * one open channel when it is half full.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogWriteBenchmark {
+
+    private static final String MESSAGE = "DEBUG: Turn 12 sent to AI, history 4 turns, language en";
+
+    private File file;
+    private FileChannel channel;
+    private final LogLineFormatter formatter = new LogLineFormatter();
+    private final StringBuilder line = new StringBuilder(256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(32 * 1024);
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        file = File.createTempFile("jmh-log", ".txt");
+        channel = new FileOutputStream(file, true).getChannel();
+    }
+
+    // Keeps the file from growing across iterations
+    @Setup(Level.Iteration)
+    public void truncate() throws IOException {
+        batch.clear();
+        channel.truncate(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        channel.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public void legacyWrite() throws IOException {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+        String timestamp = sdf.format(new Date());
+        String logLine = String.format("[%s] [%s] %s\n", timestamp, "VoiceAgent", MESSAGE);
+
+        FileWriter fw = new FileWriter(file, true);
+        fw.append(logLine);
+        fw.flush();
+        fw.close();
+    }
+
+    @Benchmark
+    public void batchedWrite() throws IOException {
+        line.setLength(0);
+        formatter.format(System.currentTimeMillis(), "VoiceAgent", null, MESSAGE, line);
+
+        CharBuffer chars = CharBuffer.wrap(line);
+        encoder.reset();
+        while (encoder.encode(chars, batch, true) == CoderResult.OVERFLOW) {
+            writeBatch();
+        }
+        if (batch.position() >= batch.capacity() / 2) {
+            writeBatch();
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,51 @@
+package com.voiceagent.core.jmh;
+
+import com.voiceagent.core.KeywordUtteranceClassifier;
+import com.voiceagent.core.LanguageDetector;
+import com.voiceagent.core.ScriptLanguageDetector;
+import com.voiceagent.core.UtteranceClassifier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-utterance work done on the recognizer callback before the request goes out
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtteranceBenchmark {
+
+    @Param({"Can you tell him I called about the invoice from last week",
+            "আমি পরে আবার ফোন করব, ওনাকে জানিয়ে দেবেন"})
+    public String text;
+
+    private final LanguageDetector detector = new ScriptLanguageDetector();
+    private final UtteranceClassifier classifier = new KeywordUtteranceClassifier();
+
+    @Benchmark
+    public boolean legacyDetectRegex() {
+        return text.matches(".*[\\u0980-\\u09FF].*");
+    }
+
+    @Benchmark
+    public String detectScan() {
+        return detector.detect(text);
+    }
+
+    @Benchmark
+    public int classify() {
+        return classifier.classify(text);
+    }
+}
@@ -0,0 +1,165 @@
+package com.voiceagent.core;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Timeouts derived from the latencies actually seen, kept per key (network type and endpoint).
+ * Each timeout is the p99 of its recent samples plus a margin, clamped to bounds; until a key
+ * has enough samples the default is used. A timeout doubles the next one for that key, the
+ * way TCP backs off its retransmit timer, so a retry gets more room; the first reply resets it.
+ */
+public class AdaptiveTimeouts implements TimeoutPolicy {
+
+    public static final int MIN_SAMPLES = 20;
+    // Counts are halved at this many samples so the distribution follows the network
+    public static final int WINDOW = 200;
+    private static final int MAX_BACKOFF_SHIFT = 3;
+
+    private static final String CONNECT = "connect";
+    private static final String READ = "read";
+
+    public static class Bounds {
+        public final int defaultMs;
+        public final int minMs;
+        public final int maxMs;
+
+        public Bounds(int defaultMs, int minMs, int maxMs) {
+            this.defaultMs = defaultMs;
+            this.minMs = minMs;
+            this.maxMs = maxMs;
+        }
+    }
+
+    private static class Entry {
+        final LatencyHistogram connect = new LatencyHistogram();
+        final LatencyHistogram read = new LatencyHistogram();
+        int backoffShift;
+    }
+
+    private final Supplier<String> keys;
+    private final Bounds connectBounds;
+    private final Bounds readBounds;
+    private final int marginMs;
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    public AdaptiveTimeouts(Supplier<String> keys, Bounds connectBounds, Bounds readBounds, int marginMs) {
+        this.keys = keys;
+        this.connectBounds = connectBounds;
+        this.readBounds = readBounds;
+        this.marginMs = marginMs;
+    }
+
+    @Override
+    public int connectTimeoutMs() {
+        synchronized (entries) {
+            Entry entry = entry(keys.get());
+            return timeout(entry.connect, connectBounds, entry.backoffShift);
+        }
+    }
+
+    @Override
+    public int readTimeoutMs() {
+        synchronized (entries) {
+            Entry entry = entry(keys.get());
+            return timeout(entry.read, readBounds, entry.backoffShift);
+        }
+    }
+
+    @Override
+    public void onConnected(long connectMs) {
+        synchronized (entries) {
+            record(entry(keys.get()).connect, connectMs);
+        }
+    }
+
+    @Override
+    public void onFirstByte(long waitMs) {
+        synchronized (entries) {
+            Entry entry = entry(keys.get());
+            record(entry.read, waitMs);
+            entry.backoffShift = 0;
+        }
+    }
+
+    @Override
+    public void onTimeout(boolean connecting, int timeoutMs) {
+        synchronized (entries) {
+            Entry entry = entry(keys.get());
+            // The real latency was at least the timeout, so it still counts as a sample
+            record(connecting ? entry.connect : entry.read, timeoutMs);
+            entry.backoffShift = Math.min(entry.backoffShift + 1, MAX_BACKOFF_SHIFT);
+        }
+    }
+
+    private int timeout(LatencyHistogram histogram, Bounds bounds, int backoffShift) {
+        long base = histogram.getCount() < MIN_SAMPLES
+                ? bounds.defaultMs
+                : histogram.percentile(99) + marginMs;
+        long ms = base << backoffShift;
+        return (int) Math.max(bounds.minMs, Math.min(bounds.maxMs, ms));
+    }
+
+    private static void record(LatencyHistogram histogram, long ms) {
+        histogram.record(ms);
+        if (histogram.getCount() >= WINDOW) histogram.decay();
+    }
+
+    private Entry entry(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    // "connect/<key>" and "read/<key>" to encoded histograms, for persisting between runs
+    public Map<String, String> export() {
+        Map<String, String> out = new TreeMap<>();
+        synchronized (entries) {
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                out.put(CONNECT + "/" + e.getKey(), e.getValue().connect.encode());
+                out.put(READ + "/" + e.getKey(), e.getValue().read.encode());
+            }
+        }
+        return out;
+    }
+
+    public void restore(Map<String, ?> saved) {
+        synchronized (entries) {
+            for (Map.Entry<String, ?> e : saved.entrySet()) {
+                if (!(e.getValue() instanceof String)) continue;
+                String name = e.getKey();
+                int slash = name.indexOf('/');
+                if (slash < 0) continue;
+                String kind = name.substring(0, slash);
+                LatencyHistogram decoded = LatencyHistogram.decode((String) e.getValue());
+                Entry entry = entry(name.substring(slash + 1));
+                if (kind.equals(CONNECT)) {
+                    entry.connect.merge(decoded);
+                } else if (kind.equals(READ)) {
+                    entry.read.merge(decoded);
+                }
+            }
+        }
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        synchronized (entries) {
+            if (entries.isEmpty()) return "";
+            sb.append("Timeouts ms (connect / read, samples)\n");
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                sb.append(String.format(Locale.US, "%s: %d / %d, %d\n", e.getKey(),
+                        timeout(entry.connect, connectBounds, entry.backoffShift),
+                        timeout(entry.read, readBounds, entry.backoffShift),
+                        entry.read.getCount()));
+            }
+        }
+        return sb.toString();
+    }
+}
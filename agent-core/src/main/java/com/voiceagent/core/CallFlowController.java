@@ -0,0 +1,153 @@
+package com.voiceagent.core;
+
+/**
+ * Owns every delay in the call flow, from answering to the agent's next turn to listen, and
+ * the duration limit. The platform does the work through Callbacks; this class only decides
+ * when. Running it on a Handler gives the app's behaviour, running it on a virtual clock lets
+ * the simulator replay a call in milliseconds.
+ *
+ * Scheduled actions re-check their own preconditions when they fire (startListening ignores
+ * the request while speaking), so callers don't need to cancel them on every state change.
+ */
+public class CallFlowController {
+
+    public interface Callbacks {
+        // Returns true if some answer method went through
+        boolean answerCall();
+
+        void transferToAgent();
+
+        void speakGreeting();
+
+        // No-op unless the conversation is active and the agent is neither speaking nor listening
+        void startListening();
+
+        boolean isListening();
+
+        void stopListening();
+
+        void onDurationWarning(int remainingMinutes);
+
+        void onMaxDuration();
+    }
+
+    private final Clock clock;
+    private final Scheduler scheduler;
+    private final Callbacks callbacks;
+    private volatile long callStartMs;
+
+    private final Runnable answer = this::answer;
+    private final Runnable transfer = this::transfer;
+    private final Runnable greeting = this::greeting;
+    private final Runnable listen = this::listen;
+    private final Runnable listenTimeout = this::listenTimeout;
+    private final Runnable recover = this::recover;
+    private final Runnable durationCheck = this::checkDuration;
+
+    public CallFlowController(Clock clock, Scheduler scheduler, Callbacks callbacks) {
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.callbacks = callbacks;
+    }
+
+    // Caller tapped answer on the ringing notification
+    public void answerIncoming() {
+        scheduler.postDelayed(answer, CallTiming.CALL_TRANSFER_DELAY_MS);
+    }
+
+    public void onCallTransferred(boolean greetingReady) {
+        // A prefetched greeting goes out at once; otherwise give the audio route time to settle
+        if (greetingReady) {
+            scheduler.post(greeting);
+        } else {
+            scheduler.postDelayed(greeting, CallTiming.GREETING_DELAY_MS);
+        }
+        scheduler.postDelayed(listen, CallTiming.FIRST_LISTEN_DELAY_MS);
+    }
+
+    public void onListeningStarted() {
+        scheduler.removeCallbacks(listenTimeout);
+        scheduler.postDelayed(listenTimeout, CallTiming.SPEECH_TIMEOUT_MS);
+    }
+
+    public void onReplySpoken() {
+        scheduler.postDelayed(listen, CallTiming.TTS_START_DELAY_MS);
+    }
+
+    public void onEmptyResults() {
+        scheduler.postDelayed(listen, CallTiming.LISTEN_START_DELAY_MS);
+    }
+
+    public void listenNow() {
+        scheduler.post(listen);
+    }
+
+    // Recognition or synthesis failed; try listening again shortly
+    public void recover() {
+        scheduler.postDelayed(listen, CallTiming.RECOVER_DELAY_MS);
+    }
+
+    public void onRecognizerBusy() {
+        scheduler.postDelayed(recover, CallTiming.RECOVER_DELAY_MS);
+    }
+
+    public void startDurationMonitoring() {
+        callStartMs = clock.uptimeMillis();
+        scheduler.removeCallbacks(durationCheck);
+        scheduler.postDelayed(durationCheck, CallTiming.CALL_DURATION_WARNING_MINUTES * 60000L);
+    }
+
+    public long getCallDurationMs() {
+        return clock.uptimeMillis() - callStartMs;
+    }
+
+    // Drops everything still pending for this call
+    public void stop() {
+        scheduler.removeCallbacks(answer);
+        scheduler.removeCallbacks(transfer);
+        scheduler.removeCallbacks(greeting);
+        scheduler.removeCallbacks(listen);
+        scheduler.removeCallbacks(listenTimeout);
+        scheduler.removeCallbacks(recover);
+        scheduler.removeCallbacks(durationCheck);
+    }
+
+    private void answer() {
+        if (callbacks.answerCall()) {
+            scheduler.postDelayed(transfer, CallTiming.CALL_TRANSFER_DELAY_MS * 2);
+        } else {
+            // Still try to transfer
+            transfer();
+        }
+    }
+
+    private void transfer() {
+        callbacks.transferToAgent();
+    }
+
+    private void greeting() {
+        callbacks.speakGreeting();
+    }
+
+    private void listen() {
+        callbacks.startListening();
+    }
+
+    private void listenTimeout() {
+        if (callbacks.isListening()) {
+            callbacks.stopListening();
+        }
+    }
+
+    private void checkDuration() {
+        long minutes = getCallDurationMs() / 60000;
+        if (minutes >= CallTiming.MAX_CALL_DURATION_MINUTES) {
+            callbacks.onMaxDuration();
+            return;
+        }
+        if (minutes >= CallTiming.CALL_DURATION_WARNING_MINUTES) {
+            callbacks.onDurationWarning(CallTiming.MAX_CALL_DURATION_MINUTES - (int) minutes);
+        }
+        scheduler.postDelayed(durationCheck, CallTiming.DURATION_CHECK_INTERVAL_MS);
+    }
+}
@@ -0,0 +1,23 @@
+package com.voiceagent.core;
+
+/**
+ * Delays in the call flow. Every one of them is dead air for the caller, so they live here
+ * where CallFlowController and the virtual-time simulator share them.
+ */
+public class CallTiming {
+
+    // Ringing -> answer, and answer -> agent takes over
+    public static final int CALL_TRANSFER_DELAY_MS = 1000;
+    public static final int GREETING_DELAY_MS = 1500;
+    public static final int FIRST_LISTEN_DELAY_MS = 4000;
+
+    // Reply spoken -> listening again
+    public static final int TTS_START_DELAY_MS = 800;
+    public static final int LISTEN_START_DELAY_MS = 500;
+    public static final int RECOVER_DELAY_MS = 1000;
+    public static final int SPEECH_TIMEOUT_MS = 6000;
+
+    public static final int MAX_CALL_DURATION_MINUTES = 10;
+    public static final int CALL_DURATION_WARNING_MINUTES = 8;
+    public static final long DURATION_CHECK_INTERVAL_MS = 60000;
+}
@@ -0,0 +1,6 @@
+package com.voiceagent.core;
+
+public interface ChatClient {
+
+    String complete(ChatRequest request, TurnListener listener) throws Exception;
+}
@@ -0,0 +1,27 @@
+package com.voiceagent.core;
+
+import java.io.IOException;
+
+// Non-200 reply from the chat endpoint
+public class ChatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final long retryAfterMs;
+
+    public ChatException(String message, int statusCode, long retryAfterMs) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    // 0 if the server didn't say
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
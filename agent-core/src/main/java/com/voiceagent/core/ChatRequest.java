@@ -0,0 +1,31 @@
+package com.voiceagent.core;
+
+import java.util.Collections;
+import java.util.List;
+
+public class ChatRequest {
+
+    public final String model;
+    public final String systemPrompt;
+    public final List<? extends ChatTurn> history;
+    public final String userMessage;
+    public final double temperature;
+    public final int maxTokens;
+    public final boolean stream;
+
+    public ChatRequest(String model, String systemPrompt, List<? extends ChatTurn> history, String userMessage,
+                       double temperature, int maxTokens) {
+        this(model, systemPrompt, history, userMessage, temperature, maxTokens, false);
+    }
+
+    public ChatRequest(String model, String systemPrompt, List<? extends ChatTurn> history, String userMessage,
+                       double temperature, int maxTokens, boolean stream) {
+        this.model = model;
+        this.systemPrompt = systemPrompt;
+        this.history = history != null ? history : Collections.<ChatTurn>emptyList();
+        this.userMessage = userMessage;
+        this.temperature = temperature;
+        this.maxTokens = maxTokens;
+        this.stream = stream;
+    }
+}
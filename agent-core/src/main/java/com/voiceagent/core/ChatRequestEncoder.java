@@ -0,0 +1,75 @@
+package com.voiceagent.core;
+
+/**
+ * Writes an OpenAI-compatible chat completions body straight into a StringBuilder, without
+ * building a JSON object tree first.
+ */
+public class ChatRequestEncoder {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public static String encode(ChatRequest request) {
+        StringBuilder out = new StringBuilder(256 + request.userMessage.length() + request.systemPrompt.length());
+        encode(request, out);
+        return out.toString();
+    }
+
+    public static void encode(ChatRequest request, StringBuilder out) {
+        out.append("{\"model\":");
+        appendString(request.model, out);
+        out.append(",\"messages\":[");
+        appendMessage("system", request.systemPrompt, out);
+        for (ChatTurn turn : request.history) {
+            out.append(',');
+            appendMessage("user", turn.getUserText(), out);
+            out.append(',');
+            appendMessage("assistant", turn.getAiText(), out);
+        }
+        out.append(',');
+        appendMessage("user", request.userMessage, out);
+        out.append("],\"temperature\":").append(request.temperature);
+        out.append(",\"max_tokens\":").append(request.maxTokens);
+        if (request.stream) {
+            out.append(",\"stream\":true");
+        }
+        out.append('}');
+    }
+
+    private static void appendMessage(String role, String content, StringBuilder out) {
+        out.append("{\"role\":\"").append(role).append("\",\"content\":");
+        appendString(content, out);
+        out.append('}');
+    }
+
+    static void appendString(String value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        int length = value.length();
+        int run = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            // Control characters and the Unicode line separators need escaping
+            if (c >= 0x20 && c != '"' && c != '\\' && c != '\u2028' && c != '\u2029') continue;
+
+            // Copy the clean run in one go, then the escape
+            out.append(value, run, i);
+            run = i + 1;
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    out.append("\\u")
+                        .append(HEX[(c >> 12) & 0xF]).append(HEX[(c >> 8) & 0xF])
+                        .append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+            }
+        }
+        out.append(value, run, length);
+        out.append('"');
+    }
+}
@@ -0,0 +1,83 @@
+package com.voiceagent.core;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Pulls choices[0].message.content out of a chat completions response with a streaming
+ * reader, skipping everything else instead of parsing the whole document.
+ */
+public class ChatResponseParser {
+
+    public static String parseContent(String body) throws IOException {
+        return parseContent(new StringReader(body));
+    }
+
+    public static String parseContent(Reader body) throws IOException {
+        JsonReader reader = new JsonReader(body);
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("choices") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    String content = readFirstChoice(reader, "message");
+                    if (content != null) return content;
+                } else {
+                    reader.skipValue();
+                }
+            }
+        } catch (IllegalStateException e) {
+            throw new IOException("Malformed response: " + e.getMessage(), e);
+        } finally {
+            reader.close();
+        }
+        throw new IOException("No content in response");
+    }
+
+    // Content of one streamed chunk (choices[0].delta.content), or null if it carries none
+    public static String parseDelta(String chunk) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(chunk));
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("choices") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    return readFirstChoice(reader, "delta");
+                }
+                reader.skipValue();
+            }
+            return null;
+        } catch (IllegalStateException e) {
+            throw new IOException("Malformed chunk: " + e.getMessage(), e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static String readFirstChoice(JsonReader reader, String field) throws IOException {
+        reader.beginArray();
+        if (!reader.hasNext()) return null;
+
+        String content = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(field) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("content") && reader.peek() == JsonToken.STRING) {
+                        content = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        // The rest of the document doesn't matter once we have the first choice
+        return content;
+    }
+}
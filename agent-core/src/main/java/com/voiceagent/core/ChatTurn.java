@@ -0,0 +1,9 @@
+package com.voiceagent.core;
+
+// One earlier exchange in the conversation, sent back to the model as context
+public interface ChatTurn {
+
+    String getUserText();
+
+    String getAiText();
+}
@@ -0,0 +1,9 @@
+package com.voiceagent.core;
+
+// Monotonic time source, so call-flow timing can run against a virtual clock
+public interface Clock {
+
+    Clock SYSTEM = () -> System.nanoTime() / 1000000L;
+
+    long uptimeMillis();
+}
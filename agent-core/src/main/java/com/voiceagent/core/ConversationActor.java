@@ -0,0 +1,89 @@
+package com.voiceagent.core;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single owner of the conversation state. Recognizer, TTS, model and telephony callbacks send
+ * events from their own threads; the actor handles them one at a time on its scheduler's
+ * thread, which is the only thread allowed to change state. Every transition is published
+ * as an immutable snapshot, and the time each event waited in the queue is recorded per type.
+ */
+public class ConversationActor {
+
+    public interface Behavior {
+        // Runs on the actor thread
+        void onEvent(ConversationEvent event);
+    }
+
+    public interface StateListener {
+        // Runs on the actor thread; hand off before touching views
+        void onStateChanged(ConversationState state);
+    }
+
+    private final Clock clock;
+    private final Scheduler scheduler;
+    private Behavior behavior;
+    private StateListener listener;
+    private volatile ConversationState state = ConversationState.IDLE;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LatencyHistogram[] queueDelay = new LatencyHistogram[ConversationEvent.TYPE_COUNT];
+
+    public ConversationActor(Clock clock, Scheduler scheduler) {
+        this.clock = clock;
+        this.scheduler = scheduler;
+        for (int i = 0; i < queueDelay.length; i++) {
+            queueDelay[i] = new LatencyHistogram();
+        }
+    }
+
+    public void setBehavior(Behavior behavior) {
+        this.behavior = behavior;
+    }
+
+    public void setStateListener(StateListener listener) {
+        this.listener = listener;
+    }
+
+    // Any thread
+    public void send(ConversationEvent event) {
+        event.enqueuedMs = clock.uptimeMillis();
+        pending.incrementAndGet();
+        scheduler.post(() -> dispatch(event));
+    }
+
+    // Any thread; the latest published snapshot
+    public ConversationState getState() {
+        return state;
+    }
+
+    // Actor thread only: from event handling, or work the actor thread scheduled for itself
+    public void update(ConversationState next) {
+        if (next == state) return;
+        state = next;
+        if (listener != null) listener.onStateChanged(next);
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (int type = 0; type < queueDelay.length; type++) {
+            LatencyHistogram histogram = queueDelay[type];
+            if (histogram.getCount() == 0) continue;
+            if (sb.length() == 0) sb.append("Event queue ms (p50 / p99 / max, count)\n");
+            sb.append(String.format(Locale.US, "%s: %d / %d / %d, %d\n", ConversationEvent.name(type),
+                    histogram.percentile(50), histogram.percentile(99), histogram.getMax(), histogram.getCount()));
+        }
+        return sb.toString();
+    }
+
+    private void dispatch(ConversationEvent event) {
+        pending.decrementAndGet();
+        queueDelay[event.type].record(clock.uptimeMillis() - event.enqueuedMs);
+        if (behavior != null) behavior.onEvent(event);
+    }
+}
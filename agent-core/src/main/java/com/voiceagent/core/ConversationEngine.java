@@ -0,0 +1,84 @@
+package com.voiceagent.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One conversation's worth of state and policy around the chat client: the rolling history,
+ * the system prompt per language, and retries. Platform code owns recognition, speech and
+ * persistence; this class only turns an utterance into a reply.
+ */
+public class ConversationEngine {
+
+    private final ChatClient client;
+    private final PromptProvider prompts;
+    private final RetryPolicy retryPolicy;
+    private final String model;
+    private final int maxTokens;
+    private final int maxHistoryTurns;
+    private final List<ChatTurn> history = new ArrayList<>();
+
+    public ConversationEngine(ChatClient client, PromptProvider prompts, RetryPolicy retryPolicy,
+                              String model, int maxTokens, int maxHistoryTurns) {
+        this.client = client;
+        this.prompts = prompts;
+        this.retryPolicy = retryPolicy;
+        this.model = model;
+        this.maxTokens = maxTokens;
+        this.maxHistoryTurns = maxHistoryTurns;
+    }
+
+    public String respond(String input, String language, TurnListener listener) throws Exception {
+        return respond(input, language, false, listener);
+    }
+
+    public String respond(String input, String language, boolean stream, TurnListener listener) throws Exception {
+        ChatRequest request = new ChatRequest(model, prompts.systemPrompt(language), getHistory(), input,
+                0.7, maxTokens, stream);
+
+        Exception lastError = null;
+        for (int attempt = 0; ; attempt++) {
+            if (attempt > 0) {
+                listener.onRetry(attempt, lastError);
+                Thread.sleep(retryPolicy.delayBeforeRetryMs(attempt, lastError));
+            }
+            try {
+                return client.complete(request, listener);
+            } catch (Exception e) {
+                lastError = e;
+                if (!retryPolicy.shouldRetry(attempt + 1, e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public void addTurn(ChatTurn turn) {
+        synchronized (history) {
+            history.add(turn);
+            while (history.size() > maxHistoryTurns) {
+                history.remove(0);
+            }
+        }
+    }
+
+    public void setHistory(List<? extends ChatTurn> turns) {
+        synchronized (history) {
+            history.clear();
+            int from = Math.max(0, turns.size() - maxHistoryTurns);
+            history.addAll(turns.subList(from, turns.size()));
+        }
+    }
+
+    public void clearHistory() {
+        synchronized (history) {
+            history.clear();
+        }
+    }
+
+    public List<ChatTurn> getHistory() {
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.voiceagent.core;
+
+// Something that happened to the conversation, on whatever thread it happened
+public final class ConversationEvent {
+
+    public static final int START = 0;
+    public static final int STOP = 1;
+    public static final int TRANSFER = 2;
+    public static final int RESUME = 3;
+    public static final int CALL_ENDED = 4;
+    public static final int END_OF_SPEECH = 5;
+    public static final int SPEECH_RESULT = 6;
+    public static final int SPEECH_ERROR = 7;
+    public static final int TTS_STARTED = 8;
+    public static final int TTS_DONE = 9;
+    public static final int TTS_ERROR = 10;
+    public static final int AI_REPLY = 11;
+    public static final int AI_ERROR = 12;
+    static final int TYPE_COUNT = 13;
+
+    private static final String[] NAMES = {
+        "start", "stop", "transfer", "resume", "call_ended", "end_of_speech", "speech_result",
+        "speech_error", "tts_started", "tts_done", "tts_error", "ai_reply", "ai_error"
+    };
+
+    public final int type;
+    // Recognized text, phone number, or the input an AI reply answers
+    public final String text;
+    public final String reply;
+    public final int code;
+    long enqueuedMs;
+
+    private ConversationEvent(int type, String text, String reply, int code) {
+        this.type = type;
+        this.text = text;
+        this.reply = reply;
+        this.code = code;
+    }
+
+    public static ConversationEvent of(int type) {
+        return new ConversationEvent(type, null, null, 0);
+    }
+
+    public static ConversationEvent withText(int type, String text) {
+        return new ConversationEvent(type, text, null, 0);
+    }
+
+    public static ConversationEvent withCode(int type, int code) {
+        return new ConversationEvent(type, null, null, code);
+    }
+
+    public static ConversationEvent aiReply(String input, String reply) {
+        return new ConversationEvent(AI_REPLY, input, reply, 0);
+    }
+
+    public static String name(int type) {
+        return NAMES[type];
+    }
+
+    @Override
+    public String toString() {
+        return NAMES[type];
+    }
+}
@@ -0,0 +1,68 @@
+package com.voiceagent.core;
+
+/**
+ * Immutable snapshot of a conversation. Only the ConversationActor's thread makes new ones;
+ * any thread may read the latest. The with* methods return this when nothing changes so
+ * listeners only hear about real transitions.
+ */
+public final class ConversationState {
+
+    public static final ConversationState IDLE =
+            new ConversationState(false, false, false, false, false, LanguageDetector.ENGLISH);
+
+    public final boolean active;
+    public final boolean callActive;
+    public final boolean listening;
+    public final boolean speaking;
+    public final boolean thinking;
+    public final String language;
+
+    private ConversationState(boolean active, boolean callActive, boolean listening, boolean speaking,
+                              boolean thinking, String language) {
+        this.active = active;
+        this.callActive = callActive;
+        this.listening = listening;
+        this.speaking = speaking;
+        this.thinking = thinking;
+        this.language = language;
+    }
+
+    public ConversationState withActive(boolean value) {
+        return value == active ? this : new ConversationState(value, callActive, listening, speaking, thinking, language);
+    }
+
+    public ConversationState withCallActive(boolean value) {
+        return value == callActive ? this : new ConversationState(active, value, listening, speaking, thinking, language);
+    }
+
+    public ConversationState withListening(boolean value) {
+        return value == listening ? this : new ConversationState(active, callActive, value, speaking, thinking, language);
+    }
+
+    public ConversationState withSpeaking(boolean value) {
+        return value == speaking ? this : new ConversationState(active, callActive, listening, value, thinking, language);
+    }
+
+    public ConversationState withThinking(boolean value) {
+        return value == thinking ? this : new ConversationState(active, callActive, listening, speaking, value, language);
+    }
+
+    public ConversationState withLanguage(String value) {
+        return value.equals(language) ? this : new ConversationState(active, callActive, listening, speaking, thinking, value);
+    }
+
+    // Everything but the language resets when a conversation ends
+    public ConversationState stopped() {
+        return new ConversationState(false, false, false, false, false, language);
+    }
+
+    public boolean canListen() {
+        return active && !speaking && !listening;
+    }
+
+    @Override
+    public String toString() {
+        return "ConversationState{active=" + active + ", call=" + callActive + ", listening=" + listening
+                + ", speaking=" + speaking + ", thinking=" + thinking + ", language=" + language + "}";
+    }
+}
@@ -0,0 +1,68 @@
+package com.voiceagent.core;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Flags a recognition that is mostly the agent's own last reply picked up by the microphone.
+ * Words only count when they come in runs of NGRAM_WORDS in the same order as the reply, so a
+ * caller who reuses a few of the agent's words in their own sentence isn't mistaken for echo;
+ * runs rather than the whole reply, since the recognizer drops parts of what it hears back
+ * through the speaker. Anything shorter than MIN_WORDS is never echo, so short answers survive.
+ * The caller should only ask while the reply is playing or just after it.
+ */
+public class EchoDetector {
+
+    private static final int MIN_WORDS = 4;
+    private static final int NGRAM_WORDS = 3;
+    private static final double DEFAULT_OVERLAP = 0.7;
+
+    private final double minOverlap;
+
+    public EchoDetector() {
+        this(DEFAULT_OVERLAP);
+    }
+
+    public EchoDetector(double minOverlap) {
+        this.minOverlap = minOverlap;
+    }
+
+    public boolean isEcho(String recognized, String lastSpoken) {
+        if (recognized == null || lastSpoken == null) return false;
+        String[] heard = words(recognized);
+        if (heard.length < MIN_WORDS) return false;
+
+        String[] said = words(lastSpoken);
+        Set<String> spoken = new HashSet<>();
+        for (int i = 0; i + NGRAM_WORDS <= said.length; i++) {
+            spoken.add(ngram(said, i));
+        }
+        // Words inside any run that also appears in the reply
+        boolean[] covered = new boolean[heard.length];
+        for (int i = 0; i + NGRAM_WORDS <= heard.length; i++) {
+            if (spoken.contains(ngram(heard, i))) {
+                for (int j = i; j < i + NGRAM_WORDS; j++) covered[j] = true;
+            }
+        }
+        int matched = 0;
+        for (boolean word : covered) {
+            if (word) matched++;
+        }
+        return matched >= minOverlap * heard.length;
+    }
+
+    private static String ngram(String[] words, int start) {
+        StringBuilder sb = new StringBuilder(words[start]);
+        for (int i = start + 1; i < start + NGRAM_WORDS; i++) {
+            sb.append(' ').append(words[i]);
+        }
+        return sb.toString();
+    }
+
+    // Letters and digits in any script; everything else separates words
+    private static String[] words(String text) {
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{M}\\p{N}]+", " ").trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+}
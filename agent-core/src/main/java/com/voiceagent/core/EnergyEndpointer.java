@@ -0,0 +1,88 @@
+package com.voiceagent.core;
+
+/**
+ * Decides where an utterance starts and ends from the loudness of 16-bit PCM frames, for
+ * recognizers that leave endpointing to us. A frame counts as speech when it is well above the
+ * background level, which is tracked while nobody is talking; speech has to last startMs to
+ * begin an utterance, and endSilenceMs of quiet ends it.
+ */
+public class EnergyEndpointer {
+
+    public static final int WAITING = 0;
+    public static final int SPEECH_STARTED = 1;
+    public static final int IN_SPEECH = 2;
+    public static final int SPEECH_ENDED = 3;
+    public static final int NO_SPEECH = 4;
+
+    // Speech must be this many times louder than the background, and never below MIN_SPEECH_RMS
+    private static final double SPEECH_RATIO = 3.0;
+    private static final double MIN_SPEECH_RMS = 300;
+    private static final double INITIAL_NOISE_RMS = 100;
+    private static final double NOISE_SMOOTHING = 0.05;
+
+    private final int frameMs;
+    private final int startMs;
+    private final int endSilenceMs;
+    private final int noSpeechTimeoutMs;
+    private final int maxSpeechMs;
+
+    private int state = WAITING;
+    private double noiseRms = INITIAL_NOISE_RMS;
+    private int elapsedMs = 0;
+    private int voicedMs = 0;
+    private int silentMs = 0;
+    private int speechMs = 0;
+
+    public EnergyEndpointer(int frameMs, int startMs, int endSilenceMs, int noSpeechTimeoutMs, int maxSpeechMs) {
+        this.frameMs = frameMs;
+        this.startMs = startMs;
+        this.endSilenceMs = endSilenceMs;
+        this.noSpeechTimeoutMs = noSpeechTimeoutMs;
+        this.maxSpeechMs = maxSpeechMs;
+    }
+
+    // Returns the state after this frame; SPEECH_STARTED is reported once, on the frame it happens
+    public int onFrame(byte[] pcm, int length) {
+        if (state == SPEECH_ENDED || state == NO_SPEECH) return state;
+        elapsedMs += frameMs;
+        double rms = rms(pcm, length);
+        boolean voiced = rms > Math.max(MIN_SPEECH_RMS, noiseRms * SPEECH_RATIO);
+
+        if (state == WAITING) {
+            if (voiced) {
+                voicedMs += frameMs;
+                if (voicedMs >= startMs) {
+                    speechMs = voicedMs;
+                    return state = SPEECH_STARTED;
+                }
+            } else {
+                voicedMs = 0;
+                noiseRms += (rms - noiseRms) * NOISE_SMOOTHING;
+                if (elapsedMs >= noSpeechTimeoutMs) return state = NO_SPEECH;
+            }
+            return state;
+        }
+
+        state = IN_SPEECH;
+        speechMs += frameMs;
+        silentMs = voiced ? 0 : silentMs + frameMs;
+        if (silentMs >= endSilenceMs || speechMs >= maxSpeechMs) state = SPEECH_ENDED;
+        return state;
+    }
+
+    public boolean hasSpeech() {
+        return state == SPEECH_STARTED || state == IN_SPEECH || state == SPEECH_ENDED;
+    }
+
+    // Root mean square of little-endian 16-bit samples
+    static double rms(byte[] pcm, int length) {
+        int samples = length / 2;
+        if (samples == 0) return 0;
+        double sum = 0;
+        for (int i = 0; i + 1 < length; i += 2) {
+            int sample = (short) ((pcm[i] & 0xff) | (pcm[i + 1] << 8));
+            sum += (double) sample * sample;
+        }
+        return Math.sqrt(sum / samples);
+    }
+}
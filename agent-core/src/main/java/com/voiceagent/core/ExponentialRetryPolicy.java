@@ -0,0 +1,41 @@
+package com.voiceagent.core;
+
+// Fixed number of retries with exponential backoff, stretched to any Retry-After the server
+// sent; authentication errors are never retried
+public class ExponentialRetryPolicy implements RetryPolicy {
+
+    private final int maxRetries;
+    private final long initialDelayMs;
+    private final long multiplier;
+
+    public ExponentialRetryPolicy(int maxRetries, long initialDelayMs, long multiplier) {
+        this.maxRetries = maxRetries;
+        this.initialDelayMs = initialDelayMs;
+        this.multiplier = multiplier;
+    }
+
+    @Override
+    public boolean shouldRetry(int attempt, Exception error) {
+        return attempt <= maxRetries && !isAuthError(error);
+    }
+
+    @Override
+    public long delayBeforeRetryMs(int attempt, Exception lastError) {
+        long delay = initialDelayMs;
+        for (int i = 1; i < attempt; i++) {
+            delay *= multiplier;
+        }
+        // A server that says when to come back knows better than our backoff
+        if (lastError instanceof ChatException) {
+            delay = Math.max(delay, ((ChatException) lastError).getRetryAfterMs());
+        }
+        return delay;
+    }
+
+    public static boolean isAuthError(Exception error) {
+        String message = error.getMessage();
+        return message != null && (message.contains("401")
+                || message.contains("API key")
+                || message.contains("unauthorized"));
+    }
+}
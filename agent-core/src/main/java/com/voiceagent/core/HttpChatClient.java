@@ -0,0 +1,204 @@
+package com.voiceagent.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * OpenAI-compatible chat completions over HttpURLConnection. Streamed requests read the
+ * server-sent events and join the deltas; the first byte is reported when the status line
+ * arrives either way.
+ */
+public class HttpChatClient implements ChatClient {
+
+    private final String endpoint;
+    private final String apiKey;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private volatile TimeoutPolicy timeoutPolicy;
+    private volatile SSLSocketFactory sslSocketFactory;
+
+    public HttpChatClient(String endpoint, String apiKey, int connectTimeoutMs, int readTimeoutMs) {
+        this.endpoint = endpoint;
+        this.apiKey = apiKey;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    // Chooses the timeouts for requests that don't pass their own, and hears the latencies of all
+    public void setTimeoutPolicy(TimeoutPolicy policy) {
+        this.timeoutPolicy = policy;
+    }
+
+    // Kept for every connection, since pooled connections are only reused with the same factory
+    public void setSslSocketFactory(SSLSocketFactory factory) {
+        this.sslSocketFactory = factory;
+    }
+
+    /**
+     * Opens a connection to the endpoint with a HEAD request and returns it to the keep-alive
+     * pool, so the next request skips the DNS lookup and handshakes. Returns the time it took,
+     * or -1 if the endpoint couldn't be reached.
+     */
+    public long preconnect(int timeoutMs) {
+        long startNanos = System.nanoTime();
+        HttpURLConnection conn = null;
+        try {
+            conn = open();
+            conn.setRequestMethod("HEAD");
+            conn.setConnectTimeout(timeoutMs);
+            conn.setReadTimeout(timeoutMs);
+            // Any status will do; the connection is what we came for
+            conn.getResponseCode();
+            drain(conn.getErrorStream());
+            return elapsedMs(startNanos, System.nanoTime());
+        } catch (IOException e) {
+            return -1;
+        } finally {
+            if (conn != null) conn.disconnect();
+        }
+    }
+
+    @Override
+    public String complete(ChatRequest request, TurnListener listener) throws IOException {
+        TimeoutPolicy policy = timeoutPolicy;
+        if (policy == null) {
+            return execute(request, listener, connectTimeoutMs, readTimeoutMs, null, false);
+        }
+        return execute(request, listener, policy.connectTimeoutMs(), policy.readTimeoutMs(), policy, true);
+    }
+
+    // Fixed timeouts for callers with their own budget; missing it says nothing about the network
+    public String complete(ChatRequest request, TurnListener listener, int connectTimeout, int readTimeout)
+            throws IOException {
+        return execute(request, listener, connectTimeout, readTimeout, timeoutPolicy, false);
+    }
+
+    private String execute(ChatRequest request, TurnListener listener, int connectTimeout, int readTimeout,
+                           TimeoutPolicy policy, boolean adaptive) throws IOException {
+        listener.onRequestStart();
+        long startNanos = System.nanoTime();
+        HttpURLConnection conn = open();
+        boolean connected = false;
+        try {
+            conn.setRequestMethod("POST");
+            conn.setRequestProperty("Authorization", "Bearer " + apiKey);
+            conn.setRequestProperty("Content-Type", "application/json");
+            conn.setConnectTimeout(connectTimeout);
+            conn.setReadTimeout(readTimeout);
+            conn.setDoOutput(true);
+
+            byte[] body = ChatRequestEncoder.encode(request).getBytes(StandardCharsets.UTF_8);
+            conn.setFixedLengthStreamingMode(body.length);
+
+            // Connecting separately splits the latency into the part each timeout covers
+            conn.connect();
+            connected = true;
+            long connectedNanos = System.nanoTime();
+            long connectMs = elapsedMs(startNanos, connectedNanos);
+            if (policy != null) policy.onConnected(connectMs);
+            listener.onConnected(connectMs);
+
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(body);
+            }
+
+            int responseCode = conn.getResponseCode();
+            if (policy != null) policy.onFirstByte(elapsedMs(connectedNanos, System.nanoTime()));
+            listener.onFirstByte();
+            if (responseCode != 200) {
+                drain(conn.getErrorStream());
+                throw errorFor(responseCode, conn.getHeaderField("Retry-After"));
+            }
+
+            String content;
+            if (request.stream) {
+                content = readStream(new BufferedReader(
+                        new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8)));
+            } else {
+                try (Reader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8)) {
+                    content = ChatResponseParser.parseContent(reader);
+                }
+            }
+            listener.onResponse();
+            return content;
+        } catch (SocketTimeoutException e) {
+            if (adaptive) policy.onTimeout(!connected, connected ? readTimeout : connectTimeout);
+            throw e;
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private HttpURLConnection open() throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(endpoint).openConnection();
+        SSLSocketFactory factory = sslSocketFactory;
+        if (factory != null && conn instanceof HttpsURLConnection) {
+            ((HttpsURLConnection) conn).setSSLSocketFactory(factory);
+        }
+        return conn;
+    }
+
+    private static long elapsedMs(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1000000L;
+    }
+
+    private static String readStream(BufferedReader reader) throws IOException {
+        StringBuilder content = new StringBuilder();
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) continue;
+                String data = line.substring(5).trim();
+                if (data.equals("[DONE]")) break;
+                String delta = ChatResponseParser.parseDelta(data);
+                if (delta != null) content.append(delta);
+            }
+        } finally {
+            reader.close();
+        }
+        return content.toString();
+    }
+
+    static ChatException errorFor(int responseCode, String retryAfter) {
+        if (responseCode == 401) {
+            return new ChatException("API key invalid - 401 Unauthorized", responseCode, 0);
+        } else if (responseCode == 429) {
+            return new ChatException("Rate limit exceeded", responseCode, parseRetryAfterMs(retryAfter));
+        }
+        return new ChatException("API error: " + responseCode, responseCode, parseRetryAfterMs(retryAfter));
+    }
+
+    // Only the delay-seconds form; an HTTP date is treated as unknown
+    static long parseRetryAfterMs(String value) {
+        if (value == null) return 0;
+        try {
+            return (long) (Double.parseDouble(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Reading the error body lets the connection be reused
+    private static void drain(InputStream in) {
+        if (in == null) return;
+        byte[] buffer = new byte[1024];
+        try {
+            while (in.read(buffer) != -1) {
+                // discard
+            }
+            in.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.voiceagent.core;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * OpenAI-compatible /audio/transcriptions over HttpURLConnection, uploaded while the audio is
+ * still being recorded. begin() connects and sends the form fields, the caller writes encoded
+ * audio as it arrives, and finish() closes the multipart body and waits for the text, so after
+ * the caller stops speaking only the last chunk and the model's own time are left.
+ */
+public class HttpTranscriptionClient {
+
+    // Small chunks keep each flushed page on the wire instead of waiting in a buffer
+    private static final int CHUNK_SIZE = 1024;
+
+    private final String endpoint;
+    private final String apiKey;
+    private final String model;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private volatile SSLSocketFactory sslSocketFactory;
+
+    public HttpTranscriptionClient(String endpoint, String apiKey, String model,
+                                   int connectTimeoutMs, int readTimeoutMs) {
+        this.endpoint = endpoint;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    public void setSslSocketFactory(SSLSocketFactory factory) {
+        this.sslSocketFactory = factory;
+    }
+
+    /**
+     * One transcription request whose file part is still open. Not thread-safe: begin, the
+     * writes and finish or cancel belong on one thread.
+     */
+    public static class Upload {
+        private final HttpURLConnection conn;
+        private final OutputStream body;
+        private final String boundary;
+        private final long startNanos;
+        private long bytes;
+        private long finishNanos;
+        private long resultNanos;
+
+        private Upload(HttpURLConnection conn, OutputStream body, String boundary, long startNanos) {
+            this.conn = conn;
+            this.body = body;
+            this.boundary = boundary;
+            this.startNanos = startNanos;
+        }
+
+        public void write(byte[] data, int offset, int length) throws IOException {
+            body.write(data, offset, length);
+            body.flush();
+            bytes += length;
+        }
+
+        // Closes the body and returns the transcript, empty if nothing was recognized
+        public String finish() throws IOException {
+            try {
+                body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+                body.close();
+                finishNanos = System.nanoTime();
+
+                int responseCode = conn.getResponseCode();
+                if (responseCode != 200) {
+                    drain(conn.getErrorStream());
+                    throw HttpChatClient.errorFor(responseCode, conn.getHeaderField("Retry-After"));
+                }
+                String text;
+                try (InputStreamReader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8)) {
+                    text = parseText(new JsonReader(reader));
+                }
+                resultNanos = System.nanoTime();
+                return text;
+            } finally {
+                conn.disconnect();
+            }
+        }
+
+        public void cancel() {
+            conn.disconnect();
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        // From the end of the audio to the transcript, the part the caller waits for
+        public long getTailMs() {
+            return (resultNanos - finishNanos) / 1000000L;
+        }
+
+        public long getTotalMs() {
+            return (resultNanos - startNanos) / 1000000L;
+        }
+    }
+
+    // language is ISO-639-1, or null to let the model detect it
+    public Upload begin(String language, String fileName, String contentType) throws IOException {
+        long startNanos = System.nanoTime();
+        HttpURLConnection conn = (HttpURLConnection) new URL(endpoint).openConnection();
+        SSLSocketFactory factory = sslSocketFactory;
+        if (factory != null && conn instanceof HttpsURLConnection) {
+            ((HttpsURLConnection) conn).setSSLSocketFactory(factory);
+        }
+        String boundary = "voiceagent" + UUID.randomUUID().toString().replace("-", "");
+        try {
+            conn.setRequestMethod("POST");
+            conn.setRequestProperty("Authorization", "Bearer " + apiKey);
+            conn.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
+            conn.setConnectTimeout(connectTimeoutMs);
+            conn.setReadTimeout(readTimeoutMs);
+            conn.setDoOutput(true);
+            conn.setChunkedStreamingMode(CHUNK_SIZE);
+
+            OutputStream body = conn.getOutputStream();
+            StringBuilder head = new StringBuilder();
+            field(head, boundary, "model", model);
+            if (language != null) field(head, boundary, "language", language);
+            field(head, boundary, "response_format", "json");
+            field(head, boundary, "temperature", "0");
+            head.append("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"file\"; filename=\"").append(fileName).append("\"\r\n")
+                    .append("Content-Type: ").append(contentType).append("\r\n\r\n");
+            body.write(head.toString().getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            return new Upload(conn, body, boundary, startNanos);
+        } catch (IOException | RuntimeException e) {
+            conn.disconnect();
+            throw e;
+        }
+    }
+
+    private static void field(StringBuilder sb, String boundary, String name, String value) {
+        sb.append("--").append(boundary).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(name).append("\"\r\n\r\n")
+                .append(value).append("\r\n");
+    }
+
+    private static String parseText(JsonReader reader) throws IOException {
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("text") && reader.peek() == JsonToken.STRING) {
+                    return reader.nextString().trim();
+                }
+                reader.skipValue();
+            }
+        } catch (IllegalStateException e) {
+            throw new IOException("Malformed transcription: " + e.getMessage(), e);
+        }
+        throw new IOException("No text in transcription");
+    }
+
+    private static void drain(InputStream in) {
+        if (in == null) return;
+        byte[] buffer = new byte[1024];
+        try {
+            while (in.read(buffer) != -1) {
+                // discard
+            }
+            in.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.voiceagent.core;
+
+import java.util.Locale;
+
+// Ends the conversation when the caller says one of the stop words
+public class KeywordUtteranceClassifier implements UtteranceClassifier {
+
+    private static final String[] DEFAULT_STOP_WORDS = {"stop", "exit", "বন্ধ"};
+
+    private final String[] stopWords;
+
+    public KeywordUtteranceClassifier() {
+        this(DEFAULT_STOP_WORDS);
+    }
+
+    public KeywordUtteranceClassifier(String[] stopWords) {
+        this.stopWords = stopWords;
+    }
+
+    @Override
+    public int classify(String text) {
+        if (text == null || text.trim().isEmpty()) return EMPTY;
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (String word : stopWords) {
+            if (lower.contains(word)) return STOP;
+        }
+        return QUERY;
+    }
+}
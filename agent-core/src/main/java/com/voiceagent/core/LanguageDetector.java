@@ -0,0 +1,10 @@
+package com.voiceagent.core;
+
+public interface LanguageDetector {
+
+    String ENGLISH = "en";
+    String BENGALI = "bn";
+
+    // Returns a language code for the recognized text
+    String detect(CharSequence text);
+}
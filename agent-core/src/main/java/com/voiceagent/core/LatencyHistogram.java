@@ -0,0 +1,126 @@
+package com.voiceagent.core;
+
+/**
+ * Fixed-size log-linear histogram of millisecond latencies. Values below 16ms get exact
+ * buckets; above that every power of two is split into 16 linear buckets, so a percentile
+ * is never off by more than about 6%. Values past ~2 minutes land in the last bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 16; // up to 131071ms
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long max;
+
+    public synchronized void record(long valueMs) {
+        if (valueMs < 0) return;
+        counts[bucketFor(valueMs)]++;
+        totalCount++;
+        if (valueMs > max) max = valueMs;
+    }
+
+    public synchronized long getCount() {
+        return totalCount;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100)
+    public synchronized long percentile(double percentile) {
+        if (totalCount == 0) return 0;
+        long rank = (long) Math.ceil(percentile / 100.0 * totalCount);
+        if (rank < 1) rank = 1;
+
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public void merge(LatencyHistogram other) {
+        long[] otherCounts;
+        long otherMax;
+        synchronized (other) {
+            otherCounts = other.counts.clone();
+            otherMax = other.max;
+        }
+        synchronized (this) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += otherCounts[i];
+                totalCount += otherCounts[i];
+            }
+            if (otherMax > max) max = otherMax;
+        }
+    }
+
+    // Halves every count, so older samples fade out of a long-lived histogram
+    public synchronized void decay() {
+        totalCount = 0;
+        int highest = -1;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] /= 2;
+            totalCount += counts[i];
+            if (counts[i] != 0) highest = i;
+        }
+        max = highest < 0 ? 0 : Math.min(max, upperBound(highest));
+    }
+
+    // Sparse "bucket:count,..." form for SharedPreferences
+    public synchronized String encode() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(max);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] != 0) {
+                sb.append(',').append(i).append(':').append(counts[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    public static LatencyHistogram decode(String encoded) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (encoded == null || encoded.isEmpty()) return histogram;
+        try {
+            String[] parts = encoded.split(",");
+            histogram.max = Long.parseLong(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                int colon = parts[i].indexOf(':');
+                int bucket = Integer.parseInt(parts[i].substring(0, colon));
+                long count = Long.parseLong(parts[i].substring(colon + 1));
+                if (bucket >= 0 && bucket < BUCKET_COUNT && count > 0) {
+                    histogram.counts[bucket] += count;
+                    histogram.totalCount += count;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Unreadable: start over rather than report wrong percentiles
+            return new LatencyHistogram();
+        }
+        return histogram;
+    }
+
+    static int bucketFor(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude > MAX_MAGNITUDE) return BUCKET_COUNT - 1;
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long sub = SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,33 @@
+package com.voiceagent.core;
+
+// Coarse link grade from what the platform reports and what we measured to the endpoint
+public class LinkQuality {
+
+    public static final int NONE = 0;
+    public static final int POOR = 1;
+    public static final int MODERATE = 2;
+    public static final int GOOD = 3;
+
+    // Below these a streamed reply stalls or recognition over the network times out
+    static final int POOR_BANDWIDTH_KBPS = 150;
+    static final int GOOD_BANDWIDTH_KBPS = 2000;
+    static final long POOR_RTT_MS = 1500;
+    static final long GOOD_RTT_MS = 600;
+
+    // downstreamKbps <= 0 and rttMs < 0 mean unknown, and don't count against the link
+    public static int classify(boolean connected, int downstreamKbps, long rttMs) {
+        if (!connected) return NONE;
+        if ((downstreamKbps > 0 && downstreamKbps < POOR_BANDWIDTH_KBPS) || rttMs > POOR_RTT_MS) return POOR;
+        if ((downstreamKbps <= 0 || downstreamKbps >= GOOD_BANDWIDTH_KBPS) && rttMs <= GOOD_RTT_MS) return GOOD;
+        return MODERATE;
+    }
+
+    public static String name(int quality) {
+        switch (quality) {
+            case POOR: return "poor";
+            case MODERATE: return "moderate";
+            case GOOD: return "good";
+            default: return "none";
+        }
+    }
+}
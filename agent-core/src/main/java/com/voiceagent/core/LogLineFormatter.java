@@ -0,0 +1,63 @@
+package com.voiceagent.core;
+
+import java.util.Calendar;
+
+/**
+ * Formats "[yyyy-MM-dd HH:mm:ss.SSS] [tag] LEVEL: message" lines into a caller-supplied builder.
+ * The date/time prefix is recomputed only when the second changes. Not thread-safe; each
+ * writer thread owns one instance.
+ */
+public class LogLineFormatter {
+
+    private final Calendar calendar = Calendar.getInstance();
+    private final char[] secondPrefix = new char[20];
+    private long cachedSecond = Long.MIN_VALUE;
+
+    public void format(long timeMillis, String tag, String level, String message, StringBuilder out) {
+        out.append('[');
+        appendTimestamp(timeMillis, out);
+        out.append("] [").append(tag).append("] ");
+        if (level != null) {
+            out.append(level).append(": ");
+        }
+        out.append(message).append('\n');
+    }
+
+    public void appendTimestamp(long timeMillis, StringBuilder out) {
+        long second = Math.floorDiv(timeMillis, 1000L);
+        if (second != cachedSecond) {
+            calendar.setTimeInMillis(second * 1000L);
+            put4(secondPrefix, 0, calendar.get(Calendar.YEAR));
+            secondPrefix[4] = '-';
+            put2(secondPrefix, 5, calendar.get(Calendar.MONTH) + 1);
+            secondPrefix[7] = '-';
+            put2(secondPrefix, 8, calendar.get(Calendar.DAY_OF_MONTH));
+            secondPrefix[10] = ' ';
+            put2(secondPrefix, 11, calendar.get(Calendar.HOUR_OF_DAY));
+            secondPrefix[13] = ':';
+            put2(secondPrefix, 14, calendar.get(Calendar.MINUTE));
+            secondPrefix[16] = ':';
+            put2(secondPrefix, 17, calendar.get(Calendar.SECOND));
+            secondPrefix[19] = '.';
+            cachedSecond = second;
+        }
+
+        int millis = (int) Math.floorMod(timeMillis, 1000L);
+        out.append(secondPrefix)
+            .append((char) ('0' + millis / 100))
+            .append((char) ('0' + millis / 10 % 10))
+            .append((char) ('0' + millis % 10));
+    }
+
+    private static void put2(char[] buf, int pos, int value) {
+        buf[pos] = (char) ('0' + value / 10);
+        buf[pos + 1] = (char) ('0' + value % 10);
+    }
+
+    private static void put4(char[] buf, int pos, int value) {
+        buf[pos] = (char) ('0' + value / 1000 % 10);
+        buf[pos + 1] = (char) ('0' + value / 100 % 10);
+        buf[pos + 2] = (char) ('0' + value / 10 % 10);
+        buf[pos + 3] = (char) ('0' + value % 10);
+    }
+}
@@ -0,0 +1,96 @@
+package com.voiceagent.core;
+
+/**
+ * Expands log message templates. Placeholders:
+ * {@code {}} inserts the argument as is, {@code {phone}} masks all but the last three digits
+ * of a phone number, and {@code {text}} replaces a transcript with its length when redaction
+ * is on.
+ */
+public class LogTemplate {
+
+    private static volatile boolean redactionEnabled = true;
+
+    public static void setRedactionEnabled(boolean enabled) {
+        redactionEnabled = enabled;
+    }
+
+    public static boolean isRedactionEnabled() {
+        return redactionEnabled;
+    }
+
+    public static String format(String template, Object arg1, Object arg2, Object arg3, int argCount) {
+        StringBuilder out = new StringBuilder(template.length() + 32);
+        int argIndex = 0;
+        int i = 0;
+        int length = template.length();
+        while (i < length) {
+            char c = template.charAt(i);
+            if (c == '{' && argIndex < argCount) {
+                int close = template.indexOf('}', i);
+                if (close > 0) {
+                    String kind = template.substring(i + 1, close);
+                    Object arg = argIndex == 0 ? arg1 : argIndex == 1 ? arg2 : arg3;
+                    if (kind.isEmpty()) {
+                        out.append(arg);
+                    } else if (kind.equals("phone")) {
+                        appendPhone(arg, out);
+                    } else if (kind.equals("text")) {
+                        appendTranscript(arg, out);
+                    } else {
+                        out.append(template, i, close + 1);
+                        i = close + 1;
+                        continue;
+                    }
+                    argIndex++;
+                    i = close + 1;
+                    continue;
+                }
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    static void appendPhone(Object arg, StringBuilder out) {
+        if (arg == null) {
+            out.append("null");
+            return;
+        }
+        String number = arg.toString();
+        if (!redactionEnabled) {
+            out.append(number);
+            return;
+        }
+
+        int totalDigits = 0;
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c >= '0' && c <= '9') totalDigits++;
+        }
+
+        int seenDigits = 0;
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c >= '0' && c <= '9') {
+                seenDigits++;
+                out.append(seenDigits > totalDigits - 3 ? c : '*');
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    static void appendTranscript(Object arg, StringBuilder out) {
+        if (arg == null) {
+            out.append("null");
+            return;
+        }
+        String text = arg.toString();
+        if (!redactionEnabled) {
+            out.append(text);
+            return;
+        }
+        out.append('<').append(text.length()).append(" chars>");
+    }
+}
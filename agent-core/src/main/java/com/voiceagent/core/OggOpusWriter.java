@@ -0,0 +1,152 @@
+package com.voiceagent.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wraps raw Opus packets from an encoder in an Ogg stream (RFC 7845), the container the
+ * transcription endpoint accepts. Packets are gathered a few to a page so the page overhead
+ * stays small while each page still goes out well before the caller stops speaking; every page
+ * reaches the stream as a single write followed by a flush.
+ *
+ * Granule positions are end-of-packet sample counts at 48 kHz, including the pre-skip.
+ */
+public class OggOpusWriter {
+
+    public static final int GRANULE_RATE = 48000;
+
+    private static final int PACKETS_PER_PAGE = 10;
+    private static final int MAX_SEGMENTS = 255;
+    private static final int HEADER_SIZE = 27;
+    private static final byte FLAG_BOS = 0x02;
+    private static final byte FLAG_EOS = 0x04;
+    private static final String VENDOR = "voice-agent";
+    private static final int[] CRC_TABLE = crcTable();
+
+    private final OutputStream out;
+    private final int serial;
+    private int sequence = 0;
+
+    // Pending page
+    private final byte[] segments = new byte[MAX_SEGMENTS];
+    private int segmentCount = 0;
+    private byte[] body = new byte[4096];
+    private int bodyLength = 0;
+    private int packetCount = 0;
+    private long granule = 0;
+
+    public OggOpusWriter(OutputStream out, int serial) {
+        this.out = out;
+        this.serial = serial;
+    }
+
+    // The two header pages; call once before the first packet
+    public void writeHeaders(int channels, int inputSampleRate, int preSkip) throws IOException {
+        byte[] head = new byte[19];
+        System.arraycopy("OpusHead".getBytes(StandardCharsets.US_ASCII), 0, head, 0, 8);
+        head[8] = 1;
+        head[9] = (byte) channels;
+        putLe(head, 10, preSkip, 2);
+        putLe(head, 12, inputSampleRate, 4);
+        // Output gain 0 and channel mapping family 0 are already zero
+        addPacket(head, 0, head.length);
+        writePage(FLAG_BOS);
+
+        byte[] vendor = VENDOR.getBytes(StandardCharsets.US_ASCII);
+        byte[] tags = new byte[8 + 4 + vendor.length + 4];
+        System.arraycopy("OpusTags".getBytes(StandardCharsets.US_ASCII), 0, tags, 0, 8);
+        putLe(tags, 8, vendor.length, 4);
+        System.arraycopy(vendor, 0, tags, 12, vendor.length);
+        addPacket(tags, 0, tags.length);
+        writePage((byte) 0);
+    }
+
+    // endGranule is the 48 kHz sample position at the end of this packet
+    public void writePacket(byte[] data, int offset, int length, long endGranule) throws IOException {
+        int needed = length / 255 + 1;
+        if (needed > MAX_SEGMENTS) throw new IllegalArgumentException("Opus packet too large: " + length);
+        if (segmentCount + needed > MAX_SEGMENTS) writePage((byte) 0);
+        addPacket(data, offset, length);
+        granule = endGranule;
+        if (++packetCount >= PACKETS_PER_PAGE) writePage((byte) 0);
+    }
+
+    // Sends the pending packets now instead of waiting for a full page
+    public void flush() throws IOException {
+        if (segmentCount > 0) writePage((byte) 0);
+    }
+
+    // Ends the stream; the last page carries the end-of-stream flag even if it has no packets
+    public void finish() throws IOException {
+        writePage(FLAG_EOS);
+    }
+
+    private void addPacket(byte[] data, int offset, int length) {
+        // Lacing: runs of 255 then the remainder, which is 0 when the length is a multiple of 255
+        int remaining = length;
+        while (remaining >= 255) {
+            segments[segmentCount++] = (byte) 255;
+            remaining -= 255;
+        }
+        segments[segmentCount++] = (byte) remaining;
+
+        if (bodyLength + length > body.length) {
+            byte[] grown = new byte[Math.max(body.length * 2, bodyLength + length)];
+            System.arraycopy(body, 0, grown, 0, bodyLength);
+            body = grown;
+        }
+        System.arraycopy(data, offset, body, bodyLength, length);
+        bodyLength += length;
+    }
+
+    private void writePage(byte flags) throws IOException {
+        byte[] page = new byte[HEADER_SIZE + segmentCount + bodyLength];
+        page[0] = 'O';
+        page[1] = 'g';
+        page[2] = 'g';
+        page[3] = 'S';
+        page[5] = flags;
+        putLe(page, 6, granule, 8);
+        putLe(page, 14, serial, 4);
+        putLe(page, 18, sequence++, 4);
+        page[26] = (byte) segmentCount;
+        System.arraycopy(segments, 0, page, HEADER_SIZE, segmentCount);
+        System.arraycopy(body, 0, page, HEADER_SIZE + segmentCount, bodyLength);
+        // Checksum over the whole page with its own field zeroed
+        putLe(page, 22, crc(page), 4);
+
+        segmentCount = 0;
+        bodyLength = 0;
+        packetCount = 0;
+        out.write(page);
+        out.flush();
+    }
+
+    private static void putLe(byte[] target, int offset, long value, int bytes) {
+        for (int i = 0; i < bytes; i++) {
+            target[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    // Ogg's CRC-32: polynomial 0x04c11db7, not reflected, zero initial value and no final xor
+    private static int crc(byte[] data) {
+        int crc = 0;
+        for (byte b : data) {
+            crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ b) & 0xff];
+        }
+        return crc;
+    }
+
+    private static int[] crcTable() {
+        int[] table = new int[256];
+        for (int i = 0; i < 256; i++) {
+            int r = i << 24;
+            for (int bit = 0; bit < 8; bit++) {
+                r = (r & 0x80000000) != 0 ? (r << 1) ^ 0x04c11db7 : r << 1;
+            }
+            table[i] = r;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,6 @@
+package com.voiceagent.core;
+
+public interface PromptProvider {
+
+    String systemPrompt(String language);
+}
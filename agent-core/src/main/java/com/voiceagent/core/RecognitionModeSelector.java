@@ -0,0 +1,55 @@
+package com.voiceagent.core;
+
+/**
+ * Chooses between network and on-device speech recognition from the link grade. It drops to
+ * on-device as soon as the link is poor or a network recognition fails, and only goes back
+ * online once the link has stayed moderate or better for recoverMs, so a flapping link doesn't
+ * switch recognizers turn by turn. Without an on-device recognizer it always answers ONLINE.
+ */
+public class RecognitionModeSelector {
+
+    public static final int ONLINE = 0;
+    public static final int OFFLINE = 1;
+
+    private final Clock clock;
+    private final long recoverMs;
+
+    private int mode = ONLINE;
+    private long goodSince = -1;
+
+    public RecognitionModeSelector(Clock clock, long recoverMs) {
+        this.clock = clock;
+        this.recoverMs = recoverMs;
+    }
+
+    // Called when a turn starts listening
+    public synchronized int select(int linkQuality, boolean offlineAvailable) {
+        if (!offlineAvailable) return ONLINE;
+        long now = clock.uptimeMillis();
+        if (linkQuality <= LinkQuality.POOR) {
+            mode = OFFLINE;
+            goodSince = -1;
+        } else if (mode == OFFLINE) {
+            if (goodSince < 0) goodSince = now;
+            if (now - goodSince >= recoverMs) {
+                mode = ONLINE;
+                goodSince = -1;
+            }
+        }
+        return mode;
+    }
+
+    // A network recognition failed whatever the link grade said; stay on-device for a while
+    public synchronized void onNetworkError() {
+        mode = OFFLINE;
+        goodSince = -1;
+    }
+
+    public synchronized int getMode() {
+        return mode;
+    }
+
+    public static String name(int mode) {
+        return mode == OFFLINE ? "offline" : "online";
+    }
+}
@@ -0,0 +1,9 @@
+package com.voiceagent.core;
+
+public interface RetryPolicy {
+
+    // attempt is the number of attempts already made
+    boolean shouldRetry(int attempt, Exception error);
+
+    long delayBeforeRetryMs(int attempt, Exception lastError);
+}
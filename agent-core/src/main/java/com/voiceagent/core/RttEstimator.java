@@ -0,0 +1,44 @@
+package com.voiceagent.core;
+
+/**
+ * Smoothed round-trip estimate in the style of TCP's retransmit timer (RFC 6298): an EWMA of
+ * the samples with gain 1/8 and of their deviation with gain 1/4. Cheap enough to update on
+ * every request and to read on every hot path.
+ */
+public class RttEstimator {
+
+    private long smoothedMs = -1;
+    private long variationMs;
+    private long count;
+
+    public synchronized void record(long sampleMs) {
+        if (sampleMs < 0) return;
+        if (smoothedMs < 0) {
+            smoothedMs = sampleMs;
+            variationMs = sampleMs / 2;
+        } else {
+            variationMs = (3 * variationMs + Math.abs(smoothedMs - sampleMs)) / 4;
+            smoothedMs = (7 * smoothedMs + sampleMs) / 8;
+        }
+        count++;
+    }
+
+    // -1 until the first sample
+    public synchronized long getSmoothedMs() {
+        return smoothedMs;
+    }
+
+    public synchronized long getVariationMs() {
+        return variationMs;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized void reset() {
+        smoothedMs = -1;
+        variationMs = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,11 @@
+package com.voiceagent.core;
+
+// The subset of android.os.Handler the call flow needs
+public interface Scheduler {
+
+    void post(Runnable task);
+
+    void postDelayed(Runnable task, long delayMs);
+
+    void removeCallbacks(Runnable task);
+}
@@ -0,0 +1,14 @@
+package com.voiceagent.core;
+
+// Bengali if any character is in the Bengali block, otherwise English
+public class ScriptLanguageDetector implements LanguageDetector {
+
+    @Override
+    public String detect(CharSequence text) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '\u0980' && c <= '\u09FF') return BENGALI;
+        }
+        return ENGLISH;
+    }
+}
@@ -0,0 +1,151 @@
+package com.voiceagent.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs named init tasks as soon as their dependencies have finished, each on the executor it
+ * was declared with, so independent work overlaps and only what the first frame needs stays on
+ * the main thread. Deferred tasks additionally wait for releaseDeferred(), which the caller
+ * invokes once the first frame is up.
+ *
+ * Dependencies must be declared before their dependents, which also rules out cycles. A task
+ * that throws is recorded and its dependents still run, so one broken subsystem doesn't keep
+ * the rest from starting. Each task's start offset and duration are kept for summary().
+ */
+public class StartupOrchestrator {
+
+    private static class Task {
+        final String name;
+        final CompletableFuture<Void> done;
+        long startMs = -1;
+        long durationMs = -1;
+        String thread;
+        String error;
+
+        Task(String name, CompletableFuture<Void> done) {
+            this.name = name;
+            this.done = done;
+        }
+    }
+
+    private final Clock clock;
+    private final CompletableFuture<Void> started = new CompletableFuture<>();
+    private final CompletableFuture<Void> deferredReleased = new CompletableFuture<>();
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+    private volatile long originMs;
+
+    public StartupOrchestrator(Clock clock) {
+        this.clock = clock;
+    }
+
+    public StartupOrchestrator add(String name, Executor executor, Runnable body, String... dependsOn) {
+        return add(name, executor, body, false, dependsOn);
+    }
+
+    // Not needed for the first frame: also waits for releaseDeferred()
+    public StartupOrchestrator addDeferred(String name, Executor executor, Runnable body, String... dependsOn) {
+        return add(name, executor, body, true, dependsOn);
+    }
+
+    private synchronized StartupOrchestrator add(String name, Executor executor, Runnable body,
+                                                 boolean deferred, String... dependsOn) {
+        if (started.isDone()) throw new IllegalStateException("Startup task " + name + " added after start()");
+        if (tasks.containsKey(name)) throw new IllegalArgumentException("Duplicate startup task " + name);
+
+        List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+        prerequisites.add(deferred ? deferredReleased : started);
+        for (String dependency : dependsOn) {
+            prerequisites.add(find(dependency).done);
+        }
+
+        final Task[] self = new Task[1];
+        CompletableFuture<Void> done = CompletableFuture
+                .allOf(prerequisites.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> run(self[0], body), executor);
+        self[0] = new Task(name, done);
+        tasks.put(name, self[0]);
+        return this;
+    }
+
+    // Call once everything is declared
+    public void start() {
+        originMs = clock.uptimeMillis();
+        started.complete(null);
+    }
+
+    public void releaseDeferred() {
+        deferredReleased.complete(null);
+    }
+
+    // Runs action on executor once all the named tasks have finished, failed or not
+    public void whenDone(Executor executor, Runnable action, String... names) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        synchronized (this) {
+            for (String name : names) {
+                futures.add(find(name).done);
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenRunAsync(action, executor);
+    }
+
+    public boolean isDone(String... names) {
+        synchronized (this) {
+            for (String name : names) {
+                if (!find(name).done.isDone()) return false;
+            }
+        }
+        return true;
+    }
+
+    // Milliseconds from start() until all the named tasks had finished, or -1 if they haven't
+    public long elapsedUntil(String... names) {
+        long end = 0;
+        synchronized (this) {
+            for (String name : names) {
+                Task task = find(name);
+                if (!task.done.isDone() || task.durationMs < 0) return -1;
+                end = Math.max(end, task.startMs + task.durationMs);
+            }
+        }
+        return end;
+    }
+
+    private void run(Task task, Runnable body) {
+        long start = clock.uptimeMillis();
+        try {
+            body.run();
+        } catch (RuntimeException e) {
+            task.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        synchronized (this) {
+            task.startMs = start - originMs;
+            task.durationMs = clock.uptimeMillis() - start;
+            task.thread = Thread.currentThread().getName();
+        }
+    }
+
+    private Task find(String name) {
+        Task task = tasks.get(name);
+        if (task == null) throw new IllegalArgumentException("Unknown startup task " + name);
+        return task;
+    }
+
+    public synchronized String summary() {
+        StringBuilder sb = new StringBuilder("Startup ms (start + took, thread)\n");
+        for (Task task : tasks.values()) {
+            if (task.durationMs < 0) {
+                sb.append(task.name).append(": pending\n");
+                continue;
+            }
+            sb.append(String.format(Locale.US, "%s: %d + %d, %s%s\n", task.name, task.startMs, task.durationMs,
+                    task.thread, task.error != null ? " (" + task.error + ")" : ""));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,16 @@
+package com.voiceagent.core;
+
+// Chooses connect and read timeouts for each request and hears how long the last one took
+public interface TimeoutPolicy {
+
+    int connectTimeoutMs();
+
+    int readTimeoutMs();
+
+    default void onConnected(long connectMs) {}
+
+    default void onFirstByte(long waitMs) {}
+
+    // connecting is true when the connect timed out, false when waiting for the response did
+    default void onTimeout(boolean connecting, int timeoutMs) {}
+}
@@ -0,0 +1,18 @@
+package com.voiceagent.core;
+
+// Progress of one reply through the chat client; all callbacks run on the calling thread
+public interface TurnListener {
+
+    TurnListener NONE = new TurnListener() {};
+
+    default void onRequestStart() {}
+
+    // DNS, TCP and TLS only, before the request is sent; near zero on a pooled connection
+    default void onConnected(long connectMs) {}
+
+    default void onFirstByte() {}
+
+    default void onResponse() {}
+
+    default void onRetry(int attempt, Exception lastError) {}
+}
@@ -0,0 +1,11 @@
+package com.voiceagent.core;
+
+public interface UtteranceClassifier {
+
+    int EMPTY = 0;
+    int STOP = 1;
+    int QUERY = 2;
+
+    // What the agent should do with a recognized utterance
+    int classify(String text);
+}
@@ -0,0 +1,55 @@
+package com.voiceagent.core;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Summarizes several voicemail transcripts with one chat request: the transcripts go out
+ * numbered, and the model answers one numbered line per message. A message the reply skips
+ * gets no summary here, so the caller can fall back to its transcript. Caller numbers stay on
+ * the device; the notification adds them next to each summary.
+ */
+public class VoicemailDigest {
+
+    public static final String SYSTEM_PROMPT = "You summarize phone voicemails for the person who missed the calls. "
+            + "For each numbered message, reply with one line: the same number, a colon, and a summary of at most "
+            + "20 words in English saying who called, if they said, what they want and anything urgent. "
+            + "No other text.";
+
+    // Long messages are cut so one batch stays well inside the context window
+    private static final int MAX_TRANSCRIPT_CHARS = 1500;
+    private static final Pattern LINE = Pattern.compile("^\\s*\\[?(\\d+)[\\].:)]\\s*(.+)$");
+
+    public static String prompt(List<String> transcripts) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < transcripts.size(); i++) {
+            String transcript = transcripts.get(i);
+            if (transcript.length() > MAX_TRANSCRIPT_CHARS) transcript = transcript.substring(0, MAX_TRANSCRIPT_CHARS);
+            sb.append(String.format(Locale.US, "%d. %s\n", i + 1, transcript));
+        }
+        return sb.toString();
+    }
+
+    // One summary per transcript, null where the reply had none
+    public static String[] parse(String reply, int count) {
+        String[] summaries = new String[count];
+        if (reply == null) return summaries;
+        for (String line : reply.split("\n")) {
+            Matcher matcher = LINE.matcher(line);
+            if (!matcher.matches()) continue;
+            int index;
+            try {
+                index = Integer.parseInt(matcher.group(1)) - 1;
+            } catch (NumberFormatException e) {
+                // More digits than an int holds; no message has that number
+                continue;
+            }
+            if (index >= 0 && index < count && summaries[index] == null) {
+                summaries[index] = matcher.group(2).trim();
+            }
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,105 @@
+package com.voiceagent.core;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveTimeoutsTest {
+
+    private static final int MARGIN_MS = 250;
+    private static final AdaptiveTimeouts.Bounds CONNECT = new AdaptiveTimeouts.Bounds(3000, 500, 10000);
+    private static final AdaptiveTimeouts.Bounds READ = new AdaptiveTimeouts.Bounds(2000, 1000, 20000);
+
+    private String key = "wifi";
+    private final AdaptiveTimeouts timeouts = newTimeouts();
+
+    @Test
+    public void defaultsUntilEnoughSamples() {
+        record(AdaptiveTimeouts.MIN_SAMPLES - 1, 1500);
+
+        assertEquals(READ.defaultMs, timeouts.readTimeoutMs());
+        assertEquals(CONNECT.defaultMs, timeouts.connectTimeoutMs());
+    }
+
+    @Test
+    public void enoughSamplesGiveP99PlusMargin() {
+        // A histogram never reports past its largest sample, so equal samples are exact
+        record(AdaptiveTimeouts.MIN_SAMPLES, 1500);
+
+        assertEquals(1500 + MARGIN_MS, timeouts.readTimeoutMs());
+        assertEquals(1500 + MARGIN_MS, timeouts.connectTimeoutMs());
+    }
+
+    @Test
+    public void timeoutsAreClampedToBounds() {
+        record(AdaptiveTimeouts.MIN_SAMPLES, 10);
+        assertEquals(READ.minMs, timeouts.readTimeoutMs());
+        assertEquals(CONNECT.minMs, timeouts.connectTimeoutMs());
+
+        key = "cellular";
+        record(AdaptiveTimeouts.MIN_SAMPLES, 60000);
+        assertEquals(READ.maxMs, timeouts.readTimeoutMs());
+        assertEquals(CONNECT.maxMs, timeouts.connectTimeoutMs());
+    }
+
+    @Test
+    public void eachTimeoutDoublesTheNextUpToTheCap() {
+        timeouts.onTimeout(false, 2000);
+        assertEquals(4000, timeouts.readTimeoutMs());
+        timeouts.onTimeout(false, 4000);
+        assertEquals(8000, timeouts.readTimeoutMs());
+        timeouts.onTimeout(false, 8000);
+        assertEquals(16000, timeouts.readTimeoutMs());
+        timeouts.onTimeout(false, 16000);
+        assertEquals(16000, timeouts.readTimeoutMs());
+    }
+
+    @Test
+    public void firstReplyResetsTheBackoff() {
+        timeouts.onTimeout(true, 3000);
+        timeouts.onTimeout(true, 6000);
+        // 3000 doubled twice, past the cap
+        assertEquals(CONNECT.maxMs, timeouts.connectTimeoutMs());
+
+        timeouts.onFirstByte(300);
+        assertEquals(CONNECT.defaultMs, timeouts.connectTimeoutMs());
+        assertEquals(READ.defaultMs, timeouts.readTimeoutMs());
+    }
+
+    @Test
+    public void backoffIsPerKey() {
+        timeouts.onTimeout(false, 2000);
+        key = "cellular";
+        assertEquals(READ.defaultMs, timeouts.readTimeoutMs());
+    }
+
+    @Test
+    public void exportAndRestoreKeepTheEstimates() {
+        record(AdaptiveTimeouts.MIN_SAMPLES, 1500);
+        key = "cellular";
+        record(AdaptiveTimeouts.MIN_SAMPLES, 4000);
+        Map<String, String> saved = timeouts.export();
+
+        AdaptiveTimeouts restored = newTimeouts();
+        restored.restore(saved);
+        assertEquals(4000 + MARGIN_MS, restored.readTimeoutMs());
+        key = "wifi";
+        assertEquals(1500 + MARGIN_MS, restored.readTimeoutMs());
+        assertEquals(1500 + MARGIN_MS, restored.connectTimeoutMs());
+        key = "ethernet";
+        assertEquals(READ.defaultMs, restored.readTimeoutMs());
+    }
+
+    private AdaptiveTimeouts newTimeouts() {
+        return new AdaptiveTimeouts(() -> key, CONNECT, READ, MARGIN_MS);
+    }
+
+    private void record(int samples, long ms) {
+        for (int i = 0; i < samples; i++) {
+            timeouts.onConnected(ms);
+            timeouts.onFirstByte(ms);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.voiceagent.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EchoDetectorTest {
+
+    private static final String REPLY = "Your appointment is on Monday at ten in the morning, is there anything else?";
+
+    private final EchoDetector detector = new EchoDetector();
+
+    @Test
+    public void replyHeardBackIsEcho() {
+        assertTrue(detector.isEcho("your appointment is on Monday at ten in the morning", REPLY));
+    }
+
+    @Test
+    public void replyWithAWordDroppedIsStillEcho() {
+        assertTrue(detector.isEcho("your appointment is on monday at ten in the morning there anything else", REPLY));
+    }
+
+    @Test
+    public void callerReusingTheReplysWordsIsNotEcho() {
+        // Mostly the same words, in the caller's own order
+        assertFalse(detector.isEcho("monday morning is there an appointment at ten", REPLY));
+    }
+
+    @Test
+    public void shortAnswersAreNeverEcho() {
+        assertFalse(detector.isEcho("Monday at ten", REPLY));
+        assertFalse(detector.isEcho("yes", REPLY));
+    }
+
+    @Test
+    public void worksAcrossScripts() {
+        String reply = "আপনার অ্যাপয়েন্টমেন্ট সোমবার সকাল দশটায়";
+        assertTrue(detector.isEcho("আপনার অ্যাপয়েন্টমেন্ট সোমবার সকাল দশটায়", reply));
+        assertFalse(detector.isEcho("সোমবার দশটায় আমার অ্যাপয়েন্টমেন্ট আছে", reply));
+    }
+
+    @Test
+    public void nothingSpokenIsNeverEcho() {
+        assertFalse(detector.isEcho("your appointment is on Monday", null));
+        assertFalse(detector.isEcho(null, REPLY));
+    }
+}
@@ -0,0 +1,119 @@
+package com.voiceagent.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EnergyEndpointerTest {
+
+    private static final int FRAME_MS = 20;
+    private static final int START_MS = 60;
+    private static final int END_SILENCE_MS = 200;
+    private static final int NO_SPEECH_MS = 1000;
+    private static final int MAX_SPEECH_MS = 2000;
+
+    // 20 ms at 16 kHz
+    private static final byte[] QUIET = frame(50);
+    private static final byte[] LOUD = frame(5000);
+
+    @Test
+    public void rmsOfConstantSamplesIsTheirMagnitude() {
+        assertEquals(5000, EnergyEndpointer.rms(LOUD, LOUD.length), 0.001);
+        assertEquals(0, EnergyEndpointer.rms(new byte[0], 0), 0.001);
+    }
+
+    @Test
+    public void speechStartsAfterStartMsAndIsReportedOnce() {
+        EnergyEndpointer endpointer = newEndpointer();
+        feed(endpointer, QUIET, 10);
+
+        assertEquals(EnergyEndpointer.WAITING, endpointer.onFrame(LOUD, LOUD.length));
+        assertEquals(EnergyEndpointer.WAITING, endpointer.onFrame(LOUD, LOUD.length));
+        assertEquals(EnergyEndpointer.SPEECH_STARTED, endpointer.onFrame(LOUD, LOUD.length));
+        assertEquals(EnergyEndpointer.IN_SPEECH, endpointer.onFrame(LOUD, LOUD.length));
+        assertTrue(endpointer.hasSpeech());
+    }
+
+    @Test
+    public void shortBlipDoesNotStartSpeech() {
+        EnergyEndpointer endpointer = newEndpointer();
+        feed(endpointer, LOUD, 2);
+        assertEquals(EnergyEndpointer.WAITING, endpointer.onFrame(QUIET, QUIET.length));
+        assertEquals(EnergyEndpointer.WAITING, endpointer.onFrame(LOUD, LOUD.length));
+        assertFalse(endpointer.hasSpeech());
+    }
+
+    @Test
+    public void silenceAfterSpeechEndsTheUtterance() {
+        EnergyEndpointer endpointer = newEndpointer();
+        feed(endpointer, LOUD, 10);
+
+        int silentFrames = END_SILENCE_MS / FRAME_MS;
+        assertEquals(EnergyEndpointer.IN_SPEECH, feed(endpointer, QUIET, silentFrames - 1));
+        assertEquals(EnergyEndpointer.SPEECH_ENDED, endpointer.onFrame(QUIET, QUIET.length));
+        // Stays ended whatever comes next
+        assertEquals(EnergyEndpointer.SPEECH_ENDED, endpointer.onFrame(LOUD, LOUD.length));
+    }
+
+    @Test
+    public void pauseShorterThanEndSilenceKeepsSpeaking() {
+        EnergyEndpointer endpointer = newEndpointer();
+        feed(endpointer, LOUD, 10);
+        feed(endpointer, QUIET, END_SILENCE_MS / FRAME_MS - 1);
+        assertEquals(EnergyEndpointer.IN_SPEECH, endpointer.onFrame(LOUD, LOUD.length));
+        assertEquals(EnergyEndpointer.IN_SPEECH, feed(endpointer, QUIET, END_SILENCE_MS / FRAME_MS - 1));
+    }
+
+    @Test
+    public void nothingButBackgroundTimesOut() {
+        EnergyEndpointer endpointer = newEndpointer();
+        assertEquals(EnergyEndpointer.WAITING, feed(endpointer, QUIET, NO_SPEECH_MS / FRAME_MS - 1));
+        assertEquals(EnergyEndpointer.NO_SPEECH, endpointer.onFrame(QUIET, QUIET.length));
+        assertFalse(endpointer.hasSpeech());
+    }
+
+    @Test
+    public void longSpeechIsCutAtMaxSpeechMs() {
+        EnergyEndpointer endpointer = newEndpointer();
+        assertEquals(EnergyEndpointer.IN_SPEECH, feed(endpointer, LOUD, MAX_SPEECH_MS / FRAME_MS - 1));
+        assertEquals(EnergyEndpointer.SPEECH_ENDED, endpointer.onFrame(LOUD, LOUD.length));
+    }
+
+    @Test
+    public void loudBackgroundRaisesTheSpeechThreshold() {
+        EnergyEndpointer endpointer = newEndpointer();
+        // Below MIN_SPEECH_RMS, so it's learned as background
+        feed(endpointer, frame(250), 40);
+        byte[] talk = frame(600);
+        assertEquals(EnergyEndpointer.WAITING, feed(endpointer, talk, 5));
+
+        EnergyEndpointer quietRoom = newEndpointer();
+        feed(quietRoom, QUIET, 40);
+        assertEquals(EnergyEndpointer.IN_SPEECH, feed(quietRoom, talk, 5));
+    }
+
+    private static EnergyEndpointer newEndpointer() {
+        return new EnergyEndpointer(FRAME_MS, START_MS, END_SILENCE_MS, NO_SPEECH_MS, MAX_SPEECH_MS);
+    }
+
+    // State after the last frame
+    private static int feed(EnergyEndpointer endpointer, byte[] frame, int count) {
+        int state = -1;
+        for (int i = 0; i < count; i++) {
+            state = endpointer.onFrame(frame, frame.length);
+        }
+        return state;
+    }
+
+    private static byte[] frame(int amplitude) {
+        byte[] pcm = new byte[640];
+        for (int i = 0; i < pcm.length; i += 2) {
+            int sample = (i / 2) % 2 == 0 ? amplitude : -amplitude;
+            pcm[i] = (byte) sample;
+            pcm[i + 1] = (byte) (sample >> 8);
+        }
+        return pcm;
+    }
+}
@@ -0,0 +1,173 @@
+package com.voiceagent.core;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpTranscriptionClientTest {
+
+    private HttpServer server;
+    private String url;
+
+    // What the stand-in endpoint got, and what it answers with
+    private volatile String authorization;
+    private volatile String contentType;
+    private volatile byte[] received;
+    private volatile int status = 200;
+    private volatile String reply = "{\"text\":\" hello there \"}";
+    private volatile String retryAfter;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/audio/transcriptions", this::handle);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/audio/transcriptions";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            received = readAll(exchange.getRequestBody());
+            if (retryAfter != null) exchange.getResponseHeaders().set("Retry-After", retryAfter);
+            byte[] body = reply.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Test
+    public void uploadIsOneMultipartFormWithTheAudioLast() throws IOException {
+        HttpTranscriptionClient client = newClient();
+        HttpTranscriptionClient.Upload upload = client.begin("bn", "speech.ogg", "audio/ogg");
+        byte[] audio = new byte[3000];
+        for (int i = 0; i < audio.length; i++) audio[i] = (byte) i;
+        // Written in pieces, the way pages arrive from the encoder
+        upload.write(audio, 0, 1000);
+        upload.write(audio, 1000, 2000);
+
+        assertEquals("hello there", upload.finish());
+        assertEquals(3000, upload.getBytes());
+        assertEquals("Bearer key", authorization);
+
+        assertNotNull(contentType);
+        assertTrue(contentType.startsWith("multipart/form-data; boundary="));
+        String boundary = contentType.substring(contentType.indexOf("boundary=") + 9);
+        String expected = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"model\"\r\n\r\nwhisper\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"language\"\r\n\r\nbn\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"response_format\"\r\n\r\njson\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"temperature\"\r\n\r\n0\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"speech.ogg\"\r\n"
+                + "Content-Type: audio/ogg\r\n\r\n"
+                + new String(audio, StandardCharsets.ISO_8859_1)
+                + "\r\n--" + boundary + "--\r\n";
+        assertEquals(expected, new String(received, StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void languageIsLeftOutForAutoDetection() throws IOException {
+        HttpTranscriptionClient.Upload upload = newClient().begin(null, "speech.ogg", "audio/ogg");
+        upload.write(new byte[] {1, 2, 3}, 0, 3);
+        upload.finish();
+
+        assertFalse(new String(received, StandardCharsets.ISO_8859_1).contains("name=\"language\""));
+    }
+
+    @Test
+    public void rejectedKeyIsAChatExceptionWithItsStatus() throws IOException {
+        status = 401;
+        reply = "{\"error\":{\"message\":\"Invalid API Key\"}}";
+
+        ChatException error = finishExpectingError();
+        assertEquals(401, error.getStatusCode());
+    }
+
+    @Test
+    public void rateLimitCarriesRetryAfter() throws IOException {
+        status = 429;
+        retryAfter = "2.5";
+        reply = "{\"error\":{\"message\":\"slow down\"}}";
+
+        ChatException error = finishExpectingError();
+        assertEquals(429, error.getStatusCode());
+        assertEquals(2500, error.getRetryAfterMs());
+    }
+
+    @Test
+    public void serverErrorIsAChatException() throws IOException {
+        status = 503;
+        reply = "{}";
+
+        assertEquals(503, finishExpectingError().getStatusCode());
+    }
+
+    @Test
+    public void replyWithoutTextIsAnError() throws IOException {
+        reply = "{\"segments\":[]}";
+        HttpTranscriptionClient.Upload upload = newClient().begin("en", "speech.ogg", "audio/ogg");
+        try {
+            upload.finish();
+            fail("No text should not read as an empty transcript");
+        } catch (ChatException e) {
+            fail("Not an HTTP error: " + e.getMessage());
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    private HttpTranscriptionClient newClient() {
+        return new HttpTranscriptionClient(url, "key", "whisper", 2000, 5000);
+    }
+
+    private ChatException finishExpectingError() throws IOException {
+        HttpTranscriptionClient.Upload upload = newClient().begin("en", "speech.ogg", "audio/ogg");
+        upload.write(new byte[] {1, 2, 3}, 0, 3);
+        try {
+            upload.finish();
+        } catch (ChatException e) {
+            return e;
+        }
+        throw new AssertionError("Expected a ChatException for HTTP " + status);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,188 @@
+package com.voiceagent.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OggOpusWriterTest {
+
+    private static final int SERIAL = 0x1234abcd;
+
+    // One parsed page, with the raw bytes kept for the checksum
+    private static class Page {
+        byte[] raw;
+        int flags;
+        long granule;
+        int serial;
+        int sequence;
+        int[] segments;
+        byte[] body;
+    }
+
+    @Test
+    public void headersComeFirstWithBeginningOfStreamOnTheFirstPage() throws IOException {
+        List<Page> pages = write(new Packets());
+
+        Page head = pages.get(0);
+        assertEquals(0x02, head.flags);
+        assertEquals("OpusHead", new String(head.body, 0, 8, StandardCharsets.US_ASCII));
+        assertEquals(1, head.body[9]);
+        assertEquals(312, (head.body[10] & 0xff) | (head.body[11] & 0xff) << 8);
+
+        Page tags = pages.get(1);
+        assertEquals(0, tags.flags);
+        assertEquals("OpusTags", new String(tags.body, 0, 8, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void everyPageCarriesOggCrc() throws IOException {
+        List<Page> pages = write(new Packets().add(100, 960).add(300, 1920).add(510, 2880));
+
+        for (Page page : pages) {
+            byte[] zeroed = page.raw.clone();
+            Arrays.fill(zeroed, 22, 26, (byte) 0);
+            assertEquals(referenceCrc(zeroed), readLe(page.raw, 22, 4));
+        }
+    }
+
+    @Test
+    public void lacingEndsWithZeroOnMultiplesOf255() throws IOException {
+        List<Page> pages = write(new Packets().add(255, 960).add(510, 1920).add(254, 2880).add(0, 3840));
+
+        Page audio = pages.get(2);
+        assertArrayEquals(new int[] {255, 0, 255, 255, 0, 254, 0}, audio.segments);
+        assertEquals(255 + 510 + 254, audio.body.length);
+    }
+
+    @Test
+    public void finishEndsTheStreamOnTheLastPage() throws IOException {
+        List<Page> pages = write(new Packets().add(40, 960).add(40, 1920));
+
+        Page last = pages.get(pages.size() - 1);
+        assertEquals(0x04, last.flags);
+        assertEquals(1920, last.granule);
+        for (int i = 0; i < pages.size(); i++) {
+            assertEquals(i, pages.get(i).sequence);
+            assertEquals(SERIAL, pages.get(i).serial);
+        }
+        for (int i = 0; i < pages.size() - 1; i++) {
+            assertTrue((pages.get(i).flags & 0x04) == 0);
+        }
+    }
+
+    @Test
+    public void finishAfterFlushWritesAnEmptyEndOfStreamPage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OggOpusWriter writer = new OggOpusWriter(out, SERIAL);
+        writer.writeHeaders(1, 16000, 312);
+        writer.writePacket(new byte[40], 0, 40, 960);
+        writer.flush();
+        writer.finish();
+
+        List<Page> pages = parse(out.toByteArray());
+        assertEquals(4, pages.size());
+        Page last = pages.get(3);
+        assertEquals(0x04, last.flags);
+        assertEquals(0, last.segments.length);
+        assertEquals(960, last.granule);
+    }
+
+    @Test
+    public void fullPageIsWrittenAfterTenPackets() throws IOException {
+        Packets packets = new Packets();
+        for (int i = 1; i <= 11; i++) packets.add(20, i * 960L);
+        List<Page> pages = write(packets);
+
+        // Headers, ten packets, then the eleventh on the end-of-stream page
+        assertEquals(4, pages.size());
+        assertEquals(10, pages.get(2).segments.length);
+        assertEquals(10 * 960, pages.get(2).granule);
+        assertEquals(1, pages.get(3).segments.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPacketsLongerThanOnePage() throws IOException {
+        OggOpusWriter writer = new OggOpusWriter(new ByteArrayOutputStream(), SERIAL);
+        writer.writePacket(new byte[255 * 255], 0, 255 * 255, 960);
+    }
+
+    private static class Packets {
+        final List<byte[]> data = new ArrayList<>();
+        final List<Long> granules = new ArrayList<>();
+
+        Packets add(int length, long endGranule) {
+            byte[] packet = new byte[length];
+            for (int i = 0; i < length; i++) packet[i] = (byte) (i * 7 + length);
+            data.add(packet);
+            granules.add(endGranule);
+            return this;
+        }
+    }
+
+    private static List<Page> write(Packets packets) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OggOpusWriter writer = new OggOpusWriter(out, SERIAL);
+        writer.writeHeaders(1, 16000, 312);
+        for (int i = 0; i < packets.data.size(); i++) {
+            byte[] packet = packets.data.get(i);
+            writer.writePacket(packet, 0, packet.length, packets.granules.get(i));
+        }
+        writer.finish();
+        return parse(out.toByteArray());
+    }
+
+    private static List<Page> parse(byte[] stream) {
+        List<Page> pages = new ArrayList<>();
+        int at = 0;
+        while (at < stream.length) {
+            assertEquals("OggS", new String(stream, at, 4, StandardCharsets.US_ASCII));
+            Page page = new Page();
+            page.flags = stream[at + 5];
+            page.granule = readLe(stream, at + 6, 8);
+            page.serial = (int) readLe(stream, at + 14, 4);
+            page.sequence = (int) readLe(stream, at + 18, 4);
+            int count = stream[at + 26] & 0xff;
+            page.segments = new int[count];
+            int bodyLength = 0;
+            for (int i = 0; i < count; i++) {
+                page.segments[i] = stream[at + 27 + i] & 0xff;
+                bodyLength += page.segments[i];
+            }
+            int length = 27 + count + bodyLength;
+            page.raw = Arrays.copyOfRange(stream, at, at + length);
+            page.body = Arrays.copyOfRange(stream, at + 27 + count, at + length);
+            pages.add(page);
+            at += length;
+        }
+        return pages;
+    }
+
+    private static long readLe(byte[] data, int offset, int bytes) {
+        long value = 0;
+        for (int i = bytes - 1; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xff);
+        }
+        return bytes == 4 ? (int) value : value;
+    }
+
+    // Bit at a time, independent of the writer's table
+    private static int referenceCrc(byte[] data) {
+        int crc = 0;
+        for (byte b : data) {
+            crc ^= (b & 0xff) << 24;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04c11db7 : crc << 1;
+            }
+        }
+        return crc;
+    }
+}
@@ -0,0 +1,70 @@
+package com.voiceagent.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecognitionModeSelectorTest {
+
+    private static final long RECOVER_MS = 30000;
+
+    private long now;
+    private final RecognitionModeSelector selector = new RecognitionModeSelector(() -> now, RECOVER_MS);
+
+    @Test
+    public void staysOnlineOnAGoodLink() {
+        assertEquals(RecognitionModeSelector.ONLINE, selector.select(LinkQuality.GOOD, true));
+        assertEquals(RecognitionModeSelector.ONLINE, selector.select(LinkQuality.MODERATE, true));
+    }
+
+    @Test
+    public void dropsOfflineAsSoonAsTheLinkIsPoor() {
+        selector.select(LinkQuality.GOOD, true);
+
+        assertEquals(RecognitionModeSelector.OFFLINE, selector.select(LinkQuality.POOR, true));
+        assertEquals(RecognitionModeSelector.OFFLINE, selector.select(LinkQuality.NONE, true));
+    }
+
+    @Test
+    public void goesBackOnlineAfterTheLinkHoldsUpForRecoverMs() {
+        selector.select(LinkQuality.POOR, true);
+
+        now = 1000;
+        assertEquals(RecognitionModeSelector.OFFLINE, selector.select(LinkQuality.GOOD, true));
+        now = 1000 + RECOVER_MS - 1;
+        assertEquals(RecognitionModeSelector.OFFLINE, selector.select(LinkQuality.MODERATE, true));
+        now = 1000 + RECOVER_MS;
+        assertEquals(RecognitionModeSelector.ONLINE, selector.select(LinkQuality.GOOD, true));
+    }
+
+    @Test
+    public void aPoorReadingRestartsTheRecovery() {
+        selector.select(LinkQuality.POOR, true);
+        now = 1000;
+        selector.select(LinkQuality.GOOD, true);
+        now = 20000;
+        selector.select(LinkQuality.POOR, true);
+
+        now = 21000;
+        assertEquals(RecognitionModeSelector.OFFLINE, selector.select(LinkQuality.GOOD, true));
+        now = 21000 + RECOVER_MS - 1;
+        assertEquals(RecognitionModeSelector.OFFLINE, selector.select(LinkQuality.GOOD, true));
+        now = 21000 + RECOVER_MS;
+        assertEquals(RecognitionModeSelector.ONLINE, selector.select(LinkQuality.GOOD, true));
+    }
+
+    @Test
+    public void networkErrorDropsOfflineWhateverTheLink() {
+        selector.select(LinkQuality.GOOD, true);
+        selector.onNetworkError();
+
+        assertEquals(RecognitionModeSelector.OFFLINE, selector.getMode());
+        assertEquals(RecognitionModeSelector.OFFLINE, selector.select(LinkQuality.GOOD, true));
+    }
+
+    @Test
+    public void alwaysOnlineWithoutAnOnDeviceRecognizer() {
+        assertEquals(RecognitionModeSelector.ONLINE, selector.select(LinkQuality.POOR, false));
+        assertEquals(RecognitionModeSelector.ONLINE, selector.select(LinkQuality.NONE, false));
+    }
+}
@@ -0,0 +1,97 @@
+package com.voiceagent.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StartupOrchestratorTest {
+
+    // Runs each task on the thread that released it, so the order is deterministic
+    private static final Executor DIRECT = Runnable::run;
+
+    private final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+    private final StartupOrchestrator startup = new StartupOrchestrator(() -> 0);
+
+    @Test
+    public void nothingRunsBeforeStart() {
+        startup.add("a", DIRECT, task("a"));
+
+        assertTrue(ran.isEmpty());
+        assertFalse(startup.isDone("a"));
+    }
+
+    @Test
+    public void tasksRunAfterTheirDependencies() {
+        startup.add("logger", DIRECT, task("logger"))
+                .add("store", DIRECT, task("store"), "logger")
+                .add("ui", DIRECT, task("ui"), "logger", "store")
+                .add("network", DIRECT, task("network"));
+        startup.start();
+
+        assertTrue(ran.indexOf("logger") < ran.indexOf("store"));
+        assertTrue(ran.indexOf("store") < ran.indexOf("ui"));
+        assertEquals(4, ran.size());
+        assertTrue(startup.isDone("logger", "store", "ui", "network"));
+    }
+
+    @Test
+    public void deferredTasksWaitForRelease() {
+        startup.add("ui", DIRECT, task("ui"))
+                .addDeferred("warm", DIRECT, task("warm"), "ui");
+        startup.start();
+
+        assertEquals(Arrays.asList("ui"), ran);
+        assertFalse(startup.isDone("warm"));
+
+        startup.releaseDeferred();
+        assertEquals(Arrays.asList("ui", "warm"), ran);
+        assertTrue(startup.isDone("warm"));
+    }
+
+    @Test
+    public void failingTaskStillReleasesItsDependents() {
+        startup.add("broken", DIRECT, () -> {
+            throw new IllegalStateException("no disk");
+        }).add("dependent", DIRECT, task("dependent"), "broken");
+        startup.start();
+
+        assertEquals(Arrays.asList("dependent"), ran);
+        assertTrue(startup.isDone("broken", "dependent"));
+        assertTrue(startup.summary().contains("IllegalStateException: no disk"));
+    }
+
+    @Test
+    public void whenDoneRunsOnceAllNamedTasksFinish() {
+        startup.add("a", DIRECT, task("a"))
+                .addDeferred("b", DIRECT, task("b"));
+        startup.whenDone(DIRECT, task("done"), "a", "b");
+        startup.start();
+        assertFalse(ran.contains("done"));
+
+        startup.releaseDeferred();
+        assertEquals("done", ran.get(ran.size() - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dependenciesMustBeDeclaredFirst() {
+        startup.add("ui", DIRECT, task("ui"), "logger");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void noTasksAfterStart() {
+        startup.start();
+        startup.add("late", DIRECT, task("late"));
+    }
+
+    private Runnable task(String name) {
+        return () -> ran.add(name);
+    }
+}
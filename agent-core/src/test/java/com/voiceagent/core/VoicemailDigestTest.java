@@ -0,0 +1,52 @@
+package com.voiceagent.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class VoicemailDigestTest {
+
+    @Test
+    public void oneSummaryPerNumberedLine() {
+        String[] summaries = VoicemailDigest.parse("1: Dentist, moving Monday's appointment\n"
+                + "2. Courier, parcel at the door\n[3] Mum, call back tonight\n4) Bank, card blocked", 4);
+
+        assertArrayEquals(new String[] {"Dentist, moving Monday's appointment", "Courier, parcel at the door",
+                "Mum, call back tonight", "Bank, card blocked"}, summaries);
+    }
+
+    @Test
+    public void skippedMessagesStayNull() {
+        String[] summaries = VoicemailDigest.parse("Here are your summaries:\n1: First\n3: Third", 3);
+
+        assertArrayEquals(new String[] {"First", null, "Third"}, summaries);
+    }
+
+    @Test
+    public void firstLineForANumberWins() {
+        String[] summaries = VoicemailDigest.parse("1: First\n1: Repeated\n2: Second", 2);
+
+        assertArrayEquals(new String[] {"First", "Second"}, summaries);
+    }
+
+    @Test
+    public void outOfRangeNumbersAreIgnored() {
+        String[] summaries = VoicemailDigest.parse("0: Zero\n3: Past the end\n99999999999: Huge\n2: Second", 2);
+
+        assertArrayEquals(new String[] {null, "Second"}, summaries);
+    }
+
+    @Test
+    public void noReplyGivesNoSummaries() {
+        assertArrayEquals(new String[] {null, null}, VoicemailDigest.parse(null, 2));
+        assertEquals(0, VoicemailDigest.parse("1: Orphan", 0).length);
+    }
+
+    @Test
+    public void promptNumbersTranscriptsFromOne() {
+        assertEquals("1. Hello\n2. Call me back\n", VoicemailDigest.prompt(Arrays.asList("Hello", "Call me back")));
+    }
+}
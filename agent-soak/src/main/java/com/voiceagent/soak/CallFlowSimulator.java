@@ -0,0 +1,135 @@
+package com.voiceagent.soak;
+
+import com.voiceagent.core.CallTiming;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays call scenarios through CallFlowController in virtual time and checks the latency
+ * budgets the caller actually hears: greeting after OFFHOOK, the gap between our speech and
+ * listening again, what the flow adds to each turn on top of recognition, model and
+ * synthesis, recovery from a silent caller, and the duration limit. A ten-minute call takes
+ * a few milliseconds, so this runs on every CI build and exits non-zero on any breach.
+ */
+public class CallFlowSimulator {
+
+    // Budgets, in ms of virtual time
+    static final long GREETING_PREFETCHED_BUDGET_MS = 2000;
+    static final long GREETING_COLD_BUDGET_MS = 4000;
+    static final long LISTEN_GAP_BUDGET_MS = 1000;
+    static final long TURN_OVERHEAD_BUDGET_MS = 50;
+    static final long SILENCE_RECOVERY_BUDGET_MS = 8000;
+    static final long DURATION_SLACK_MS = 1000;
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) {
+        boolean verbose = args.length > 0 && args[0].equals("--verbose");
+        long start = System.nanoTime();
+        CallFlowSimulator simulator = new CallFlowSimulator();
+        for (SimulatedCall.Scenario scenario : scenarios()) {
+            simulator.check(scenario, verbose);
+        }
+        System.out.printf(Locale.US, "simulated %d scenarios in %d ms wall time%n",
+                scenarios().size(), (System.nanoTime() - start) / 1000000L);
+
+        if (!simulator.failures.isEmpty()) {
+            for (String failure : simulator.failures) {
+                System.out.println("FAIL: " + failure);
+            }
+            System.exit(1);
+        }
+    }
+
+    static List<SimulatedCall.Scenario> scenarios() {
+        List<SimulatedCall.Scenario> scenarios = new ArrayList<>();
+
+        SimulatedCall.Scenario prefetched = new SimulatedCall.Scenario("prefetched greeting")
+                .say("Can you tell him I called about the meeting?", "It moved to three o'clock.", "Stop.");
+        prefetched.greetingPrefetched = true;
+        scenarios.add(prefetched);
+
+        scenarios.add(new SimulatedCall.Scenario("cold greeting")
+                .say("Is he available right now?", "Please ask him to call me back.", "Stop."));
+
+        scenarios.add(new SimulatedCall.Scenario("silent caller")
+                .silence().silence().say("Hello? Sorry, I was on the other line.", "Stop."));
+
+        SimulatedCall.Scenario slowModel = new SimulatedCall.Scenario("slow model")
+                .say("What time does the shop open tomorrow?", "And on Friday?", "Stop.");
+        slowModel.llmMs = 4000;
+        slowModel.ttsStartMs = 600;
+        scenarios.add(slowModel);
+
+        SimulatedCall.Scenario longCall = new SimulatedCall.Scenario("duration limit")
+                .say("Let me tell you the whole story from the start.", "And then what happened next was this.");
+        longCall.untilDurationLimit = true;
+        scenarios.add(longCall);
+
+        return scenarios;
+    }
+
+    private void check(SimulatedCall.Scenario scenario, boolean verbose) {
+        SimulatedCall call = new SimulatedCall(scenario);
+        call.run((CallTiming.MAX_CALL_DURATION_MINUTES + 5) * 60000L);
+
+        String name = scenario.name;
+        if (call.offhookAt < 0 || call.greetingStartAt < 0) {
+            failures.add(name + ": call never reached the greeting");
+            return;
+        }
+        if (call.endedAt < 0) {
+            failures.add(name + ": call never ended");
+        }
+
+        long greeting = call.greetingStartAt - call.offhookAt;
+        budget(name, "greeting after OFFHOOK", greeting,
+                scenario.greetingPrefetched ? GREETING_PREFETCHED_BUDGET_MS : GREETING_COLD_BUDGET_MS);
+        budget(name, "speech done -> listening (max)", max(call.listenGaps), LISTEN_GAP_BUDGET_MS);
+        budget(name, "turn overhead (max)", max(call.turnOverheads), TURN_OVERHEAD_BUDGET_MS);
+        if (!call.silenceRecoveries.isEmpty()) {
+            budget(name, "silence -> listening again (max)", max(call.silenceRecoveries), SILENCE_RECOVERY_BUDGET_MS);
+        }
+
+        if (scenario.untilDurationLimit) {
+            long warning = call.warningsAt.isEmpty() ? -1 : call.warningsAt.get(0);
+            long expectedWarning = CallTiming.CALL_DURATION_WARNING_MINUTES * 60000L;
+            if (warning < expectedWarning || warning > expectedWarning + DURATION_SLACK_MS) {
+                failures.add(String.format(Locale.US, "%s: first duration warning at %d ms, expected %d",
+                        name, warning, expectedWarning));
+            }
+            budget(name, "call length", call.endedAt - call.transferredAt,
+                    CallTiming.MAX_CALL_DURATION_MINUTES * 60000L + DURATION_SLACK_MS);
+        } else {
+            long expectedTurns = 0;
+            for (String line : scenario.lines) {
+                if (line != null && !line.toLowerCase(Locale.ROOT).contains("stop")) expectedTurns++;
+            }
+            if (call.turns != expectedTurns) {
+                failures.add(String.format(Locale.US, "%s: %d turns answered, expected %d",
+                        name, call.turns, expectedTurns));
+            }
+        }
+
+        System.out.printf(Locale.US, "%-20s turns %3d | greeting %5d ms | listen gap %4d ms | overhead %3d ms"
+                        + " | ended at %7d ms%n", name, call.turns, greeting, max(call.listenGaps),
+                max(call.turnOverheads), call.endedAt);
+        if (verbose) {
+            System.out.println("    listen gaps " + call.listenGaps + ", silence " + call.silenceRecoveries
+                    + ", warnings " + call.warningsAt);
+        }
+    }
+
+    private void budget(String scenario, String metric, long measured, long limit) {
+        if (measured > limit) {
+            failures.add(String.format(Locale.US, "%s: %s %d ms over budget %d ms", scenario, metric, measured, limit));
+        }
+    }
+
+    private static long max(List<Long> values) {
+        return values.isEmpty() ? 0 : Collections.max(values);
+    }
+}
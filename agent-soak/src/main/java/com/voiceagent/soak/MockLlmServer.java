@@ -0,0 +1,296 @@
+package com.voiceagent.soak;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for an OpenAI-compatible chat completions endpoint. Time to first byte is
+ * drawn from a log-normal distribution around a median; a fraction of requests fail with 500
+ * or 503, and a token bucket answers 429 with Retry-After and x-ratelimit-* headers once the
+ * configured request rate is exceeded. Streamed replies are sent one word per event.
+ *
+ * It also stands in for /audio/transcriptions: the uploaded Ogg stream is unpacked and its
+ * packets, which the soak fills with the utterance's bytes instead of audio, are returned as
+ * the transcript, so a mangled page or multipart body shows up as a wrong transcript.
+ */
+public class MockLlmServer {
+
+    public static class Config {
+        long medianLatencyMs = 300;
+        double latencySigma = 0.5;
+        double errorRate = 0.01;
+        double requestsPerSecond = 0;  // 0 = no rate limit
+        int burst = 20;
+        long tokenDelayMs = 15;
+        int threads = 64;
+    }
+
+    private static final String[] WORDS = {
+        "Sure,", "I", "can", "help", "with", "that.", "They", "are", "not", "available", "right", "now,",
+        "would", "you", "like", "to", "leave", "a", "message?"
+    };
+
+    private final Config config;
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+
+    private final Object bucketLock = new Object();
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    final AtomicLong requests = new AtomicLong();
+    final AtomicLong injectedErrors = new AtomicLong();
+    final AtomicLong rateLimited = new AtomicLong();
+
+    public MockLlmServer(Config config) throws IOException {
+        this.config = config;
+        this.tokens = config.burst;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        this.executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(config.threads, runnable -> {
+            Thread thread = new Thread(runnable, "MockLlm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.createContext("/v1/audio/transcriptions", this::handleTranscription);
+    }
+
+    public void start() {
+        // Started up front so the runner's thread baseline doesn't count them as leaks
+        executor.prestartAllCoreThreads();
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+    }
+
+    public String getTranscriptionUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/audio/transcriptions";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            JsonObject body;
+            try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                body = JsonParser.parseReader(reader).getAsJsonObject();
+            } catch (RuntimeException e) {
+                send(exchange, 400, "{\"error\":{\"message\":\"bad request\"}}");
+                return;
+            }
+
+            long remaining = takeToken();
+            exchange.getResponseHeaders().set("x-ratelimit-limit-requests", String.valueOf(config.burst));
+            exchange.getResponseHeaders().set("x-ratelimit-remaining-requests", String.valueOf(Math.max(0, remaining)));
+            if (remaining < 0) {
+                rateLimited.incrementAndGet();
+                long waitMs = refillWaitMs();
+                exchange.getResponseHeaders().set("x-ratelimit-reset-requests", waitMs + "ms");
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf((waitMs + 999) / 1000));
+                send(exchange, 429, "{\"error\":{\"message\":\"rate limited\"}}");
+                return;
+            }
+
+            Thread.sleep(sampleLatencyMs());
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < config.errorRate) {
+                injectedErrors.incrementAndGet();
+                send(exchange, random.nextBoolean() ? 500 : 503, "{\"error\":{\"message\":\"injected\"}}");
+                return;
+            }
+
+            String[] reply = replyFor(body);
+            JsonElement stream = body.get("stream");
+            if (stream != null && stream.getAsBoolean()) {
+                stream(exchange, reply);
+            } else {
+                send(exchange, 200, completion(String.join(" ", reply)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleTranscription(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            int boundaryAt = contentType == null ? -1 : contentType.indexOf("boundary=");
+            byte[] body = readAll(exchange.getRequestBody());
+            String text = boundaryAt < 0 ? null
+                    : oggPayload(filePart(body, contentType.substring(boundaryAt + 9)));
+            if (text == null) {
+                send(exchange, 400, "{\"error\":{\"message\":\"bad audio\"}}");
+                return;
+            }
+
+            // The audio is already here; what's left is the model's time
+            Thread.sleep(sampleLatencyMs());
+            if (ThreadLocalRandom.current().nextDouble() < config.errorRate) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 500, "{\"error\":{\"message\":\"injected\"}}");
+                return;
+            }
+            JsonObject response = new JsonObject();
+            response.addProperty("text", text);
+            send(exchange, 200, response.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    // Contents of the multipart "file" field, or null if the body isn't well formed
+    private static byte[] filePart(byte[] body, String boundary) {
+        String latin = new String(body, StandardCharsets.ISO_8859_1);
+        int field = latin.indexOf("name=\"file\"");
+        int start = field < 0 ? -1 : latin.indexOf("\r\n\r\n", field);
+        int end = latin.lastIndexOf("\r\n--" + boundary + "--");
+        if (start < 0 || end < start + 4) return null;
+        byte[] part = new byte[end - start - 4];
+        System.arraycopy(body, start + 4, part, 0, part.length);
+        return part;
+    }
+
+    // Joins the packets after the two Opus header packets, or null if the pages don't parse
+    private static String oggPayload(byte[] ogg) {
+        if (ogg == null) return null;
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        int packets = 0;
+        boolean sawEnd = false;
+        int pos = 0;
+        while (pos < ogg.length) {
+            if (pos + 27 > ogg.length || ogg[pos] != 'O' || ogg[pos + 1] != 'g' || ogg[pos + 2] != 'g'
+                    || ogg[pos + 3] != 'S') return null;
+            sawEnd = (ogg[pos + 5] & 0x04) != 0;
+            int segments = ogg[pos + 26] & 0xff;
+            int data = pos + 27 + segments;
+            for (int i = 0; i < segments; i++) {
+                int lace = ogg[pos + 27 + i] & 0xff;
+                if (data + lace > ogg.length) return null;
+                if (packets >= 2) payload.write(ogg, data, lace);
+                data += lace;
+                if (lace < 255) packets++;
+            }
+            pos = data;
+        }
+        return sawEnd && packets >= 2 ? new String(payload.toByteArray(), StandardCharsets.UTF_8) : null;
+    }
+
+    // Remaining tokens after taking one, or -1 if the bucket was empty
+    private long takeToken() {
+        if (config.requestsPerSecond <= 0) return config.burst;
+        synchronized (bucketLock) {
+            long now = System.nanoTime();
+            tokens = Math.min(config.burst, tokens + (now - lastRefillNanos) / 1e9 * config.requestsPerSecond);
+            lastRefillNanos = now;
+            if (tokens < 1) return -1;
+            tokens -= 1;
+            return (long) tokens;
+        }
+    }
+
+    private long refillWaitMs() {
+        synchronized (bucketLock) {
+            return (long) Math.ceil((1 - tokens) / config.requestsPerSecond * 1000);
+        }
+    }
+
+    private long sampleLatencyMs() {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return (long) (config.medianLatencyMs * Math.exp(config.latencySigma * gaussian));
+    }
+
+    // Reply length follows the user message so long turns cost more to stream
+    private static String[] replyFor(JsonObject body) {
+        int words = 6;
+        JsonArray messages = body.getAsJsonArray("messages");
+        if (messages != null && messages.size() > 0) {
+            JsonElement content = messages.get(messages.size() - 1).getAsJsonObject().get("content");
+            if (content != null) words = Math.min(WORDS.length, 4 + content.getAsString().length() / 8);
+        }
+        String[] reply = new String[words];
+        System.arraycopy(WORDS, 0, reply, 0, words);
+        return reply;
+    }
+
+    private void stream(HttpExchange exchange, String[] reply) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        for (int i = 0; i < reply.length; i++) {
+            JsonObject delta = new JsonObject();
+            delta.addProperty("content", i == 0 ? reply[i] : " " + reply[i]);
+            out.write(("data: " + chunk("delta", delta) + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            if (config.tokenDelayMs > 0) Thread.sleep(config.tokenDelayMs);
+        }
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.close();
+    }
+
+    private static String completion(String content) {
+        JsonObject message = new JsonObject();
+        message.addProperty("role", "assistant");
+        message.addProperty("content", content);
+        return chunk("message", message);
+    }
+
+    private static String chunk(String field, JsonObject value) {
+        JsonObject choice = new JsonObject();
+        choice.addProperty("index", 0);
+        choice.add(field, value);
+        JsonArray choices = new JsonArray();
+        choices.add(choice);
+        JsonObject response = new JsonObject();
+        response.addProperty("model", "mock");
+        response.add("choices", choices);
+        return response.toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.voiceagent.soak;
+
+import com.voiceagent.core.CallFlowController;
+import com.voiceagent.core.KeywordUtteranceClassifier;
+import com.voiceagent.core.UtteranceClassifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One call through CallFlowController with fake telephony, recognition, model and speech, all
+ * on a VirtualScheduler. The agent side mirrors MainActivity: the same guards on listening,
+ * the same classification of results, and every utterance's end hands back to the flow.
+ * Each fake takes a fixed time so whatever is left over in the measurements is the flow's own.
+ */
+public class SimulatedCall implements CallFlowController.Callbacks {
+
+    public static class Scenario {
+        final String name;
+        final List<String> lines = new ArrayList<>();  // null entries are silence
+        boolean greetingPrefetched = false;
+        boolean untilDurationLimit = false;
+        long offhookMs = 300;
+        long ttsStartMs = 150;
+        long ttsMsPerChar = 60;
+        long callerReactionMs = 600;
+        long callerMsPerChar = 45;
+        long sttResultMs = 400;
+        long llmMs = 900;
+        long recognizerErrorMs = 100;
+
+        Scenario(String name) {
+            this.name = name;
+        }
+
+        Scenario say(String... utterances) {
+            for (String utterance : utterances) lines.add(utterance);
+            return this;
+        }
+
+        Scenario silence() {
+            lines.add(null);
+            return this;
+        }
+    }
+
+    private static final String GREETING = "Hello, the person you called is busy. I'm their assistant, how can I help?";
+    private static final String REPLY = "Sure, I'll pass that on as soon as they're free.";
+
+    final VirtualScheduler time;
+    final Scenario scenario;
+    final CallFlowController flow;
+    private final UtteranceClassifier classifier = new KeywordUtteranceClassifier();
+
+    private boolean active;
+    private boolean speaking;
+    private boolean listening;
+    private int listenSession;
+    private int nextLine;
+
+    long offhookAt = -1;
+    long transferredAt = -1;
+    long greetingStartAt = -1;
+    long endedAt = -1;
+    int turns;
+    private long endOfSpeechAt = -1;
+    private long ttsDoneAt = -1;
+    private long silentListenAt = -1;
+
+    final List<Long> listenGaps = new ArrayList<>();
+    final List<Long> turnOverheads = new ArrayList<>();
+    final List<Long> silenceRecoveries = new ArrayList<>();
+    final List<Long> warningsAt = new ArrayList<>();
+
+    public SimulatedCall(Scenario scenario) {
+        this.scenario = scenario;
+        this.time = new VirtualScheduler();
+        this.flow = new CallFlowController(time, time, this);
+    }
+
+    // Caller taps answer on the ringing notification at t=0
+    public void run(long limitMs) {
+        flow.answerIncoming();
+        time.runUntil(limitMs);
+    }
+
+    @Override
+    public boolean answerCall() {
+        time.postDelayed(() -> offhookAt = time.uptimeMillis(), scenario.offhookMs);
+        return true;
+    }
+
+    @Override
+    public void transferToAgent() {
+        active = true;
+        transferredAt = time.uptimeMillis();
+        flow.onCallTransferred(scenario.greetingPrefetched);
+        flow.startDurationMonitoring();
+    }
+
+    @Override
+    public void speakGreeting() {
+        speak(GREETING, false);
+    }
+
+    @Override
+    public void startListening() {
+        if (!active || speaking || listening) return;
+        long now = time.uptimeMillis();
+        if (ttsDoneAt >= 0) {
+            listenGaps.add(now - ttsDoneAt);
+            ttsDoneAt = -1;
+        }
+        if (silentListenAt >= 0) {
+            silenceRecoveries.add(now - silentListenAt);
+            silentListenAt = -1;
+        }
+
+        listening = true;
+        final int session = ++listenSession;
+        flow.onListeningStarted();
+
+        if (nextLine >= scenario.lines.size() && !scenario.untilDurationLimit) {
+            // Script done: the caller hangs up
+            time.post(this::hangUp);
+            return;
+        }
+        final String line = nextLine();
+        if (line == null) {
+            silentListenAt = now;
+            return;
+        }
+        time.postDelayed(() -> {
+            if (session != listenSession || !listening) return;
+            time.postDelayed(() -> endOfSpeech(session, line), line.length() * scenario.callerMsPerChar);
+        }, scenario.callerReactionMs);
+    }
+
+    @Override
+    public boolean isListening() {
+        return listening;
+    }
+
+    @Override
+    public void stopListening() {
+        listening = false;
+        // The recognizer reports a speech timeout, and the agent retries like retryOrRecover
+        time.postDelayed(() -> {
+            if (active && !speaking) flow.recover();
+        }, scenario.recognizerErrorMs);
+    }
+
+    @Override
+    public void onDurationWarning(int remainingMinutes) {
+        warningsAt.add(time.uptimeMillis() - transferredAt);
+        speak("You have " + remainingMinutes + " minutes left.", false);
+    }
+
+    @Override
+    public void onMaxDuration() {
+        speak("Maximum call duration reached. Goodbye!", false);
+        hangUp();
+    }
+
+    private String nextLine() {
+        if (nextLine >= scenario.lines.size()) nextLine = 0;
+        return scenario.lines.get(nextLine++);
+    }
+
+    private void endOfSpeech(int session, String line) {
+        if (session != listenSession || !listening) return;
+        listening = false;
+        endOfSpeechAt = time.uptimeMillis();
+        time.postDelayed(() -> onResults(line), scenario.sttResultMs);
+    }
+
+    private void onResults(String text) {
+        if (!active) return;
+        int kind = classifier.classify(text);
+        if (kind == UtteranceClassifier.EMPTY) {
+            flow.onEmptyResults();
+        } else if (kind == UtteranceClassifier.STOP) {
+            hangUp();
+        } else {
+            time.postDelayed(() -> {
+                if (active) speak(REPLY, true);
+            }, scenario.llmMs);
+        }
+    }
+
+    private void speak(String text, final boolean isReply) {
+        speaking = true;
+        time.postDelayed(() -> {
+            long now = time.uptimeMillis();
+            if (greetingStartAt < 0 && text.equals(GREETING)) greetingStartAt = now;
+            if (isReply) {
+                turns++;
+                long fixed = scenario.sttResultMs + scenario.llmMs + scenario.ttsStartMs;
+                turnOverheads.add(now - endOfSpeechAt - fixed);
+            }
+        }, scenario.ttsStartMs);
+        time.postDelayed(() -> {
+            speaking = false;
+            ttsDoneAt = time.uptimeMillis();
+            if (active) flow.onReplySpoken();
+        }, scenario.ttsStartMs + text.length() * scenario.ttsMsPerChar);
+    }
+
+    private void hangUp() {
+        if (!active) return;
+        active = false;
+        listening = false;
+        endedAt = time.uptimeMillis();
+        flow.stop();
+    }
+}
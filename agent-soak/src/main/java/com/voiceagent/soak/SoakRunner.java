@@ -0,0 +1,438 @@
+package com.voiceagent.soak;
+
+import com.voiceagent.core.AdaptiveTimeouts;
+import com.voiceagent.core.ChatException;
+import com.voiceagent.core.ChatTurn;
+import com.voiceagent.core.ConversationEngine;
+import com.voiceagent.core.ExponentialRetryPolicy;
+import com.voiceagent.core.HttpChatClient;
+import com.voiceagent.core.HttpTranscriptionClient;
+import com.voiceagent.core.KeywordUtteranceClassifier;
+import com.voiceagent.core.LanguageDetector;
+import com.voiceagent.core.LatencyHistogram;
+import com.voiceagent.core.OggOpusWriter;
+import com.voiceagent.core.PromptProvider;
+import com.voiceagent.core.ScriptLanguageDetector;
+import com.voiceagent.core.TurnListener;
+import com.voiceagent.core.UtteranceClassifier;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs concurrent scripted calls through ConversationEngine for a fixed duration and reports
+ * per-turn latency percentiles, failures by kind, live threads and heap after GC at a fixed
+ * interval. Each call thread plays one caller script after another with think time between
+ * utterances, the same way the app drives the engine from recognized speech.
+ *
+ * With --transcribe each utterance is first streamed to the transcription endpoint as Ogg pages
+ * at speaking pace, and the transcript is what goes to the model; the stt tail is the time from
+ * the end of the upload to the transcript.
+ *
+ * Exits non-zero when the failure rate is above --max-failure-rate, heap after GC grew by
+ * more than --max-heap-growth-mb or, with --transcribe, any transcript came back different from
+ * what was uploaded, so it can gate CI.
+ */
+public class SoakRunner {
+
+    private static final PromptProvider PROMPTS = lang -> lang.equals(LanguageDetector.BENGALI) ?
+            "আপনি বন্ধুসুলভ সহকারী। উত্তর দিন সংক্ষেপে বাংলায়।" :
+            "You are a friendly phone assistant. Keep responses short.";
+
+    // Peaks are sampled at least this often, whatever the report interval
+    private static final long SAMPLE_INTERVAL_NANOS = 1000000000L;
+
+    private static class Options {
+        int calls = 20;
+        long durationSec = 60;
+        long reportSec = 10;
+        long thinkMs = 500;
+        boolean stream = false;
+        boolean adaptiveTimeouts = false;
+        boolean transcribe = false;
+        long speechMsPerChar = 45;
+        String url;
+        String sttUrl;
+        File script;
+        int connectTimeoutMs = 5000;
+        int readTimeoutMs = 10000;
+        double maxFailureRate = 0.05;
+        long maxHeapGrowthMb = 64;
+        MockLlmServer.Config server = new MockLlmServer.Config();
+    }
+
+    private static class Turn implements ChatTurn {
+        private final String userText;
+        private final String aiText;
+
+        Turn(String userText, String aiText) {
+            this.userText = userText;
+            this.aiText = aiText;
+        }
+
+        @Override
+        public String getUserText() {
+            return userText;
+        }
+
+        @Override
+        public String getAiText() {
+            return aiText;
+        }
+    }
+
+    private final Options options;
+    private final TranscriptLibrary library;
+    private final LatencyHistogram turnLatency = new LatencyHistogram();
+    private final LatencyHistogram firstByteLatency = new LatencyHistogram();
+    private final LatencyHistogram sttTailLatency = new LatencyHistogram();
+    private final AtomicLong turns = new AtomicLong();
+    private final AtomicLong failedTurns = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong callsCompleted = new AtomicLong();
+    private final Map<String, AtomicLong> failures = new ConcurrentHashMap<>();
+    private final AtomicLong sttMismatches = new AtomicLong();
+    private final AdaptiveTimeouts timeouts;
+    private volatile boolean running = true;
+
+    private SoakRunner(Options options, TranscriptLibrary library) {
+        this.options = options;
+        this.library = library;
+        // One shared estimate, as the app keeps one per network and endpoint
+        this.timeouts = !options.adaptiveTimeouts ? null : new AdaptiveTimeouts(() -> "soak",
+                new AdaptiveTimeouts.Bounds(options.connectTimeoutMs, 500, options.connectTimeoutMs),
+                new AdaptiveTimeouts.Bounds(options.readTimeoutMs, 1000, options.readTimeoutMs), 250);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = parse(args);
+        TranscriptLibrary library = options.script != null
+                ? TranscriptLibrary.load(options.script) : TranscriptLibrary.builtIn();
+
+        MockLlmServer server = null;
+        String url = options.url;
+        if (url == null) {
+            server = new MockLlmServer(options.server);
+            server.start();
+            url = server.getUrl();
+            if (options.sttUrl == null) options.sttUrl = server.getTranscriptionUrl();
+        }
+        if (options.transcribe && options.sttUrl == null) usage(2);
+
+        int status;
+        try {
+            status = new SoakRunner(options, library).run(url, server);
+        } finally {
+            if (server != null) server.stop();
+        }
+        System.exit(status);
+    }
+
+    private int run(String url, MockLlmServer server) throws InterruptedException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        long baselineHeap = heapAfterGc(memoryBean);
+        int baselineThreads = threadBean.getThreadCount();
+
+        System.out.printf(Locale.US, "soak: %d calls for %ds against %s%s, %d scripts%n", options.calls,
+                options.durationSec, url, options.stream ? " (stream)" : "", library.size());
+
+        Thread[] callers = new Thread[options.calls];
+        for (int i = 0; i < callers.length; i++) {
+            final int callId = i;
+            callers[i] = new Thread(() -> runCaller(callId, url), "Caller-" + i);
+            callers[i].start();
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + options.durationSec * 1000000000L;
+        long nextReport = start + options.reportSec * 1000000000L;
+        long peakThreads = baselineThreads;
+        long peakHeap = baselineHeap;
+        while (System.nanoTime() < deadline) {
+            long wake = Math.min(Math.min(deadline, nextReport), System.nanoTime() + SAMPLE_INTERVAL_NANOS);
+            Thread.sleep(Math.max(1000000L, wake - System.nanoTime()) / 1000000L);
+            peakThreads = Math.max(peakThreads, threadBean.getThreadCount());
+            peakHeap = Math.max(peakHeap, heapAfterLastGc());
+            if (System.nanoTime() >= nextReport) {
+                long heap = heapAfterGc(memoryBean);
+                int threads = threadBean.getThreadCount();
+                peakHeap = Math.max(peakHeap, heap);
+                peakThreads = Math.max(peakThreads, threads);
+                report((System.nanoTime() - start) / 1000000000L, threads, heap - baselineHeap);
+                nextReport += options.reportSec * 1000000000L;
+            }
+        }
+        // Callers are still running here, so this is the last sample under load
+        peakThreads = Math.max(peakThreads, threadBean.getThreadCount());
+        peakHeap = Math.max(peakHeap, heapAfterGc(memoryBean));
+
+        running = false;
+        for (Thread caller : callers) {
+            caller.join(options.readTimeoutMs * 4L);
+        }
+
+        long finalHeap = heapAfterGc(memoryBean);
+        int finalThreads = threadBean.getThreadCount();
+        peakHeap = Math.max(peakHeap, finalHeap);
+        peakThreads = Math.max(peakThreads, finalThreads);
+        long heapGrowth = finalHeap - baselineHeap;
+        int threadsLeft = finalThreads - baselineThreads;
+        System.out.println("--- final ---");
+        report((System.nanoTime() - start) / 1000000000L, finalThreads, heapGrowth);
+        System.out.printf(Locale.US, "calls completed %d, retries %d, peak threads %d, peak heap %+.1f MB%n",
+                callsCompleted.get(), retries.get(), peakThreads, (peakHeap - baselineHeap) / 1048576.0);
+        if (server != null) {
+            System.out.printf(Locale.US, "server: %d requests, %d injected errors, %d rate limited%n",
+                    server.requests.get(), server.injectedErrors.get(), server.rateLimited.get());
+        }
+        if (timeouts != null) {
+            System.out.print(timeouts.summary());
+        }
+        if (options.transcribe) {
+            System.out.printf(Locale.US, "stt tail p50/p95/p99 %d/%d/%d ms%n", sttTailLatency.percentile(50),
+                    sttTailLatency.percentile(95), sttTailLatency.percentile(99));
+        }
+
+        long total = turns.get();
+        double failureRate = total == 0 ? 1 : failedTurns.get() / (double) total;
+        int status = 0;
+        if (failureRate > options.maxFailureRate) {
+            System.out.printf(Locale.US, "FAIL: failure rate %.2f%% above %.2f%%%n",
+                    failureRate * 100, options.maxFailureRate * 100);
+            status = 1;
+        }
+        // A wrong transcript is a framing bug, not load; one is too many
+        if (sttMismatches.get() > 0) {
+            System.out.printf(Locale.US, "FAIL: %d transcripts didn't match the upload%n", sttMismatches.get());
+            status = 1;
+        }
+        if (heapGrowth > options.maxHeapGrowthMb * 1048576L) {
+            System.out.printf(Locale.US, "FAIL: heap grew %.1f MB%n", heapGrowth / 1048576.0);
+            status = 1;
+        }
+        if (threadsLeft > 0) {
+            // Keep-alive sockets and the mock's pool can account for a few; report, don't fail
+            System.out.printf(Locale.US, "note: %d more threads than at start%n", threadsLeft);
+        }
+        return status;
+    }
+
+    private void runCaller(int callId, String url) {
+        HttpChatClient client = new HttpChatClient(url, "soak", options.connectTimeoutMs, options.readTimeoutMs);
+        client.setTimeoutPolicy(timeouts);
+        HttpTranscriptionClient transcriber = !options.transcribe ? null : new HttpTranscriptionClient(
+                options.sttUrl, "soak", "mock", options.connectTimeoutMs, options.readTimeoutMs);
+        LanguageDetector detector = new ScriptLanguageDetector();
+        UtteranceClassifier classifier = new KeywordUtteranceClassifier();
+        TurnListener listener = new TurnListener() {
+            long requestStart;
+
+            @Override
+            public void onRequestStart() {
+                requestStart = System.nanoTime();
+            }
+
+            @Override
+            public void onFirstByte() {
+                firstByteLatency.record((System.nanoTime() - requestStart) / 1000000L);
+            }
+
+            @Override
+            public void onRetry(int attempt, Exception lastError) {
+                retries.incrementAndGet();
+                countFailure("retried " + kindOf(lastError));
+            }
+        };
+
+        for (int call = callId; running; call += options.calls) {
+            ConversationEngine engine = new ConversationEngine(client, PROMPTS,
+                    new ExponentialRetryPolicy(3, 200, 2), "mock", 150, 6);
+            List<String> script = library.script(call);
+            for (String utterance : script) {
+                if (!running) return;
+                think();
+                int kind = classifier.classify(utterance);
+                if (kind == UtteranceClassifier.STOP) break;
+                if (kind == UtteranceClassifier.EMPTY) continue;
+
+                long startNanos = System.nanoTime();
+                turns.incrementAndGet();
+                try {
+                    if (transcriber != null) {
+                        long tailMs = transcribe(transcriber, utterance, detector.detect(utterance));
+                        if (tailMs < 0) {
+                            failedTurns.incrementAndGet();
+                            sttMismatches.incrementAndGet();
+                            countFailure("stt mismatch");
+                            continue;
+                        }
+                        // The turn starts when the caller stops speaking, not when the upload began
+                        startNanos = System.nanoTime() - tailMs * 1000000L;
+                    }
+                    String reply = engine.respond(utterance, detector.detect(utterance), options.stream, listener);
+                    turnLatency.record((System.nanoTime() - startNanos) / 1000000L);
+                    engine.addTurn(new Turn(utterance, reply));
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    failedTurns.incrementAndGet();
+                    countFailure(kindOf(e));
+                }
+            }
+            callsCompleted.incrementAndGet();
+        }
+    }
+
+    // Uploads the utterance's bytes as 20 ms packets spread over the time it takes to say it.
+    // Returns the stt tail, or -1 if the transcript didn't match.
+    private long transcribe(HttpTranscriptionClient transcriber, String utterance, String language)
+            throws IOException, InterruptedException {
+        final HttpTranscriptionClient.Upload upload = transcriber.begin(language, "speech.ogg", "audio/ogg");
+        try {
+            OggOpusWriter writer = new OggOpusWriter(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] {(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    upload.write(b, off, len);
+                }
+            }, utterance.hashCode());
+            writer.writeHeaders(1, 16000, 312);
+
+            byte[] speech = utterance.getBytes(StandardCharsets.UTF_8);
+            int packets = (int) Math.max(1, utterance.length() * options.speechMsPerChar / 20);
+            for (int i = 0; i < packets; i++) {
+                int from = (int) ((long) speech.length * i / packets);
+                int to = (int) ((long) speech.length * (i + 1) / packets);
+                writer.writePacket(speech, from, to - from, 312 + (i + 1) * 960L);
+                Thread.sleep(20);
+            }
+            writer.finish();
+        } catch (IOException | InterruptedException e) {
+            upload.cancel();
+            throw e;
+        }
+        String text = upload.finish();
+        sttTailLatency.record(upload.getTailMs());
+        return text.equals(utterance.trim()) ? upload.getTailMs() : -1;
+    }
+
+    private void think() {
+        if (options.thinkMs <= 0) return;
+        try {
+            // Jittered so callers don't move in lockstep
+            Thread.sleep(options.thinkMs / 2 + ThreadLocalRandom.current().nextLong(options.thinkMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void countFailure(String kind) {
+        AtomicLong count = failures.get(kind);
+        if (count == null) {
+            AtomicLong created = new AtomicLong();
+            count = failures.putIfAbsent(kind, created);
+            if (count == null) count = created;
+        }
+        count.incrementAndGet();
+    }
+
+    private static String kindOf(Exception e) {
+        if (e instanceof ChatException) return "http " + ((ChatException) e).getStatusCode();
+        if (e instanceof SocketTimeoutException) return "timeout";
+        return e.getClass().getSimpleName();
+    }
+
+    private void report(long elapsedSec, int threads, long heapGrowth) {
+        long total = turns.get();
+        System.out.printf(Locale.US,
+                "[%4ds] turns %d (%.1f/s) failed %d | turn p50/p95/p99 %d/%d/%d ms | ttfb p50/p95/p99 %d/%d/%d ms"
+                        + " | threads %d | heap %+.1f MB%n",
+                elapsedSec, total, elapsedSec > 0 ? total / (double) elapsedSec : 0, failedTurns.get(),
+                turnLatency.percentile(50), turnLatency.percentile(95), turnLatency.percentile(99),
+                firstByteLatency.percentile(50), firstByteLatency.percentile(95), firstByteLatency.percentile(99),
+                threads, heapGrowth / 1048576.0);
+        if (!failures.isEmpty()) {
+            System.out.println("       failures " + new TreeMap<>(failures));
+        }
+    }
+
+    private static long heapAfterGc(MemoryMXBean memoryBean) {
+        System.gc();
+        return memoryBean.getHeapMemoryUsage().getUsed();
+    }
+
+    // Live heap as of the collector's last run, without forcing one and skewing the latencies
+    private static long heapAfterLastGc() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null) used += usage.getUsed();
+        }
+        return used;
+    }
+
+    private static Options parse(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--stream": options.stream = true; continue;
+                case "--adaptive-timeouts": options.adaptiveTimeouts = true; continue;
+                case "--transcribe": options.transcribe = true; continue;
+                case "--help": usage(0); continue;
+                default: break;
+            }
+            if (i + 1 >= args.length) usage(2);
+            String value = args[++i];
+            switch (arg) {
+                case "--calls": options.calls = Integer.parseInt(value); break;
+                case "--duration": options.durationSec = Long.parseLong(value); break;
+                case "--report": options.reportSec = Long.parseLong(value); break;
+                case "--think-ms": options.thinkMs = Long.parseLong(value); break;
+                case "--url": options.url = value; break;
+                case "--stt-url": options.sttUrl = value; break;
+                case "--script": options.script = new File(value); break;
+                case "--read-timeout-ms": options.readTimeoutMs = Integer.parseInt(value); break;
+                case "--max-failure-rate": options.maxFailureRate = Double.parseDouble(value); break;
+                case "--max-heap-growth-mb": options.maxHeapGrowthMb = Long.parseLong(value); break;
+                case "--latency-ms": options.server.medianLatencyMs = Long.parseLong(value); break;
+                case "--latency-sigma": options.server.latencySigma = Double.parseDouble(value); break;
+                case "--error-rate": options.server.errorRate = Double.parseDouble(value); break;
+                case "--rate-limit": options.server.requestsPerSecond = Double.parseDouble(value); break;
+                case "--token-delay-ms": options.server.tokenDelayMs = Long.parseLong(value); break;
+                default: usage(2);
+            }
+        }
+        return options;
+    }
+
+    private static void usage(int status) {
+        System.out.println("usage: SoakRunner [--calls N] [--duration SEC] [--report SEC] [--think-ms MS] [--stream]\n"
+                + "                  [--url URL | --latency-ms MS --latency-sigma S --error-rate P --rate-limit RPS\n"
+                + "                   --token-delay-ms MS] [--script FILE] [--read-timeout-ms MS]\n"
+                + "                  [--adaptive-timeouts] [--transcribe [--stt-url URL]]\n"
+                + "                  [--max-failure-rate P] [--max-heap-growth-mb MB]");
+        System.exit(status);
+    }
+}
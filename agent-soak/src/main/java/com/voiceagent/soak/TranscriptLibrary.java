@@ -0,0 +1,81 @@
+package com.voiceagent.soak;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Caller scripts for the soak run: each script is the sequence of utterances one caller says.
+ * A script file holds one utterance per line with a blank line between scripts; lines
+ * starting with '#' are comments.
+ */
+public class TranscriptLibrary {
+
+    private final List<List<String>> scripts;
+
+    private TranscriptLibrary(List<List<String>> scripts) {
+        this.scripts = scripts;
+    }
+
+    public static TranscriptLibrary builtIn() {
+        List<List<String>> scripts = new ArrayList<>();
+        scripts.add(Arrays.asList(
+                "Hi, is this Rahim's phone?",
+                "Can you tell him I called about the meeting tomorrow?",
+                "It was moved to three in the afternoon, same place.",
+                "Thanks, that's all."));
+        scripts.add(Arrays.asList(
+                "Hello, I'm calling from the delivery company.",
+                "There's a package that needs a signature, when will someone be home?",
+                "Okay, can I leave it with a neighbour instead?",
+                "Alright, I'll try again on Monday. Bye."));
+        scripts.add(Arrays.asList(
+                "হ্যালো, রহিম ভাই আছেন?",
+                "উনাকে বলবেন আমি কাল সকালে আবার ফোন করব।",
+                "জরুরি কিছু না, শুধু টাকার ব্যাপারে কথা বলতে চাই।",
+                "ধন্যবাদ।"));
+        scripts.add(Arrays.asList(
+                "Hello?",
+                "I wanted to ask about the flat for rent, is it still available?",
+                "How much is the advance, and when can I come to see it?",
+                "Please ask him to call me back at this number.",
+                "Stop."));
+        return new TranscriptLibrary(scripts);
+    }
+
+    public static TranscriptLibrary load(File file) throws IOException {
+        List<List<String>> scripts = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.startsWith("#")) continue;
+                if (line.isEmpty()) {
+                    if (!current.isEmpty()) scripts.add(current);
+                    current = new ArrayList<>();
+                } else {
+                    current.add(line);
+                }
+            }
+        }
+        if (!current.isEmpty()) scripts.add(current);
+        if (scripts.isEmpty()) throw new IOException("No scripts in " + file);
+        return new TranscriptLibrary(scripts);
+    }
+
+    public List<String> script(int index) {
+        return scripts.get(index % scripts.size());
+    }
+
+    public int size() {
+        return scripts.size();
+    }
+}
@@ -0,0 +1,66 @@
+package com.voiceagent.soak;
+
+import com.voiceagent.core.Clock;
+import com.voiceagent.core.Scheduler;
+
+import java.util.PriorityQueue;
+
+/**
+ * Single-threaded clock and scheduler in virtual time. Tasks run in due-time order, ties in
+ * posting order like a Looper, and the clock jumps straight to the next due task.
+ */
+public class VirtualScheduler implements Clock, Scheduler {
+
+    private static class Task {
+        final long dueMs;
+        final long sequence;
+        final Runnable runnable;
+
+        Task(long dueMs, long sequence, Runnable runnable) {
+            this.dueMs = dueMs;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+    }
+
+    private final PriorityQueue<Task> queue = new PriorityQueue<>((a, b) -> a.dueMs != b.dueMs
+            ? Long.compare(a.dueMs, b.dueMs) : Long.compare(a.sequence, b.sequence));
+    private long nowMs;
+    private long nextSequence;
+
+    @Override
+    public long uptimeMillis() {
+        return nowMs;
+    }
+
+    @Override
+    public void post(Runnable task) {
+        postDelayed(task, 0);
+    }
+
+    @Override
+    public void postDelayed(Runnable task, long delayMs) {
+        queue.add(new Task(nowMs + Math.max(0, delayMs), nextSequence++, task));
+    }
+
+    @Override
+    public void removeCallbacks(Runnable task) {
+        queue.removeIf(t -> t.runnable == task);
+    }
+
+    // Runs everything due up to limitMs; returns false if the queue ran dry first
+    public boolean runUntil(long limitMs) {
+        while (!queue.isEmpty() && queue.peek().dueMs <= limitMs) {
+            Task task = queue.poll();
+            nowMs = task.dueMs;
+            task.runnable.run();
+        }
+        boolean pending = !queue.isEmpty();
+        nowMs = Math.max(nowMs, limitMs);
+        return pending;
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+}
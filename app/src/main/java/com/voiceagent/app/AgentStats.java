@@ -0,0 +1,75 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.Locale;
+
+public class AgentStats {
+
+    public static final String SCREENED_CALLS = "stat_screened_calls";
+    public static final String AI_TURNS = "stat_ai_turns";
+    public static final String FILLERS_PLAYED = "stat_fillers_played";
+    // Suffixed with the capture mode: listening turns, and those lost to no match or our own echo
+    public static final String LISTEN_TURNS = "stat_listen_turns_";
+    public static final String WASTED_TURNS = "stat_wasted_turns_";
+    public static final String CAPTURE_PLATFORM = "platform";
+    public static final String CAPTURE_AEC = "aec";
+
+    private static final String PREF_STATS_NAME = "voice_agent_stats";
+
+    public static void increment(Context context, String key) {
+        add(context, key, 1);
+    }
+
+    public static synchronized void add(Context context, String key, long delta) {
+        try {
+            SharedPreferences prefs = prefs(context);
+            prefs.edit().putLong(key, prefs.getLong(key, 0) + delta).apply();
+        } catch (Exception e) {
+            AppLogger.e("Error updating stat {}: {}", key, e.getMessage());
+        }
+    }
+
+    public static long get(Context context, String key) {
+        try {
+            return prefs(context).getLong(key, 0);
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    public static String summary(Context context) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "Screened calls: %d\n", get(context, SCREENED_CALLS)));
+        sb.append(String.format(Locale.US, "Blocklist size: %d\n", SpamScreener.getInstance(context).size()));
+        
+        long turns = get(context, AI_TURNS);
+        long fillers = get(context, FILLERS_PLAYED);
+        sb.append(String.format(Locale.US, "Fillers played: %d of %d turns (%.1f%%)\n",
+                fillers, turns, turns > 0 ? 100.0 * fillers / turns : 0.0));
+        
+        long platformTurns = get(context, LISTEN_TURNS + CAPTURE_PLATFORM);
+        long platformWasted = get(context, WASTED_TURNS + CAPTURE_PLATFORM);
+        long aecTurns = get(context, LISTEN_TURNS + CAPTURE_AEC);
+        long aecWasted = get(context, WASTED_TURNS + CAPTURE_AEC);
+        if (platformTurns + aecTurns > 0) {
+            sb.append(String.format(Locale.US, "Wasted turns: platform mic %d of %d, echo-cancelled %d of %d\n",
+                    platformWasted, platformTurns, aecWasted, aecTurns));
+            // Against the platform mic's waste rate, had it heard the same turns
+            if (platformTurns > 0 && aecTurns > 0) {
+                long avoided = Math.round(aecTurns * (double) platformWasted / platformTurns) - aecWasted;
+                sb.append(String.format(Locale.US, "Turns saved by echo cancellation: ~%d\n", Math.max(0, avoided)));
+            }
+        }
+        return sb.toString();
+    }
+
+    public static void reset(Context context) {
+        prefs(context).edit().clear().apply();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREF_STATS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -1,14 +1,24 @@
 package com.voiceagent.app;
 
+import com.voiceagent.core.CallTiming;
+
 public class AppConstants {
     
     // API Configuration
     public static final String GROQ_API_BASE_URL = "https://api.groq.com/openai/v1/chat/completions";
     public static final String GROQ_MODEL = "llama-3.1-8b-instant";
+    public static final String WHISPER_API_URL = "https://api.groq.com/openai/v1/audio/transcriptions";
+    public static final String WHISPER_MODEL = "whisper-large-v3-turbo";
     
     // API Timeouts (milliseconds)
     public static final int API_CONNECT_TIMEOUT = 15000;
     public static final int API_READ_TIMEOUT = 20000;
+    // Adaptive bounds: p99 of observed latency plus the margin, never above the fixed values
+    public static final int API_CONNECT_TIMEOUT_MIN_MS = 1500;
+    public static final int API_READ_TIMEOUT_MIN_MS = 3000;
+    public static final int API_TIMEOUT_MARGIN_MS = 1000;
+    // Shorter than the HTTP keep-alive, so a warmed connection is normally still pooled
+    public static final long NETWORK_WARM_INTERVAL_MS = 60000;
     
     // Retry Configuration
     public static final int MAX_RETRY_ATTEMPTS = 3;
@@ -16,21 +26,42 @@ public class AppConstants {
     public static final long RETRY_DELAY_MULTIPLIER = 2;
     
     // Call Configuration
-    public static final int MAX_CALL_DURATION_MINUTES = 10;
-    public static final int CALL_DURATION_WARNING_MINUTES = 8;
+    public static final int MAX_CALL_DURATION_MINUTES = CallTiming.MAX_CALL_DURATION_MINUTES;
+    public static final int CALL_DURATION_WARNING_MINUTES = CallTiming.CALL_DURATION_WARNING_MINUTES;
+    public static final int MAX_HISTORY_TURNS = 6;
     
     // Speech Recognition
-    public static final int SPEECH_TIMEOUT_MS = 6000;
+    public static final int SPEECH_TIMEOUT_MS = CallTiming.SPEECH_TIMEOUT_MS;
     public static final int MIN_SPEECH_LENGTH_MS = 1500;
     public static final int SILENCE_THRESHOLD_MS = 3000;
     public static final int MAX_SPEECH_RESULTS = 3;
+    // How long the link must stay moderate or better before offline recognition goes back online
+    public static final long RECOGNITION_ONLINE_RECOVER_MS = 30000;
+    
+    // Voice Capture (echo-cancelled feed to the recognizer, API 33+)
+    public static final int CAPTURE_SAMPLE_RATE = 16000;
+    public static final int CAPTURE_FRAME_MS = 20;
+    public static final int CAPTURE_MAX_FEED_ERRORS = 2;
+    
+    // Whisper recognizer: Opus upload and our own endpointing
+    public static final int WHISPER_BIT_RATE = 24000;
+    public static final int WHISPER_SPEECH_START_MS = 200;
+    public static final int WHISPER_END_SILENCE_MS = 800;
+    public static final int WHISPER_MAX_SPEECH_MS = 15000;
+    
+    // Echo of our own reply: heard as the mic opens, so its result comes in within this of the
+    // reply ending; a result later than that is the caller, whatever words it shares
+    public static final long ECHO_WINDOW_MS = 4000;
     
     // UI Update Delays
-    public static final int TTS_START_DELAY_MS = 800;
-    public static final int LISTEN_START_DELAY_MS = 500;
-    public static final int CALL_TRANSFER_DELAY_MS = 1000;
-    public static final int GREETING_DELAY_MS = 1500;
-    public static final int FIRST_LISTEN_DELAY_MS = 4000;
+    public static final int TTS_START_DELAY_MS = CallTiming.TTS_START_DELAY_MS;
+    public static final int LISTEN_START_DELAY_MS = CallTiming.LISTEN_START_DELAY_MS;
+    public static final int CALL_TRANSFER_DELAY_MS = CallTiming.CALL_TRANSFER_DELAY_MS;
+    public static final int GREETING_DELAY_MS = CallTiming.GREETING_DELAY_MS;
+    public static final int FIRST_LISTEN_DELAY_MS = CallTiming.FIRST_LISTEN_DELAY_MS;
+    
+    // Startup
+    public static final int STARTUP_THREADS = 3;
     
     // Audio Configuration
     public static final float DEFAULT_SPEECH_RATE = 1.0f;
@@ -41,10 +72,12 @@ public class AppConstants {
     public static final int NOTIFICATION_ID_INCOMING_CALL = 1001;
     public static final int NOTIFICATION_ID_FOREGROUND = 1002;
     public static final int NOTIFICATION_ID_ERROR = 1003;
+    public static final int NOTIFICATION_ID_VOICEMAIL = 1004;
     
     // Notification Channel
     public static final String CHANNEL_ID_CALLS = "voice_agent_call_channel";
     public static final String CHANNEL_ID_ERRORS = "voice_agent_error_channel";
+    public static final String CHANNEL_ID_VOICEMAIL = "voice_agent_voicemail_channel";
     
     // Permission Codes
     public static final int PERMISSION_CODE = 100;
@@ -56,6 +89,8 @@ public class AppConstants {
     public static final String ACTION_TRANSFER = "com.voiceagent.app.TRANSFER";
     public static final String ACTION_STOP = "com.voiceagent.app.STOP";
     public static final String ACTION_START = "com.voiceagent.app.START";
+    public static final String ACTION_RESUME = "com.voiceagent.app.RESUME";
+    public static final String ACTION_SET_SETTING = "com.voiceagent.app.SET_SETTING";
     
     // Intent Extras
     public static final String EXTRA_PHONE_NUMBER = "phone_number";
@@ -68,6 +103,27 @@ public class AppConstants {
     public static final String PREF_AUTO_ANSWER = "auto_answer";
     public static final String PREF_API_KEY_CONFIGURED = "api_key_configured";
     public static final String PREF_FIRST_RUN = "first_run";
+    // Tuning without a screen; set from adb through DebugSettingsReceiver
+    public static final String PREF_FILLER_THRESHOLD_MS = "filler_threshold_ms";
+    public static final String PREF_LOG_LEVEL_LOGCAT = "log_level_logcat";
+    public static final String PREF_LOG_LEVEL_FILE = "log_level_file";
+    public static final String PREF_LOG_SINK = "log_sink";
+    public static final String PREF_ECHO_CANCELLED_CAPTURE = "echo_cancelled_capture";
+    // Suffixed with the language code; one of the STT_BACKEND_* values
+    public static final String PREF_STT_BACKEND_PREFIX = "stt_backend_";
+    
+    // Speech recognition backends
+    public static final String STT_BACKEND_SYSTEM = "system";
+    public static final String STT_BACKEND_WHISPER = "whisper";
+    
+    // Log sinks
+    public static final String LOG_SINK_FILE = "file";
+    public static final String LOG_SINK_RING = "ring";
+    
+    // Log export, shared through the FileProvider declared in the manifest
+    public static final String LOG_EXPORT_DIR = "log_export";
+    public static final String LOG_EXPORT_FILE = "voice_agent_logs.zip";
+    public static final String LOG_EXPORT_AUTHORITY_SUFFIX = ".logs";
     
     // Languages
     public static final String LANGUAGE_ENGLISH = "en";
@@ -77,4 +133,48 @@ public class AppConstants {
     
     // TTS
     public static final String TTS_UTTERANCE_ID = "voice_agent_utterance";
+    public static final String TTS_PREFETCH_UTTERANCE_ID = "voice_agent_prefetch";
+    public static final String TTS_FILLER_UTTERANCE_ID = "voice_agent_filler";
+    public static final String TTS_FILLER_CACHE_EN_ID = "voice_agent_filler_cache_en";
+    public static final String TTS_FILLER_CACHE_BN_ID = "voice_agent_filler_cache_bn";
+    public static final String TTS_VOICEMAIL_CACHE_EN_ID = "voice_agent_voicemail_cache_en";
+    public static final String TTS_VOICEMAIL_CACHE_BN_ID = "voice_agent_voicemail_cache_bn";
+    
+    // Latency Masking
+    public static final long FILLER_THRESHOLD_MS = 1000;
+    
+    // Greeting Prefetch
+    public static final int GREETING_PREFETCH_TIMEOUT_MS = 4000;
+    public static final int GREETING_PREFETCH_MAX_TOKENS = 60;
+    
+    // Spam Screening
+    public static final String BLOCKLIST_DIR = "blocklist";
+    public static final String BLOCKLIST_SOURCE_FILE = "spam_blocklist.txt";
+    public static final double BLOCKLIST_FALSE_POSITIVE_RATE = 0.01;
+    public static final String BLOCKLIST_UPDATE_WORK_NAME = "blocklist_update";
+    public static final long BLOCKLIST_UPDATE_INTERVAL_HOURS = 24;
+    public static final String PREF_BLOCKLIST_ETAG = "blocklist_etag";
+    
+    // Boot Warm-up
+    public static final String WARM_UP_WORK_NAME = "warm_up";
+    public static final String PREF_WARM_UP_READY_AT = "warm_up_ready_at";
+    public static final String PREF_WARM_UP_DURATION_MS = "warm_up_duration_ms";
+    public static final String PREF_WARM_UP_REASON = "warm_up_reason";
+    // Comma-separated names of the steps that threw on the last run
+    public static final String PREF_WARM_UP_FAILED = "warm_up_failed";
+    public static final long WARM_UP_TTS_TIMEOUT_MS = 15000;
+    
+    // Voicemail: taken when the agent can't reach the API, transcribed and summarized later
+    public static final String VOICEMAIL_DIR = "voicemail";
+    public static final String VOICEMAIL_WORK_NAME = "voicemail";
+    public static final int VOICEMAIL_SAMPLE_RATE = 16000;
+    public static final int VOICEMAIL_BIT_RATE = 24000;
+    public static final int VOICEMAIL_MAX_MS = 120000;
+    // Shorter recordings are hang-ups after the beep, not messages
+    public static final long VOICEMAIL_MIN_MS = 1500;
+    public static final int VOICEMAIL_BEEP_MS = 400;
+    public static final int VOICEMAIL_BATCH_SIZE = 8;
+    public static final int VOICEMAIL_SUMMARY_MAX_TOKENS = 400;
+    public static final int VOICEMAIL_MAX_ATTEMPTS = 5;
+    public static final long VOICEMAIL_BACKOFF_MS = 60000;
 }
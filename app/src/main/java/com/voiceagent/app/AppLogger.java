@@ -1,168 +1,303 @@
 package com.voiceagent.app;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.os.Environment;
 import android.util.Log;
 
+import com.voiceagent.core.LogTemplate;
+
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 public class AppLogger {
     
     private static final String TAG = "VoiceAgent";
     private static final String LOG_FILE_NAME = "voice_agent_log.txt";
-    private static final long MAX_LOG_SIZE = 5 * 1024 * 1024; // 5MB
+    private static final String RING_FILE_NAME = "voice_agent_log.ring";
+    private static final int RING_CAPACITY = 1024 * 1024; // 1MB
+    private static final String ARCHIVED_LOG_FILE_NAME = "voice_agent_log_old.txt";
+    private static final long MAX_LOG_SIZE = 2 * 1024 * 1024; // 2MB per file
+    private static final int MAX_LOG_GENERATIONS = 5;
+    private static final long MAX_LOG_TOTAL_SIZE = 8 * 1024 * 1024; // 8MB on disk
+    private static final long MAX_LOG_AGE_MS = 14L * 24 * 60 * 60 * 1000; // 14 days
+    
+    private static final int LOG_QUEUE_CAPACITY = 4096;
+    private static final int LOG_BATCH_BYTES = 32 * 1024;
+    private static final long LOG_FLUSH_INTERVAL_MS = 1000;
+    private static final long LOG_READ_FLUSH_TIMEOUT_MS = 500;
+    private static final int LOG_CONTENT_LINES = 500;
+    
+    public static final int VERBOSE = Log.VERBOSE;
+    public static final int DEBUG = Log.DEBUG;
+    public static final int INFO = Log.INFO;
+    public static final int WARN = Log.WARN;
+    public static final int ERROR = Log.ERROR;
     
-    private static ExecutorService logExecutor;
+    private static volatile int logcatLevel = DEBUG;
+    private static volatile int fileLevel = DEBUG;
+    private static volatile int minLevel = DEBUG;
+    
+    private static BufferedLogWriter writer;
     private static File logFile;
-    private static boolean isInitialized = false;
+    private static RingLogFile ringLog;
+    private static LogReader reader;
+    private static LogRotator rotator;
+    private static int readerRotation;
+    private static volatile boolean isInitialized = false;
     
-    public static void init(Context context) {
+    public static synchronized void init(Context context) {
         if (isInitialized) return;
         
-        logExecutor = Executors.newSingleThreadExecutor();
+        // Release builds keep only INFO and above unless overridden at runtime
+        int defaultLevel = BuildConfig.DEBUG ? DEBUG : INFO;
+        SharedPreferences prefs = context.getSharedPreferences(AppConstants.PREF_NAME, Context.MODE_PRIVATE);
+        setLevels(prefs.getInt(AppConstants.PREF_LOG_LEVEL_LOGCAT, defaultLevel),
+                prefs.getInt(AppConstants.PREF_LOG_LEVEL_FILE, defaultLevel));
         
         File logDir = context.getExternalFilesDir(Environment.DIRECTORY_DOCUMENTS);
         if (logDir == null) {
             logDir = context.getFilesDir();
         }
         
-        logFile = new File(logDir, LOG_FILE_NAME);
+        // The ring sink keeps a fixed-size, crash-durable tail instead of an append-only file
+        boolean useRing = AppConstants.LOG_SINK_RING.equals(
+                prefs.getString(AppConstants.PREF_LOG_SINK, AppConstants.LOG_SINK_FILE));
         
-        // Rotate log if too large
-        if (logFile.exists() && logFile.length() > MAX_LOG_SIZE) {
-            rotateLog();
+        try {
+            LogOutput output;
+            if (useRing) {
+                logFile = new File(logDir, RING_FILE_NAME);
+                ringLog = new RingLogFile(logFile, RING_CAPACITY);
+                output = ringLog;
+            } else {
+                logFile = new File(logDir, LOG_FILE_NAME);
+                rotator = new LogRotator(logFile, MAX_LOG_SIZE, MAX_LOG_GENERATIONS, MAX_LOG_TOTAL_SIZE, MAX_LOG_AGE_MS);
+                rotator.adopt(new File(logDir, ARCHIVED_LOG_FILE_NAME));
+                rotator.schedulePrune(logFile);
+                output = new FileLogOutput(logFile, rotator);
+            }
+            writer = new BufferedLogWriter(output, LOG_QUEUE_CAPACITY, LOG_BATCH_BYTES, LOG_FLUSH_INTERVAL_MS);
+            writer.start();
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to open log file: " + e.getMessage());
+            return;
         }
         
         isInitialized = true;
-        log(TAG, "=== Logger Initialized ===");
+        i("=== Logger Initialized ===");
     }
     
-    private static void rotateLog() {
-        try {
-            File archivedLog = new File(logFile.getParent(), "voice_agent_log_old.txt");
-            if (archivedLog.exists()) {
-                archivedLog.delete();
-            }
-            logFile.renameTo(archivedLog);
-        } catch (Exception e) {
-            Log.e(TAG, "Error rotating log: " + e.getMessage());
-        }
+    public static boolean isLoggable(int level) {
+        return level >= minLevel;
+    }
+    
+    public static int getLogcatLevel() {
+        return logcatLevel;
+    }
+    
+    public static int getFileLevel() {
+        return fileLevel;
+    }
+    
+    public static void setLevels(int logcat, int file) {
+        logcatLevel = logcat;
+        fileLevel = file;
+        minLevel = Math.min(logcat, file);
     }
     
     public static void d(String message) {
-        Log.d(TAG, message);
-        log(TAG, "DEBUG: " + message);
+        if (DEBUG >= minLevel) write(DEBUG, message, null);
+    }
+    
+    public static void d(String template, Object arg) {
+        if (DEBUG >= minLevel) write(DEBUG, LogTemplate.format(template, arg, null, null, 1), null);
+    }
+    
+    public static void d(String template, Object arg1, Object arg2) {
+        if (DEBUG >= minLevel) write(DEBUG, LogTemplate.format(template, arg1, arg2, null, 2), null);
+    }
+    
+    public static void d(String template, Object arg1, Object arg2, Object arg3) {
+        if (DEBUG >= minLevel) write(DEBUG, LogTemplate.format(template, arg1, arg2, arg3, 3), null);
+    }
+    
+    public static void d(Supplier<String> message) {
+        if (DEBUG >= minLevel) write(DEBUG, message.get(), null);
     }
     
     public static void i(String message) {
-        Log.i(TAG, message);
-        log(TAG, "INFO: " + message);
+        if (INFO >= minLevel) write(INFO, message, null);
+    }
+    
+    public static void i(String template, Object arg) {
+        if (INFO >= minLevel) write(INFO, LogTemplate.format(template, arg, null, null, 1), null);
+    }
+    
+    public static void i(String template, Object arg1, Object arg2) {
+        if (INFO >= minLevel) write(INFO, LogTemplate.format(template, arg1, arg2, null, 2), null);
+    }
+    
+    public static void i(String template, Object arg1, Object arg2, Object arg3) {
+        if (INFO >= minLevel) write(INFO, LogTemplate.format(template, arg1, arg2, arg3, 3), null);
+    }
+    
+    public static void i(Supplier<String> message) {
+        if (INFO >= minLevel) write(INFO, message.get(), null);
     }
     
     public static void w(String message) {
-        Log.w(TAG, message);
-        log(TAG, "WARN: " + message);
+        if (WARN >= minLevel) write(WARN, message, null);
+    }
+    
+    public static void w(String template, Object arg) {
+        if (WARN >= minLevel) write(WARN, LogTemplate.format(template, arg, null, null, 1), null);
+    }
+    
+    public static void w(String template, Object arg1, Object arg2) {
+        if (WARN >= minLevel) write(WARN, LogTemplate.format(template, arg1, arg2, null, 2), null);
     }
     
     public static void e(String message) {
-        Log.e(TAG, message);
-        log(TAG, "ERROR: " + message);
+        if (ERROR >= minLevel) write(ERROR, message, null);
     }
     
     public static void e(String message, Throwable throwable) {
-        Log.e(TAG, message, throwable);
-        log(TAG, "ERROR: " + message);
-        logException(throwable);
+        if (ERROR >= minLevel) write(ERROR, message, throwable);
     }
     
-    private static void log(final String tag, final String message) {
-        if (!isInitialized || logExecutor == null) return;
-        
-        logExecutor.execute(() -> {
-            try {
-                if (logFile == null) return;
-                
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
-                String timestamp = sdf.format(new Date());
-                String logLine = String.format("[%s] [%s] %s\n", timestamp, tag, message);
-                
-                FileWriter fw = new FileWriter(logFile, true);
-                fw.append(logLine);
-                fw.flush();
-                fw.close();
-            } catch (IOException e) {
-                Log.e(TAG, "Failed to write log: " + e.getMessage());
-            }
-        });
+    public static void e(String template, Object arg) {
+        if (ERROR >= minLevel) write(ERROR, LogTemplate.format(template, arg, null, null, 1), null);
+    }
+    
+    public static void e(String template, Object arg1, Object arg2) {
+        if (ERROR >= minLevel) write(ERROR, LogTemplate.format(template, arg1, arg2, null, 2), null);
+    }
+    
+    public static void e(String template, Object arg, Throwable throwable) {
+        if (ERROR >= minLevel) write(ERROR, LogTemplate.format(template, arg, null, null, 1), throwable);
     }
     
-    private static void logException(final Throwable throwable) {
-        if (!isInitialized || logExecutor == null || logFile == null) return;
+    private static void write(int level, String message, Throwable throwable) {
+        if (level >= logcatLevel) {
+            if (throwable != null) {
+                Log.println(level, TAG, message + '\n' + Log.getStackTraceString(throwable));
+            } else {
+                Log.println(level, TAG, message);
+            }
+        }
         
-        logExecutor.execute(() -> {
-            try {
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
-                String timestamp = sdf.format(new Date());
-                
-                PrintWriter pw = new PrintWriter(new FileWriter(logFile, true));
-                pw.println(String.format("[%s] [EXCEPTION]", timestamp));
-                throwable.printStackTrace(pw);
-                pw.println();
-                pw.flush();
-                pw.close();
-            } catch (IOException e) {
-                Log.e(TAG, "Failed to write exception: " + e.getMessage());
+        if (isInitialized && level >= fileLevel) {
+            long now = System.currentTimeMillis();
+            // Errors are written out immediately instead of waiting for the next batch
+            writer.append(now, TAG, label(level), message, level >= ERROR);
+            if (throwable != null) {
+                writer.appendException(now, throwable);
             }
-        });
+        }
+    }
+    
+    private static String label(int level) {
+        switch (level) {
+            case DEBUG: return "DEBUG";
+            case INFO: return "INFO";
+            case WARN: return "WARN";
+            case ERROR: return "ERROR";
+            default: return "VERBOSE";
+        }
+    }
+    
+    public static void flush() {
+        if (!isInitialized) return;
+        writer.flush(LOG_READ_FLUSH_TIMEOUT_MS);
     }
     
     public static File getLogFile() {
         return logFile;
     }
     
+    // Last LOG_CONTENT_LINES lines, read through the index rather than the whole file
     public static String getLogContent() {
         if (logFile == null || !logFile.exists()) {
             return "No log file found";
         }
         
         try {
-            int size = (int) logFile.length();
-            if (size > 1024 * 1024) {
-                // Return last 1MB if log is large
-                java.io.RandomAccessFile raf = new java.io.RandomAccessFile(logFile, "r");
-                raf.seek(size - 1024 * 1024);
-                byte[] buffer = new byte[1024 * 1024];
-                int bytesRead = raf.read(buffer);
-                raf.close();
-                return new String(buffer, 0, bytesRead);
-            }
-            
-            java.io.FileInputStream fis = new java.io.FileInputStream(logFile);
-            java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.InputStreamReader(fis));
+            LogReader.Page page = queryLog(new LogReader.Query().tail(LOG_CONTENT_LINES).limit(LOG_CONTENT_LINES));
             StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line).append("\n");
+            for (String line : page.lines) {
+                content.append(line).append('\n');
             }
-            reader.close();
             return content.toString();
         } catch (Exception e) {
             return "Error reading log: " + e.getMessage();
         }
     }
     
+    private static synchronized LogReader.Page queryLog(LogReader.Query query) throws IOException {
+        flush();
+        if (ringLog != null) {
+            // The ring moves under us, so each query reads a fresh snapshot
+            try (LogReader snapshot = LogReader.open(ringLog)) {
+                return snapshot.query(query);
+            }
+        }
+        if (reader == null || readerRotation != rotator.getRotationCount()) {
+            // The file we were reading was rotated away; start over on the new one
+            if (reader != null) {
+                reader.close();
+            }
+            readerRotation = rotator.getRotationCount();
+            reader = LogReader.open(logFile);
+        }
+        return reader.query(query);
+    }
+    
+    // Zips the current log and any rotated generations into out
+    public static synchronized void exportLogs(OutputStream out) throws IOException {
+        flush();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.BEST_SPEED);
+        
+        zip.putNextEntry(new ZipEntry(LOG_FILE_NAME));
+        try (LogReader current = ringLog != null ? LogReader.open(ringLog) : LogReader.open(logFile)) {
+            current.writeTo(zip);
+        }
+        zip.closeEntry();
+        
+        if (rotator != null) {
+            // Generations go in as they are on disk, gzipped or not yet
+            byte[] buffer = new byte[64 * 1024];
+            for (File generation : rotator.listGenerations()) {
+                zip.putNextEntry(new ZipEntry(generation.getName()));
+                try (FileInputStream in = new FileInputStream(generation)) {
+                    int n;
+                    while ((n = in.read(buffer)) != -1) {
+                        zip.write(buffer, 0, n);
+                    }
+                } catch (FileNotFoundException e) {
+                    // Compressed or pruned while we were listing
+                }
+                zip.closeEntry();
+            }
+        }
+        zip.finish();
+    }
+    
     public static void clearLog() {
-        if (logFile != null && logFile.exists()) {
-            logFile.delete();
-            log(TAG, "Log cleared");
+        if (isInitialized) {
+            writer.clear(LOG_READ_FLUSH_TIMEOUT_MS);
+            if (rotator != null) {
+                rotator.deleteGenerations();
+            }
+            i("Log cleared");
         }
     }
 }
@@ -0,0 +1,157 @@
+package com.voiceagent.app;
+
+import android.media.AudioFormat;
+import android.media.AudioRecord;
+import android.media.MediaRecorder;
+import android.media.audiofx.AcousticEchoCanceler;
+import android.media.audiofx.AudioEffect;
+import android.media.audiofx.AutomaticGainControl;
+import android.media.audiofx.NoiseSuppressor;
+import android.os.Process;
+
+/**
+ * Call-long microphone capture from the VOICE_COMMUNICATION source, with the platform's echo
+ * canceller, noise suppressor and gain control attached where the device has them. The agent
+ * plays its replies on the speakerphone, so without echo cancellation the recognizer hears the
+ * agent as often as the caller.
+ *
+ * One AudioRecord and one frame buffer serve the whole call; the capture thread keeps reading
+ * between turns so the echo canceller stays adapted, and hands each frame to the current sink,
+ * if any. Sinks run on the capture thread and must not keep the array.
+ */
+public class AudioCapture {
+
+    public interface FrameSink {
+        void onFrame(byte[] frame, int length);
+    }
+
+    private final int sampleRate;
+    private final byte[] frame;
+
+    private AudioRecord record;
+    private AudioEffect[] effects = new AudioEffect[0];
+    private Thread thread;
+    private volatile boolean running;
+    private volatile FrameSink sink;
+    private String effectNames = "";
+
+    public AudioCapture(int sampleRate, int frameMs) {
+        this.sampleRate = sampleRate;
+        this.frame = new byte[sampleRate * frameMs / 1000 * 2];
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    // Needs RECORD_AUDIO; returns false if the source couldn't be opened
+    public synchronized boolean start() {
+        if (running) return true;
+        int minBuffer = AudioRecord.getMinBufferSize(sampleRate, AudioFormat.CHANNEL_IN_MONO,
+                AudioFormat.ENCODING_PCM_16BIT);
+        try {
+            record = new AudioRecord(MediaRecorder.AudioSource.VOICE_COMMUNICATION, sampleRate,
+                    AudioFormat.CHANNEL_IN_MONO, AudioFormat.ENCODING_PCM_16BIT,
+                    Math.max(minBuffer, frame.length * 4));
+        } catch (SecurityException | IllegalArgumentException e) {
+            AppLogger.e("Cannot open voice capture: {}", e.getMessage());
+            return false;
+        }
+        if (record.getState() != AudioRecord.STATE_INITIALIZED) {
+            AppLogger.e("Voice capture not initialized");
+            record.release();
+            record = null;
+            return false;
+        }
+
+        attachEffects(record.getAudioSessionId());
+        record.startRecording();
+        running = true;
+        thread = new Thread(this::captureLoop, "VoiceCapture");
+        thread.start();
+        AppLogger.d("Voice capture started at {}Hz with{}", sampleRate, effectNames.isEmpty() ? " no effects" : effectNames);
+        return true;
+    }
+
+    public void setSink(FrameSink sink) {
+        this.sink = sink;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // " aec ns agc", for whichever effects are attached
+    public String getEffectNames() {
+        return effectNames;
+    }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        sink = null;
+        try {
+            thread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (AudioEffect effect : effects) {
+            effect.release();
+        }
+        effects = new AudioEffect[0];
+        try {
+            record.stop();
+        } catch (IllegalStateException ignored) {
+        }
+        record.release();
+        record = null;
+        AppLogger.d("Voice capture stopped");
+    }
+
+    private void captureLoop() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+        AudioRecord source = record;
+        while (running) {
+            int n = source.read(frame, 0, frame.length);
+            if (n <= 0) {
+                if (n != 0) AppLogger.w("Voice capture read error {}", n);
+                continue;
+            }
+            FrameSink current = sink;
+            if (current != null) current.onFrame(frame, n);
+        }
+    }
+
+    private void attachEffects(int session) {
+        AudioEffect[] attached = new AudioEffect[3];
+        StringBuilder names = new StringBuilder();
+        int count = 0;
+        if (AcousticEchoCanceler.isAvailable()) {
+            attached[count] = enable(AcousticEchoCanceler.create(session), names, " aec");
+            if (attached[count] != null) count++;
+        }
+        if (NoiseSuppressor.isAvailable()) {
+            attached[count] = enable(NoiseSuppressor.create(session), names, " ns");
+            if (attached[count] != null) count++;
+        }
+        if (AutomaticGainControl.isAvailable()) {
+            attached[count] = enable(AutomaticGainControl.create(session), names, " agc");
+            if (attached[count] != null) count++;
+        }
+        effects = new AudioEffect[count];
+        System.arraycopy(attached, 0, effects, 0, count);
+        effectNames = names.toString();
+    }
+
+    private static AudioEffect enable(AudioEffect effect, StringBuilder names, String name) {
+        if (effect == null) return null;
+        try {
+            effect.setEnabled(true);
+            names.append(name);
+            return effect;
+        } catch (IllegalStateException e) {
+            effect.release();
+            return null;
+        }
+    }
+}
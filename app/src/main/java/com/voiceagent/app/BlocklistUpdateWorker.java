@@ -0,0 +1,95 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads the spam blocklist from BuildConfig.BLOCKLIST_URL (set as blocklistUrl in
+ * local.properties) once a day and recompiles it through SpamScreener.update(). The ETag of the
+ * last list is kept, so an unchanged list costs one conditional request and no recompile.
+ */
+public class BlocklistUpdateWorker extends Worker {
+
+    public BlocklistUpdateWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    // Keeps an already scheduled job, so calling this from every service start is cheap
+    public static void schedule(Context context) {
+        try {
+            WorkManager workManager = WorkManager.getInstance(context);
+            if (BuildConfig.BLOCKLIST_URL.isEmpty()) {
+                AppLogger.d("No blocklist URL configured, spam screening uses the local list only");
+                workManager.cancelUniqueWork(AppConstants.BLOCKLIST_UPDATE_WORK_NAME);
+                return;
+            }
+            PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(BlocklistUpdateWorker.class,
+                    AppConstants.BLOCKLIST_UPDATE_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .setRequiresBatteryNotLow(true)
+                        .build())
+                .build();
+            workManager.enqueueUniquePeriodicWork(AppConstants.BLOCKLIST_UPDATE_WORK_NAME,
+                    ExistingPeriodicWorkPolicy.KEEP, request);
+        } catch (Exception e) {
+            AppLogger.e("Error scheduling blocklist updates", e);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        SharedPreferences prefs = context.getSharedPreferences(AppConstants.PREF_NAME, Context.MODE_PRIVATE);
+        HttpURLConnection conn = null;
+        try {
+            conn = (HttpURLConnection) new URL(BuildConfig.BLOCKLIST_URL).openConnection();
+            conn.setConnectTimeout(AppConstants.API_CONNECT_TIMEOUT);
+            conn.setReadTimeout(AppConstants.API_READ_TIMEOUT);
+            String etag = prefs.getString(AppConstants.PREF_BLOCKLIST_ETAG, null);
+            SpamScreener screener = SpamScreener.getInstance(context);
+            if (etag != null && screener.isReady()) conn.setRequestProperty("If-None-Match", etag);
+
+            int responseCode = conn.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                AppLogger.d("Spam blocklist unchanged");
+                return Result.success();
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                AppLogger.w("Blocklist download failed: HTTP {}", responseCode);
+                return responseCode >= 500 ? Result.retry() : Result.failure();
+            }
+
+            InputStream in = conn.getInputStream();
+            try {
+                screener.update(in);
+            } finally {
+                in.close();
+            }
+            prefs.edit().putString(AppConstants.PREF_BLOCKLIST_ETAG, conn.getHeaderField("ETag")).apply();
+            AppLogger.i("Spam blocklist updated: {} numbers", screener.size());
+            return Result.success();
+        } catch (IOException e) {
+            AppLogger.w("Blocklist download failed: {}", e.getMessage());
+            return Result.retry();
+        } finally {
+            if (conn != null) conn.disconnect();
+        }
+    }
+}
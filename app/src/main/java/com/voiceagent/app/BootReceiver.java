@@ -16,11 +16,17 @@ public class BootReceiver extends BroadcastReceiver {
         String action = intent.getAction();
         Log.d(TAG, "Boot action: " + action);
         
-        if (Intent.ACTION_BOOT_COMPLETED.equals(action) || "android.intent.action.QUICKBOOT_POWERON".equals(action)) {
-            Log.d(TAG, "Starting Voice Agent service after boot");
+        boolean boot = Intent.ACTION_BOOT_COMPLETED.equals(action)
+                || "android.intent.action.QUICKBOOT_POWERON".equals(action);
+        boolean upgrade = Intent.ACTION_MY_PACKAGE_REPLACED.equals(action);
+        if (boot || upgrade) {
+            Log.d(TAG, "Starting Voice Agent service after " + (boot ? "boot" : "upgrade"));
             
             Intent serviceIntent = new Intent(context, CallMonitorService.class);
             context.startService(serviceIntent);
+            
+            // Everything else the first call needs is prepared in the background
+            WarmUpWorker.schedule(context, boot ? "boot" : "upgrade");
         }
     }
 }
@@ -0,0 +1,248 @@
+package com.voiceagent.app;
+
+import com.voiceagent.core.LogLineFormatter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log file backend: callers enqueue records into a bounded queue without blocking, and a
+ * single writer thread formats them into a reused buffer and writes batches to a LogOutput.
+ * A batch is written when the buffer fills, when the flush interval passes, or immediately
+ * for records marked urgent. Write-through outputs get every drained batch right away.
+ */
+public class BufferedLogWriter {
+
+    private static final int TYPE_LINE = 0;
+    private static final int TYPE_EXCEPTION = 1;
+    private static final int TYPE_FLUSH = 2;
+    private static final int TYPE_CLEAR = 3;
+
+    private static final class Record {
+        final int type;
+        final long timeMillis;
+        final String tag;
+        final String level;
+        final String message;
+        final Throwable throwable;
+        final boolean urgent;
+        final CountDownLatch done;
+
+        Record(int type, long timeMillis, String tag, String level, String message, Throwable throwable,
+               boolean urgent, CountDownLatch done) {
+            this.type = type;
+            this.timeMillis = timeMillis;
+            this.tag = tag;
+            this.level = level;
+            this.message = message;
+            this.throwable = throwable;
+            this.urgent = urgent;
+            this.done = done;
+        }
+    }
+
+    private final LogOutput output;
+    private final BlockingQueue<Record> queue;
+    private final long flushIntervalMs;
+    private final ByteBuffer batch;
+    private final StringBuilder line = new StringBuilder(256);
+    private final LogLineFormatter formatter = new LogLineFormatter();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenLines = new AtomicLong();
+
+    private Thread writerThread;
+    private volatile boolean running;
+    private long lastFlushTime;
+
+    public BufferedLogWriter(LogOutput output, int queueCapacity, int batchBytes, long flushIntervalMs) {
+        this.output = output;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batch = ByteBuffer.allocateDirect(batchBytes);
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        lastFlushTime = System.currentTimeMillis();
+        writerThread = new Thread(this::runWriter, "AppLoggerWriter");
+        writerThread.setPriority(Thread.NORM_PRIORITY - 1);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // Never blocks; returns false if the queue is full and the line was dropped
+    public boolean append(long timeMillis, String tag, String level, String message, boolean urgent) {
+        return offer(new Record(TYPE_LINE, timeMillis, tag, level, message, null, urgent, null));
+    }
+
+    public boolean appendException(long timeMillis, Throwable throwable) {
+        return offer(new Record(TYPE_EXCEPTION, timeMillis, null, null, null, throwable, true, null));
+    }
+
+    // Writes everything queued so far, waiting up to timeoutMs for the writer
+    public void flush(long timeoutMs) {
+        awaitControl(TYPE_FLUSH, timeoutMs);
+    }
+
+    public void clear(long timeoutMs) {
+        awaitControl(TYPE_CLEAR, timeoutMs);
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getWrittenLines() {
+        return writtenLines.get();
+    }
+
+    public LogOutput getOutput() {
+        return output;
+    }
+
+    public synchronized void close() {
+        if (!running) return;
+        flush(1000);
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean offer(Record record) {
+        if (!running) return false;
+        if (queue.offer(record)) return true;
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    private void awaitControl(int type, long timeoutMs) {
+        if (!running) return;
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            if (queue.offer(new Record(type, 0, null, null, null, null, true, done), timeoutMs, TimeUnit.MILLISECONDS)) {
+                done.await(timeoutMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        long reportedDropped = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                Record record = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                PerfTrace.counter("log_queue", queue.size());
+                boolean urgent = false;
+                while (record != null) {
+                    urgent |= handle(record);
+                    record = queue.poll();
+                }
+
+                long dropped = droppedCount.get();
+                if (dropped != reportedDropped) {
+                    encodeLine(System.currentTimeMillis(), "AppLogger", "WARN",
+                            (dropped - reportedDropped) + " log lines dropped, queue full");
+                    reportedDropped = dropped;
+                }
+
+                if (urgent || output.isWriteThrough() || System.currentTimeMillis() - lastFlushTime >= flushIntervalMs) {
+                    PerfTrace.begin("logWriteBatch");
+                    try {
+                        writeBatch();
+                    } finally {
+                        PerfTrace.end();
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (!running) break;
+            } catch (IOException e) {
+                // Drop the batch rather than retry into a failing file
+                batch.clear();
+            }
+        }
+        try {
+            writeBatch();
+            output.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    // Returns true if the batch should be written now
+    private boolean handle(Record record) throws IOException {
+        switch (record.type) {
+            case TYPE_LINE:
+                encodeLine(record.timeMillis, record.tag, record.level, record.message);
+                return record.urgent;
+            case TYPE_EXCEPTION:
+                line.setLength(0);
+                line.append('[');
+                formatter.appendTimestamp(record.timeMillis, line);
+                line.append("] [EXCEPTION]\n");
+                StringWriter trace = new StringWriter();
+                record.throwable.printStackTrace(new PrintWriter(trace));
+                line.append(trace).append('\n');
+                encode(line);
+                return true;
+            case TYPE_FLUSH:
+                writeBatch();
+                record.done.countDown();
+                return false;
+            case TYPE_CLEAR:
+                batch.clear();
+                output.truncate();
+                record.done.countDown();
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private void encodeLine(long timeMillis, String tag, String level, String message) throws IOException {
+        line.setLength(0);
+        formatter.format(timeMillis, tag, level, message, line);
+        encode(line);
+        writtenLines.incrementAndGet();
+    }
+
+    private void encode(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, batch, true);
+            if (result.isOverflow()) {
+                writeBatch();
+            } else {
+                break;
+            }
+        }
+        if (batch.position() >= batch.capacity() / 2) {
+            writeBatch();
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        lastFlushTime = System.currentTimeMillis();
+        if (batch.position() == 0) return;
+        batch.flip();
+        output.write(batch);
+        batch.clear();
+    }
+}
@@ -13,16 +13,23 @@ import android.content.pm.PackageManager;
 import android.media.AudioManager;
 import android.os.Build;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.IBinder;
 import android.os.Looper;
+import android.os.Process;
+import android.provider.Settings;
 import android.telecom.TelecomManager;
 import android.telephony.PhoneStateListener;
+import android.telephony.TelephonyCallback;
 import android.telephony.TelephonyManager;
 
 import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
 import androidx.core.app.NotificationCompat;
 import androidx.core.content.ContextCompat;
 
+import java.util.concurrent.Executor;
+
 public class CallMonitorService extends Service {
 
     private static final String TAG = "CallMonitorService";
@@ -33,12 +40,23 @@ public class CallMonitorService extends Service {
     private TelephonyManager telephonyManager;
     private AudioManager audioManager;
     private PhoneStateListener phoneStateListener;
+    private TelephonyCallback telephonyCallback;
     private boolean isListeningForCalls = false;
-    private String currentCallNumber = null;
+    private boolean hasCheckedCheckpoint = false;
+    private volatile String currentCallNumber = null;
+    private volatile String pendingIncomingNumber = null;
+    private volatile boolean isRinging = false;
+    private volatile boolean isScreenedCall = false;
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
     
+    private HandlerThread callStateThread;
+    private Handler callStateHandler;
+    private Executor callStateExecutor;
+    
     public interface CallListener {
         void onCallRinging(String number);
+        // The number of a call already reported as ringing from "Unknown"
+        void onCallerResolved(String number);
         void onCallAnswered();
         void onCallEnded();
         void onCallDisconnected();
@@ -54,10 +72,15 @@ public class CallMonitorService extends Service {
         AppLogger.init(this);
         AppLogger.d("Service created");
         
+        startCallStateThread();
         audioManager = (AudioManager) getSystemService(Context.AUDIO_SERVICE);
-        createNotificationChannels();
+        createNotificationChannels(this);
         
         registerAnswerReceiver();
+        
+        final SpamScreener screener = SpamScreener.getInstance(this);
+        new Thread(screener::refresh, "BlocklistLoader").start();
+        BlocklistUpdateWorker.schedule(this);
     }
     
     private void registerAnswerReceiver() {
@@ -74,7 +97,7 @@ public class CallMonitorService extends Service {
         public void onReceive(Context context, Intent intent) {
             if (AppConstants.ACTION_ANSWER.equals(intent.getAction())) {
                 String number = intent.getStringExtra(AppConstants.EXTRA_PHONE_NUMBER);
-                AppLogger.d("Received answer action for: " + number);
+                AppLogger.d("Received answer action for: {phone}", number);
                 answerCall();
             }
         }
@@ -86,7 +109,7 @@ public class CallMonitorService extends Service {
         
         if (intent != null) {
             String action = intent.getAction();
-            AppLogger.d("Action: " + action);
+            AppLogger.d("Action: {}", action);
             
             if (AppConstants.ACTION_STOP.equals(action)) {
                 stopSelf();
@@ -102,6 +125,11 @@ public class CallMonitorService extends Service {
         startForeground(AppConstants.NOTIFICATION_ID_FOREGROUND, createForegroundNotification());
         startCallMonitoring();
         
+        if (!hasCheckedCheckpoint && isListeningForCalls) {
+            hasCheckedCheckpoint = true;
+            callStateHandler.post(this::resumeInterruptedSession);
+        }
+        
         return START_STICKY;
     }
     
@@ -121,60 +149,254 @@ public class CallMonitorService extends Service {
             telephonyManager = (TelephonyManager) getSystemService(Context.TELEPHONY_SERVICE);
             
             if (telephonyManager != null) {
-                phoneStateListener = new PhoneStateListener() {
-                    @Override
-                    public void onCallStateChanged(int state, String phoneNumber) {
-                        super.onCallStateChanged(state, phoneNumber);
-                        AppLogger.d("Call state: " + state + ", number: " + phoneNumber);
-                        
-                        switch (state) {
-                            case TelephonyManager.CALL_STATE_RINGING:
-                                AppLogger.d("=== CALL RINGING ===");
-                                currentCallNumber = phoneNumber != null ? phoneNumber : "Unknown";
-                                showIncomingCallNotification(currentCallNumber);
-                                if (listener != null) {
-                                    listener.onCallRinging(currentCallNumber);
-                                }
-                                break;
-                                
-                            case TelephonyManager.CALL_STATE_OFFHOOK:
-                                AppLogger.d("=== CALL OFFHOOK (ANSWERED) ===");
-                                if (listener != null) {
-                                    listener.onCallAnswered();
-                                }
-                                break;
-                                
-                            case TelephonyManager.CALL_STATE_IDLE:
-                                AppLogger.d("=== CALL IDLE ===");
-                                dismissCallNotification();
-                                currentCallNumber = null;
-                                if (listener != null) {
-                                    listener.onCallEnded();
-                                }
-                                break;
-                        }
-                    }
-                };
-                
-                telephonyManager.listen(phoneStateListener, PhoneStateListener.LISTEN_CALL_STATE);
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+                    telephonyCallback = new CallStateCallback();
+                    telephonyManager.registerTelephonyCallback(callStateExecutor, telephonyCallback);
+                    registerPhoneStateReceiver();
+                    AppLogger.d("Started listening for calls via TelephonyCallback");
+                } else {
+                    phoneStateListener = createPhoneStateListener();
+                    telephonyManager.listen(phoneStateListener, PhoneStateListener.LISTEN_CALL_STATE);
+                    AppLogger.d("Started listening for calls via PhoneStateListener");
+                }
                 isListeningForCalls = true;
-                AppLogger.d("Started listening for calls");
             }
         } catch (Exception e) {
             AppLogger.e("Error starting call monitoring", e);
         }
     }
     
-    private void createNotificationChannels() {
+    // After a START_STICKY restart, hands a call that is still OFFHOOK back to the agent
+    private void resumeInterruptedSession() {
+        SessionCheckpoint checkpoint = new SessionCheckpoint(this);
+        SessionCheckpoint.Session session = checkpoint.readLast();
+        if (session == null || session.ended) return;
+        
+        long age = System.currentTimeMillis() - session.lastUpdateTime;
+        if (getCurrentCallState() != TelephonyManager.CALL_STATE_OFFHOOK
+                || age > AppConstants.MAX_CALL_DURATION_MINUTES * 60000L) {
+            AppLogger.d("Closing stale session checkpoint");
+            checkpoint.end();
+            return;
+        }
+        
+        AppLogger.i("Call still active after restart, resuming session");
+        currentCallNumber = session.phoneNumber.isEmpty() ? null : session.phoneNumber;
+        
+        // The conversation lives in the activity, so it has to come back. Android 10+ only lets a
+        // background service start it with "display over other apps" granted (Settings > Apps >
+        // Special access); otherwise a full-screen intent opens it over the lock screen, but on an
+        // unlocked phone it's only a heads-up and the call stays silent until the user taps it.
+        try {
+            Intent resumeIntent = new Intent(this, MainActivity.class);
+            resumeIntent.setAction(AppConstants.ACTION_RESUME);
+            resumeIntent.putExtra(AppConstants.EXTRA_PHONE_NUMBER, currentCallNumber);
+            resumeIntent.putExtra(AppConstants.EXTRA_LANGUAGE, session.language);
+            resumeIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || Settings.canDrawOverlays(this)) {
+                startActivity(resumeIntent);
+                return;
+            }
+            AppLogger.w("Background start not allowed, resuming through a notification");
+            PendingIntent resumePendingIntent = PendingIntent.getActivity(
+                this, 3, resumeIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+            );
+            
+            // Same id as the ringing notification, so the call ending dismisses it
+            NotificationCompat.Builder builder = new NotificationCompat.Builder(this, AppConstants.CHANNEL_ID_CALLS)
+                .setSmallIcon(R.drawable.ic_mic_white)
+                .setContentTitle(getString(R.string.resume_notification_title))
+                .setContentText(getString(R.string.resume_notification_text))
+                .setPriority(NotificationCompat.PRIORITY_MAX)
+                .setCategory(NotificationCompat.CATEGORY_CALL)
+                .setAutoCancel(true)
+                .setContentIntent(resumePendingIntent)
+                .setFullScreenIntent(resumePendingIntent, true);
+            NotificationManager manager = getSystemService(NotificationManager.class);
+            if (manager != null) {
+                manager.notify(AppConstants.NOTIFICATION_ID_INCOMING_CALL, builder.build());
+            }
+        } catch (Exception e) {
+            AppLogger.e("Error resuming session", e);
+        }
+    }
+    
+    private int getCurrentCallState() {
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+                return telephonyManager.getCallStateForSubscription();
+            }
+            return telephonyManager.getCallState();
+        } catch (Exception e) {
+            AppLogger.e("Error reading call state", e);
+            return TelephonyManager.CALL_STATE_IDLE;
+        }
+    }
+    
+    private void startCallStateThread() {
+        callStateThread = new HandlerThread("CallStateThread", Process.THREAD_PRIORITY_FOREGROUND);
+        callStateThread.start();
+        callStateHandler = new Handler(callStateThread.getLooper());
+        callStateExecutor = callStateHandler::post;
+    }
+    
+    @RequiresApi(api = Build.VERSION_CODES.S)
+    private class CallStateCallback extends TelephonyCallback implements TelephonyCallback.CallStateListener {
+        @Override
+        public void onCallStateChanged(int state) {
+            // The number is not delivered here; it arrives through phoneStateReceiver
+            handleCallState(state, pendingIncomingNumber);
+        }
+    }
+    
+    private PhoneStateListener createPhoneStateListener() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            return new PhoneStateListener(callStateExecutor) {
+                @Override
+                public void onCallStateChanged(int state, String phoneNumber) {
+                    handleCallState(state, phoneNumber);
+                }
+            };
+        }
+        
+        // Before Q the listener is bound to the main looper, so hand off immediately
+        return new PhoneStateListener() {
+            @Override
+            public void onCallStateChanged(final int state, final String phoneNumber) {
+                callStateExecutor.execute(() -> handleCallState(state, phoneNumber));
+            }
+        };
+    }
+    
+    private void registerPhoneStateReceiver() {
+        try {
+            IntentFilter filter = new IntentFilter(TelephonyManager.ACTION_PHONE_STATE_CHANGED);
+            registerReceiver(phoneStateReceiver, filter, null, callStateHandler);
+        } catch (Exception e) {
+            AppLogger.e("Error registering phone state receiver", e);
+        }
+    }
+    
+    // Only carries EXTRA_INCOMING_NUMBER when READ_CALL_LOG is granted
+    private final BroadcastReceiver phoneStateReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            String state = intent.getStringExtra(TelephonyManager.EXTRA_STATE);
+            String number = intent.getStringExtra(TelephonyManager.EXTRA_INCOMING_NUMBER);
+            
+            if (!TelephonyManager.EXTRA_STATE_RINGING.equals(state) || number == null) {
+                return;
+            }
+            
+            pendingIncomingNumber = number;
+            if (isRinging && "Unknown".equals(currentCallNumber)) {
+                AppLogger.d("Incoming number resolved after ringing");
+                resolveIncomingNumber(number);
+            }
+        }
+    };
+    
+    // Runs on CallStateThread
+    private void handleCallState(int state, String phoneNumber) {
+        AppLogger.d("Call state: {}, number: {phone}", state, phoneNumber);
+        PerfTrace.counter("call_state", state);
+        PerfTrace.begin("handleCallState");
+        try {
+            dispatchCallState(state, phoneNumber);
+        } finally {
+            PerfTrace.end();
+        }
+    }
+    
+    private void dispatchCallState(int state, String phoneNumber) {
+        switch (state) {
+            case TelephonyManager.CALL_STATE_RINGING:
+                isRinging = true;
+                currentCallNumber = phoneNumber != null ? phoneNumber : "Unknown";
+                if (screenCall(currentCallNumber)) {
+                    dismissCallNotification();
+                    break;
+                }
+                
+                // Deliver to the agent before anything slower
+                if (listener != null) {
+                    listener.onCallRinging(currentCallNumber);
+                }
+                AppLogger.d("=== CALL RINGING ===");
+                showIncomingCallNotification(currentCallNumber);
+                break;
+                
+            case TelephonyManager.CALL_STATE_OFFHOOK:
+                isRinging = false;
+                if (listener != null && !isScreenedCall) {
+                    listener.onCallAnswered();
+                }
+                AppLogger.d("=== CALL OFFHOOK (ANSWERED) ===");
+                break;
+                
+            case TelephonyManager.CALL_STATE_IDLE:
+                isRinging = false;
+                pendingIncomingNumber = null;
+                currentCallNumber = null;
+                if (isScreenedCall) {
+                    isScreenedCall = false;
+                    AppLogger.d("=== SCREENED CALL IDLE ===");
+                    break;
+                }
+                if (listener != null) {
+                    listener.onCallEnded();
+                }
+                AppLogger.d("=== CALL IDLE ===");
+                dismissCallNotification();
+                break;
+        }
+    }
+    
+    // RINGING already ran for "Unknown"; screen the real number and retarget the notification
+    // and greeting without announcing the ring again
+    private void resolveIncomingNumber(String phoneNumber) {
+        currentCallNumber = phoneNumber;
+        if (screenCall(phoneNumber)) {
+            dismissCallNotification();
+            return;
+        }
+        if (listener != null) {
+            listener.onCallerResolved(phoneNumber);
+        }
+        showIncomingCallNotification(phoneNumber);
+    }
+    
+    private boolean screenCall(String phoneNumber) {
+        long start = System.nanoTime();
+        PerfTrace.begin("screenCall");
+        try {
+            isScreenedCall = SpamScreener.getInstance(this).isBlocked(phoneNumber);
+        } finally {
+            PerfTrace.end();
+        }
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        
+        if (isScreenedCall) {
+            AgentStats.increment(this, AgentStats.SCREENED_CALLS);
+            AppLogger.i("Call screened as spam in {}us, not answering", elapsedMicros);
+        } else {
+            AppLogger.d("Call passed screening in {}us", elapsedMicros);
+        }
+        return isScreenedCall;
+    }
+    
+    // Static so the boot warm-up can create them before the service first runs
+    static void createNotificationChannels(Context context) {
         try {
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                NotificationManager manager = getSystemService(NotificationManager.class);
+                NotificationManager manager = context.getSystemService(NotificationManager.class);
                 if (manager == null) return;
                 
                 // Call notification channel
                 NotificationChannel callChannel = new NotificationChannel(
                     AppConstants.CHANNEL_ID_CALLS,
-                    getString(R.string.notification_channel_calls),
+                    context.getString(R.string.notification_channel_calls),
                     NotificationManager.IMPORTANCE_HIGH
                 );
                 callChannel.setDescription("Incoming call notifications");
@@ -187,12 +409,21 @@ public class CallMonitorService extends Service {
                 // Error notification channel
                 NotificationChannel errorChannel = new NotificationChannel(
                     AppConstants.CHANNEL_ID_ERRORS,
-                    getString(R.string.notification_channel_errors),
+                    context.getString(R.string.notification_channel_errors),
                     NotificationManager.IMPORTANCE_DEFAULT
                 );
                 errorChannel.setDescription("Error notifications");
                 manager.createNotificationChannel(errorChannel);
                 
+                // Voicemail summary channel
+                NotificationChannel voicemailChannel = new NotificationChannel(
+                    AppConstants.CHANNEL_ID_VOICEMAIL,
+                    context.getString(R.string.notification_channel_voicemail),
+                    NotificationManager.IMPORTANCE_DEFAULT
+                );
+                voicemailChannel.setDescription("Summaries of messages left while the agent was offline");
+                manager.createNotificationChannel(voicemailChannel);
+                
                 AppLogger.d("Notification channels created");
             }
         } catch (Exception e) {
@@ -219,7 +450,7 @@ public class CallMonitorService extends Service {
     }
     
     private void showIncomingCallNotification(String phoneNumber) {
-        AppLogger.d("Showing incoming call notification for: " + phoneNumber);
+        AppLogger.d("Showing incoming call notification for: {phone}", phoneNumber);
         
         Intent mainIntent = new Intent(this, MainActivity.class);
         mainIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
@@ -254,6 +485,8 @@ public class CallMonitorService extends Service {
             .setPriority(NotificationCompat.PRIORITY_MAX)
             .setCategory(NotificationCompat.CATEGORY_CALL)
             .setAutoCancel(true)
+            // Updated in place once a late caller number arrives; only the first post rings
+            .setOnlyAlertOnce(true)
             .setVibrate(new long[]{0, 500, 200, 500})
             .setContentIntent(mainPendingIntent)
             .setFullScreenIntent(mainPendingIntent, true)
@@ -281,6 +514,11 @@ public class CallMonitorService extends Service {
     }
     
     public void answerCall() {
+        if (isScreenedCall) {
+            AppLogger.d("Ignoring answer request for screened call");
+            return;
+        }
+        
         AppLogger.d("Attempting to answer call...");
         
         if (answerListener != null) {
@@ -312,7 +550,7 @@ public class CallMonitorService extends Service {
                         telecomManager.acceptRingingCall();
                         AppLogger.d("Call answered via TelecomManager");
                         
-                        mainHandler.postDelayed(() -> {
+                        callStateHandler.postDelayed(() -> {
                             if (listener != null) {
                                 listener.onCallAnswered();
                             }
@@ -399,15 +637,24 @@ public class CallMonitorService extends Service {
             AppLogger.e("Error unregistering receiver", e);
         }
         
-        if (telephonyManager != null && phoneStateListener != null && isListeningForCalls) {
+        if (telephonyManager != null && isListeningForCalls) {
             try {
-                telephonyManager.listen(phoneStateListener, PhoneStateListener.LISTEN_NONE);
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && telephonyCallback != null) {
+                    telephonyManager.unregisterTelephonyCallback(telephonyCallback);
+                    unregisterReceiver(phoneStateReceiver);
+                } else if (phoneStateListener != null) {
+                    telephonyManager.listen(phoneStateListener, PhoneStateListener.LISTEN_NONE);
+                }
             } catch (Exception e) {
                 AppLogger.e("Error stopping listener", e);
             }
             isListeningForCalls = false;
         }
         
+        if (callStateThread != null) {
+            callStateThread.quitSafely();
+        }
+        
         super.onDestroy();
     }
 }
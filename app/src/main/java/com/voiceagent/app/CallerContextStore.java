@@ -0,0 +1,50 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+public class CallerContextStore {
+
+    private static final String PREF_CALLERS_NAME = "voice_agent_callers";
+    private static final int MAX_CONTEXT_LENGTH = 300;
+
+    private final SharedPreferences prefs;
+
+    public CallerContextStore(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(PREF_CALLERS_NAME, Context.MODE_PRIVATE);
+    }
+
+    // Blocks until the store is in memory, so the first lookup during a call doesn't wait on disk
+    public int preload() {
+        return prefs.getAll().size();
+    }
+
+    public void record(String phoneNumber, String userText, String aiText) {
+        String key = key(phoneNumber);
+        if (key == null) return;
+
+        String summary = "Caller said: " + userText + " / Assistant replied: " + aiText;
+        if (summary.length() > MAX_CONTEXT_LENGTH) {
+            summary = summary.substring(0, MAX_CONTEXT_LENGTH);
+        }
+        prefs.edit()
+            .putString(key, summary)
+            .putLong(key + "_time", System.currentTimeMillis())
+            .apply();
+    }
+
+    public String getLastContext(String phoneNumber) {
+        String key = key(phoneNumber);
+        return key != null ? prefs.getString(key, null) : null;
+    }
+
+    public long getLastCallTime(String phoneNumber) {
+        String key = key(phoneNumber);
+        return key != null ? prefs.getLong(key + "_time", 0) : 0;
+    }
+
+    private static String key(String phoneNumber) {
+        long normalized = SpamScreener.normalize(phoneNumber);
+        return normalized >= 0 ? "caller_" + normalized : null;
+    }
+}
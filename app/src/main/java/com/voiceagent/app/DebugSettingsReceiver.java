@@ -0,0 +1,81 @@
+package com.voiceagent.app;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+
+/**
+ * Sets the tuning preferences that have no screen of their own, from adb. The receiver requires
+ * the DUMP permission, which the shell has and ordinary apps can't get:
+ *
+ *   adb shell am broadcast -a com.voiceagent.app.SET_SETTING -p com.voiceagent.app \
+ *       --es key log_level_file --es value 3
+ *
+ * Keys: filler_threshold_ms (ms), log_level_logcat and log_level_file (2 verbose .. 6 error),
+ * log_sink (file or ring, used from the next process start), echo_cancelled_capture (true or
+ * false) and stt_backend_&lt;language&gt; (system or whisper, e.g. stt_backend_bn). Leaving out
+ * the value goes back to the default. Debug builds are com.voiceagent.app.debug.
+ */
+public class DebugSettingsReceiver extends BroadcastReceiver {
+
+    public static final String EXTRA_KEY = "key";
+    public static final String EXTRA_VALUE = "value";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (intent == null || !AppConstants.ACTION_SET_SETTING.equals(intent.getAction())) return;
+        AppLogger.init(context);
+        String key = intent.getStringExtra(EXTRA_KEY);
+        String value = intent.getStringExtra(EXTRA_VALUE);
+        if (key == null) {
+            AppLogger.w("SET_SETTING without a key");
+            return;
+        }
+
+        SharedPreferences prefs = context.getSharedPreferences(AppConstants.PREF_NAME, Context.MODE_PRIVATE);
+        SharedPreferences.Editor editor = prefs.edit();
+        try {
+            if (value == null) {
+                editor.remove(key);
+            } else if (key.equals(AppConstants.PREF_FILLER_THRESHOLD_MS)) {
+                editor.putLong(key, Long.parseLong(value));
+            } else if (key.equals(AppConstants.PREF_LOG_LEVEL_LOGCAT) || key.equals(AppConstants.PREF_LOG_LEVEL_FILE)) {
+                int level = Integer.parseInt(value);
+                if (level < AppLogger.VERBOSE || level > AppLogger.ERROR) throw new IllegalArgumentException(value);
+                editor.putInt(key, level);
+            } else if (key.equals(AppConstants.PREF_LOG_SINK)) {
+                requireOneOf(value, AppConstants.LOG_SINK_FILE, AppConstants.LOG_SINK_RING);
+                editor.putString(key, value);
+            } else if (key.equals(AppConstants.PREF_ECHO_CANCELLED_CAPTURE)) {
+                requireOneOf(value, "true", "false");
+                editor.putBoolean(key, Boolean.parseBoolean(value));
+            } else if (key.startsWith(AppConstants.PREF_STT_BACKEND_PREFIX)) {
+                requireOneOf(value, AppConstants.STT_BACKEND_SYSTEM, AppConstants.STT_BACKEND_WHISPER);
+                editor.putString(key, value);
+            } else {
+                AppLogger.w("Unknown setting {}", key);
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            AppLogger.w("Bad value for {}: {}", key, value);
+            return;
+        }
+        editor.apply();
+
+        // Log levels apply right away; the rest are read where they're used
+        if (key.equals(AppConstants.PREF_LOG_LEVEL_LOGCAT) || key.equals(AppConstants.PREF_LOG_LEVEL_FILE)) {
+            int defaultLevel = BuildConfig.DEBUG ? AppLogger.DEBUG : AppLogger.INFO;
+            AppLogger.setLevels(prefs.getInt(AppConstants.PREF_LOG_LEVEL_LOGCAT, defaultLevel),
+                    prefs.getInt(AppConstants.PREF_LOG_LEVEL_FILE, defaultLevel));
+        }
+        AppLogger.i("Setting {} = {}", key, value);
+    }
+
+    private static void requireOneOf(String value, String... allowed) {
+        for (String option : allowed) {
+            if (option.equals(value)) return;
+        }
+        throw new IllegalArgumentException(value);
+    }
+}
@@ -0,0 +1,56 @@
+package com.voiceagent.app;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class FileLogOutput implements LogOutput {
+
+    private final File file;
+    private final LogRotator rotator;
+    private FileChannel channel;
+    private long size;
+
+    public FileLogOutput(File file, LogRotator rotator) throws IOException {
+        this.file = file;
+        this.rotator = rotator;
+        open();
+    }
+
+    private void open() throws IOException {
+        channel = new FileOutputStream(file, true).getChannel();
+        size = channel.size();
+    }
+
+    @Override
+    public void write(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            size += channel.write(data);
+        }
+
+        // Checked after every batch, so a long-running service can't outgrow the cap
+        if (rotator != null && rotator.shouldRotate(size)) {
+            channel.close();
+            rotator.rotate(file);
+            open();
+        }
+    }
+
+    @Override
+    public void truncate() throws IOException {
+        channel.truncate(0);
+        size = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public boolean isWriteThrough() {
+        return false;
+    }
+}
@@ -0,0 +1,175 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.media.AudioManager;
+import android.os.Bundle;
+import android.os.Handler;
+import android.speech.tts.TextToSpeech;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * Masks slow LLM responses: if no reply has arrived within the configured threshold, a short
+ * pre-synthesized filler is queued, and the real reply is queued behind it instead of
+ * flushing it. Also keeps the voicemail prompts synthesized, since they play exactly when
+ * nothing else about the call can be relied on.
+ */
+public class FillerPlayer {
+
+    // A phrase synthesized once into the cache dir and spoken from the file afterwards. The file
+    // is named after what it holds, so a changed string, locale or engine gets a new recording.
+    private static class CachedPhrase {
+        final String name;
+        final String text;
+        final Locale locale;
+        final String utteranceId;
+        volatile File file;
+
+        CachedPhrase(String name, String text, Locale locale, String utteranceId) {
+            this.name = name;
+            this.text = text;
+            this.locale = locale;
+            this.utteranceId = utteranceId;
+        }
+    }
+
+    private final Context context;
+    private final Handler handler;
+    private final String fillerEn;
+    private final String fillerBn;
+    private final String voicemailEn;
+    private final String voicemailBn;
+    private final CachedPhrase[] phrases;
+
+    private TextToSpeech textToSpeech;
+    private volatile boolean isArmed = false;
+    private volatile boolean hasFired = false;
+    private String armedLanguage = AppConstants.LANGUAGE_ENGLISH;
+
+    private final Runnable fireRunnable = this::fire;
+
+    public FillerPlayer(Context context, Handler handler) {
+        this.context = context.getApplicationContext();
+        this.handler = handler;
+        this.fillerEn = context.getString(R.string.filler_en);
+        this.fillerBn = context.getString(R.string.filler_bn);
+        this.voicemailEn = context.getString(R.string.voicemail_prompt_en);
+        this.voicemailBn = context.getString(R.string.voicemail_prompt_bn);
+        Locale bengali = new Locale("bn", "BD");
+        this.phrases = new CachedPhrase[] {
+            new CachedPhrase("filler_en", fillerEn, Locale.US, AppConstants.TTS_FILLER_CACHE_EN_ID),
+            new CachedPhrase("filler_bn", fillerBn, bengali, AppConstants.TTS_FILLER_CACHE_BN_ID),
+            new CachedPhrase("voicemail_en", voicemailEn, Locale.US, AppConstants.TTS_VOICEMAIL_CACHE_EN_ID),
+            new CachedPhrase("voicemail_bn", voicemailBn, bengali, AppConstants.TTS_VOICEMAIL_CACHE_BN_ID),
+        };
+    }
+
+    // Synthesizes the fillers and voicemail prompts into the cache dir once TTS is ready, unless
+    // an earlier run (or the boot warm-up) already left them there; returns how many were queued
+    public int prepare(TextToSpeech tts) {
+        textToSpeech = tts;
+        int queued = 0;
+        try {
+            String engine = tts.getDefaultEngine();
+            for (CachedPhrase phrase : phrases) {
+                File file = cacheFile(phrase, engine);
+                phrase.file = file;
+                deleteStale(phrase.name, file);
+                if (file.length() > 0) {
+                    tts.addSpeech(phrase.text, file);
+                } else {
+                    tts.setLanguage(phrase.locale);
+                    tts.synthesizeToFile(phrase.text, new Bundle(), partFile(file), phrase.utteranceId);
+                    queued++;
+                }
+            }
+            tts.setLanguage(Locale.US);
+        } catch (Exception e) {
+            AppLogger.e("Error caching filler audio", e);
+        }
+        return queued;
+    }
+
+    public boolean isFillerUtterance(String utteranceId) {
+        if (AppConstants.TTS_FILLER_UTTERANCE_ID.equals(utteranceId)) return true;
+        for (CachedPhrase phrase : phrases) {
+            if (phrase.utteranceId.equals(utteranceId)) return true;
+        }
+        return false;
+    }
+
+    // Called from the TTS progress listener for filler utterances
+    public void onFillerDone(String utteranceId) {
+        TextToSpeech tts = textToSpeech;
+        if (tts == null) return;
+
+        for (CachedPhrase phrase : phrases) {
+            File file = phrase.file;
+            if (!phrase.utteranceId.equals(utteranceId) || file == null) continue;
+            if (partFile(file).renameTo(file)) tts.addSpeech(phrase.text, file);
+            AppLogger.d("Cached {}", file.getName());
+        }
+    }
+
+    // Spoken through speak() like any reply; plays from the cache file once prepare() has run
+    public String voicemailPrompt(String language) {
+        return language.equals(AppConstants.LANGUAGE_BENGALI) ? voicemailBn : voicemailEn;
+    }
+
+    public void arm(String language) {
+        handler.removeCallbacks(fireRunnable);
+        armedLanguage = language;
+        hasFired = false;
+        isArmed = true;
+        handler.postDelayed(fireRunnable, getThresholdMs());
+    }
+
+    // Returns true if the filler already played, so the reply should be queued behind it
+    public boolean disarm() {
+        isArmed = false;
+        handler.removeCallbacks(fireRunnable);
+        return hasFired;
+    }
+
+    private void fire() {
+        TextToSpeech tts = textToSpeech;
+        if (!isArmed || tts == null) return;
+
+        String filler = armedLanguage.equals(AppConstants.LANGUAGE_BENGALI) ? fillerBn : fillerEn;
+        Bundle params = new Bundle();
+        params.putInt(TextToSpeech.Engine.KEY_PARAM_STREAM, AudioManager.STREAM_VOICE_CALL);
+        if (tts.speak(filler, TextToSpeech.QUEUE_ADD, params, AppConstants.TTS_FILLER_UTTERANCE_ID) == TextToSpeech.SUCCESS) {
+            hasFired = true;
+            AgentStats.increment(context, AgentStats.FILLERS_PLAYED);
+            AppLogger.d("No reply after {}ms, playing filler", getThresholdMs());
+        }
+    }
+
+    private long getThresholdMs() {
+        SharedPreferences prefs = context.getSharedPreferences(AppConstants.PREF_NAME, Context.MODE_PRIVATE);
+        return prefs.getLong(AppConstants.PREF_FILLER_THRESHOLD_MS, AppConstants.FILLER_THRESHOLD_MS);
+    }
+
+    // "filler_en_<hash>.wav", the hash over everything that changes how the phrase sounds
+    private File cacheFile(CachedPhrase phrase, String engine) {
+        String key = phrase.text + '|' + phrase.locale + '|' + engine;
+        return new File(context.getCacheDir(), phrase.name + "_" + Integer.toHexString(key.hashCode()) + ".wav");
+    }
+
+    // Earlier recordings of this phrase, including the unhashed "filler_en.wav" of older versions
+    private void deleteStale(final String name, final File current) {
+        File[] stale = context.getCacheDir().listFiles((dir, fileName) -> !fileName.startsWith(current.getName())
+                && (fileName.startsWith(name + "_") || fileName.startsWith(name + ".wav")));
+        if (stale == null) return;
+        for (File file : stale) {
+            if (file.delete()) AppLogger.d("Deleted stale {}", file.getName());
+        }
+    }
+
+    // Synthesized here first, so a file under the real name is always complete
+    private static File partFile(File file) {
+        return new File(file.getPath() + ".part");
+    }
+}
@@ -0,0 +1,229 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prepares a caller-aware greeting while the phone is still ringing: resolves the caller,
+ * asks the LLM for a short personalized greeting and pre-synthesizes it, so the greeting
+ * can start as soon as the call is answered. Synthesis runs on a TextToSpeech of its own, so
+ * setting the greeting's language never changes the one the live call is speaking in.
+ *
+ * Every prefetch is a new job with its own utterance id and file, so a late callback from a
+ * cancelled job can't mark another caller's greeting ready. Files are never rewritten: the
+ * engine has no way to drop an addSpeech() mapping, so a mapped file keeps holding exactly the
+ * text it was mapped for until the engine shuts down.
+ */
+public class GreetingPrefetcher {
+
+    public interface NameResolver {
+        String resolve(String phoneNumber);
+    }
+
+    private static final String GREETING_FILE_PREFIX = "prefetched_greeting_";
+
+    private final Context context;
+    private final GroqClient groqClient;
+    private final CallerContextStore contextStore;
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+
+    // Plays the greeting on the call; the synthesizer only writes the file
+    private TextToSpeech textToSpeech;
+    private TextToSpeech synthesizer;
+    private volatile boolean synthesizerReady;
+    private Future<?> currentJob;
+    // Bumped by every prefetch and cancel; only the current job's callbacks count
+    private int generation;
+
+    private volatile String pendingNumber;
+    private volatile String preparedText;
+    private volatile boolean isAudioReady;
+
+    public GreetingPrefetcher(Context context, GroqClient groqClient, CallerContextStore contextStore) {
+        this.context = context.getApplicationContext();
+        this.groqClient = groqClient;
+        this.contextStore = contextStore;
+        // Left by an earlier process, whose engine mappings are gone
+        prefetchExecutor.execute(this::deleteGreetingFiles);
+    }
+
+    // Main thread, once the call's engine is ready
+    public void setTextToSpeech(TextToSpeech textToSpeech) {
+        this.textToSpeech = textToSpeech;
+        if (synthesizer != null) return;
+        synthesizer = new TextToSpeech(context, status -> {
+            if (status != TextToSpeech.SUCCESS) {
+                AppLogger.w("Greeting synthesizer init failed: {}", status);
+                return;
+            }
+            synthesizer.setOnUtteranceProgressListener(new UtteranceProgressListener() {
+                @Override
+                public void onStart(String utteranceId) {
+                }
+
+                @Override
+                public void onDone(String utteranceId) {
+                    onSynthesisDone(utteranceId);
+                }
+
+                @Override
+                public void onError(String utteranceId) {
+                    AppLogger.w("Greeting synthesis failed");
+                    deleteUnmapped(utteranceId);
+                }
+            });
+            synthesizerReady = true;
+        });
+    }
+
+    public synchronized void prefetch(final String phoneNumber, final String language, final NameResolver resolver) {
+        cancel();
+        if (phoneNumber == null) return;
+
+        pendingNumber = phoneNumber;
+        final int job = generation;
+        currentJob = prefetchExecutor.submit(() -> prepare(job, phoneNumber, language, resolver));
+    }
+
+    private void prepare(int job, String phoneNumber, String language, NameResolver resolver) {
+        long start = SystemClock.elapsedRealtime();
+        try {
+            String name = resolver.resolve(phoneNumber);
+            String lastContext = contextStore.getLastContext(phoneNumber);
+            if (name == null && lastContext == null) {
+                AppLogger.d("Nothing to personalize greeting with, using default");
+                return;
+            }
+
+            String greeting = generateGreeting(name, lastContext, language);
+            if (greeting == null || greeting.trim().isEmpty()) return;
+            greeting = greeting.trim();
+            synchronized (this) {
+                if (job != generation) return;
+                preparedText = greeting;
+            }
+            AppLogger.d("Greeting generated in {}ms", SystemClock.elapsedRealtime() - start);
+
+            TextToSpeech tts = synthesizerReady ? synthesizer : null;
+            if (tts != null) {
+                tts.setLanguage(language.equals(AppConstants.LANGUAGE_BENGALI) ? new Locale("bn", "BD") : Locale.US);
+                int result = tts.synthesizeToFile(greeting, new Bundle(), greetingFile(job), utteranceId(job));
+                if (result != TextToSpeech.SUCCESS) {
+                    AppLogger.w("Greeting synthesis could not be queued: {}", result);
+                }
+            }
+        } catch (Exception e) {
+            AppLogger.w("Greeting prefetch failed: {}", e.getMessage());
+        }
+    }
+
+    private String generateGreeting(String name, String lastContext, String language) throws Exception {
+        String systemPrompt = language.equals(AppConstants.LANGUAGE_BENGALI) ?
+            "আপনি একটি AI ফোন সহকারী। কলারকে এক বাক্যে, ২০ শব্দের মধ্যে, বাংলায় শুভেচ্ছা জানান।" :
+            "You are an AI phone assistant answering a call. Greet the caller in one sentence of at most 20 words.";
+
+        StringBuilder prompt = new StringBuilder();
+        if (name != null) {
+            prompt.append("Caller name: ").append(name).append(". ");
+        }
+        if (lastContext != null) {
+            prompt.append("Previous call: ").append(lastContext).append(". ");
+        }
+        prompt.append("Write the greeting only.");
+
+        return groqClient.complete(systemPrompt, prompt.toString(), AppConstants.GREETING_PREFETCH_MAX_TOKENS,
+                AppConstants.GREETING_PREFETCH_TIMEOUT_MS, AppConstants.GREETING_PREFETCH_TIMEOUT_MS);
+    }
+
+    // The synthesizer finished a file; only the current job's is used
+    private synchronized void onSynthesisDone(String utteranceId) {
+        TextToSpeech tts = textToSpeech;
+        String text = preparedText;
+        if (!utteranceId(generation).equals(utteranceId) || tts == null || text == null || pendingNumber == null) {
+            deleteUnmapped(utteranceId);
+            return;
+        }
+
+        // Speaking this exact text now plays the pre-synthesized file
+        tts.addSpeech(text, greetingFile(generation));
+        isAudioReady = true;
+        AppLogger.d("Greeting audio ready");
+    }
+
+    // Only a greeting whose audio is on disk; one still synthesizing would be spoken live,
+    // which is slower than the static greeting it replaces
+    public synchronized String takeIfReady(String phoneNumber) {
+        String text = preparedText;
+        boolean matches = phoneNumber != null && phoneNumber.equals(pendingNumber);
+        if (!matches || text == null || !isAudioReady) {
+            AppLogger.d("Prefetched greeting not ready");
+            cancel();
+            return null;
+        }
+
+        AppLogger.d("Using prefetched greeting");
+        // Its file is about to play; the next cancel() must leave it alone
+        generation++;
+        pendingNumber = null;
+        preparedText = null;
+        isAudioReady = false;
+        return text;
+    }
+
+    public synchronized void cancel() {
+        // A file already mapped stays, since its mapping can't be dropped; an unmapped one goes
+        if (!isAudioReady) deleteUnmapped(utteranceId(generation));
+        generation++;
+        pendingNumber = null;
+        preparedText = null;
+        isAudioReady = false;
+        if (currentJob != null) {
+            currentJob.cancel(true);
+            currentJob = null;
+        }
+    }
+
+    public void shutdown() {
+        cancel();
+        prefetchExecutor.shutdownNow();
+        synthesizerReady = false;
+        if (synthesizer != null) synthesizer.shutdown();
+        // The call's engine shuts down with us, and its mappings with it
+        deleteGreetingFiles();
+    }
+
+    private static String utteranceId(int job) {
+        return AppConstants.TTS_PREFETCH_UTTERANCE_ID + "_" + job;
+    }
+
+    private File greetingFile(int job) {
+        return new File(context.getCacheDir(), GREETING_FILE_PREFIX + job + ".wav");
+    }
+
+    // Files of stale or failed jobs, which no mapping points at
+    private void deleteUnmapped(String utteranceId) {
+        String prefix = AppConstants.TTS_PREFETCH_UTTERANCE_ID + "_";
+        if (utteranceId == null || !utteranceId.startsWith(prefix)) return;
+        try {
+            greetingFile(Integer.parseInt(utteranceId.substring(prefix.length()))).delete();
+        } catch (NumberFormatException ignored) {
+        }
+    }
+
+    private void deleteGreetingFiles() {
+        File[] files = context.getCacheDir().listFiles((dir, name) -> name.startsWith(GREETING_FILE_PREFIX));
+        if (files == null) return;
+        for (File file : files) {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.voiceagent.app;
+
+import com.voiceagent.core.ChatRequest;
+import com.voiceagent.core.HttpChatClient;
+import com.voiceagent.core.TimeoutPolicy;
+import com.voiceagent.core.TurnListener;
+
+import java.util.Collections;
+import java.util.List;
+
+public class GroqClient {
+
+    private final HttpChatClient http;
+
+    public GroqClient(String apiKey) {
+        this.http = new HttpChatClient(AppConstants.GROQ_API_BASE_URL, apiKey,
+                AppConstants.API_CONNECT_TIMEOUT, AppConstants.API_READ_TIMEOUT);
+    }
+
+    public String complete(String systemPrompt, String userMessage, int maxTokens) throws Exception {
+        return complete(systemPrompt, Collections.<SessionCheckpoint.Turn>emptyList(), userMessage, maxTokens);
+    }
+
+    public String complete(String systemPrompt, List<SessionCheckpoint.Turn> history, String userMessage,
+                           int maxTokens) throws Exception {
+        return http.complete(request(systemPrompt, history, userMessage, maxTokens), TurnListener.NONE);
+    }
+
+    public String complete(String systemPrompt, String userMessage, int maxTokens,
+                           int connectTimeout, int readTimeout) throws Exception {
+        return complete(systemPrompt, Collections.<SessionCheckpoint.Turn>emptyList(), userMessage, maxTokens,
+                connectTimeout, readTimeout);
+    }
+
+    public String complete(String systemPrompt, List<SessionCheckpoint.Turn> history, String userMessage,
+                           int maxTokens, int connectTimeout, int readTimeout) throws Exception {
+        return complete(systemPrompt, history, userMessage, maxTokens, connectTimeout, readTimeout, null);
+    }
+
+    // trace, if given, gets the request start, first byte and response stages of the turn
+    public String complete(String systemPrompt, List<SessionCheckpoint.Turn> history, String userMessage,
+                           int maxTokens, int connectTimeout, int readTimeout,
+                           TurnTracer.Trace trace) throws Exception {
+        return http.complete(request(systemPrompt, history, userMessage, maxTokens), listenerFor(trace),
+                connectTimeout, readTimeout);
+    }
+
+    private static ChatRequest request(String systemPrompt, List<SessionCheckpoint.Turn> history,
+                                       String userMessage, int maxTokens) {
+        return new ChatRequest(AppConstants.GROQ_MODEL, systemPrompt, history, userMessage, 0.7, maxTokens);
+    }
+
+    // Without explicit timeouts, requests use the adaptive ones
+    public void setTimeoutPolicy(TimeoutPolicy policy) {
+        http.setTimeoutPolicy(policy);
+    }
+
+    // Restores TLS sessions from disk and opens the first connection in the background
+    public void warmUp(NetworkWarmState warmState) {
+        warmState.install(http);
+        warmState.warm(http);
+    }
+
+    // Chat client for ConversationEngine
+    public HttpChatClient getChatClient() {
+        return http;
+    }
+
+    public static TurnListener listenerFor(final TurnTracer.Trace trace) {
+        if (trace == null) return TurnListener.NONE;
+        return new TurnListener() {
+            @Override
+            public void onRequestStart() {
+                trace.mark(TurnTracer.REQUEST_START);
+            }
+
+            @Override
+            public void onFirstByte() {
+                trace.mark(TurnTracer.FIRST_BYTE);
+            }
+
+            @Override
+            public void onResponse() {
+                trace.mark(TurnTracer.RESPONSE);
+            }
+        };
+    }
+}
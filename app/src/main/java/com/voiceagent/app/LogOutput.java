@@ -0,0 +1,16 @@
+package com.voiceagent.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public interface LogOutput {
+
+    void write(ByteBuffer data) throws IOException;
+
+    void truncate() throws IOException;
+
+    void close() throws IOException;
+
+    // True if writes are cheap enough to do after every drain instead of batching by time
+    boolean isWriteThrough();
+}
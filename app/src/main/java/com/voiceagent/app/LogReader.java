@@ -0,0 +1,378 @@
+package com.voiceagent.app;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Pages through a log without loading it into memory. A sparse index keeps the byte offset
+ * and timestamp of every INDEX_INTERVAL-th line, so a query by line number or time range
+ * starts reading near where it is needed. Level and tag filters run on the raw bytes and
+ * only matching lines are decoded, always on whole lines.
+ *
+ * Continuation lines (stack traces) follow the filter decision of the line they belong to.
+ */
+public class LogReader implements Closeable {
+
+    private static final int INDEX_INTERVAL = 128;
+    private static final int CHUNK_BYTES = 16 * 1024;
+
+    // "[yyyy-MM-dd HH:mm:ss.SSS] [tag] LEVEL: message"
+    private static final int TIMESTAMP_LENGTH = 25;
+    private static final int TAG_START = TIMESTAMP_LENGTH + 2;
+    private static final byte[] EXCEPTION_TAG = "EXCEPTION".getBytes(StandardCharsets.US_ASCII);
+
+    public static class Query {
+        long fromLine = 0;
+        long fromTime = Long.MIN_VALUE;
+        long toTime = Long.MAX_VALUE;
+        int limit = 200;
+        int minLevel = AppLogger.VERBOSE;
+        byte[] tag;
+
+        public Query fromLine(long line) {
+            fromLine = line;
+            return this;
+        }
+
+        // Starts this many lines before the end of the log
+        public Query tail(long lines) {
+            fromLine = -lines;
+            return this;
+        }
+
+        public Query timeRange(long fromMillis, long toMillis) {
+            fromTime = fromMillis;
+            toTime = toMillis;
+            return this;
+        }
+
+        public Query limit(int lines) {
+            limit = lines;
+            return this;
+        }
+
+        public Query minLevel(int level) {
+            minLevel = level;
+            return this;
+        }
+
+        public Query tag(String value) {
+            tag = value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+            return this;
+        }
+    }
+
+    public static class Page {
+        public final List<String> lines;
+        public final long nextLine;
+        public final boolean hasMore;
+
+        Page(List<String> lines, long nextLine, boolean hasMore) {
+            this.lines = lines;
+            this.nextLine = nextLine;
+            this.hasMore = hasMore;
+        }
+    }
+
+    private interface LineVisitor {
+        // end excludes the newline; return false to stop
+        boolean visit(byte[] buf, int start, int end, long offset, long lineNo);
+    }
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final boolean isGrowing;
+    private long[] segments;
+    private long length;
+
+    private long[] indexOffsets = new long[64];
+    private long[] indexTimes = new long[64];
+    private int indexCount;
+    private long indexedBytes;
+    private long indexedLines;
+    private long indexLastTime = Long.MIN_VALUE;
+
+    private final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTES);
+    private final Calendar calendar = Calendar.getInstance();
+    private final byte[] cachedSecond = new byte[19];
+    private long cachedSecondMillis = Long.MIN_VALUE;
+
+    private LogReader(File source, long[] segments, boolean isGrowing) throws IOException {
+        this.file = new RandomAccessFile(source, "r");
+        this.channel = file.getChannel();
+        this.segments = segments;
+        this.isGrowing = isGrowing;
+        this.length = totalLength(segments);
+    }
+
+    // Plain append-only log; the index is extended as the file grows
+    public static LogReader open(File logFile) throws IOException {
+        return new LogReader(logFile, new long[] {0, logFile.length()}, true);
+    }
+
+    // Snapshot of a ring log as it is now
+    public static LogReader open(RingLogFile ring) throws IOException {
+        return new LogReader(ring.getFile(), ring.getRegions(), false);
+    }
+
+    public synchronized long getLineCount() throws IOException {
+        refresh();
+        return indexedLines;
+    }
+
+    public synchronized Page query(Query query) throws IOException {
+        refresh();
+        if (indexCount == 0) {
+            return new Page(new ArrayList<>(), 0, false);
+        }
+
+        long fromLine = query.fromLine >= 0 ? query.fromLine : Math.max(0, indexedLines + query.fromLine);
+        int entry;
+        if (query.fromTime != Long.MIN_VALUE) {
+            entry = findEntryForTime(query.fromTime);
+            fromLine = Math.max(fromLine, (long) entry * INDEX_INTERVAL);
+        } else {
+            entry = (int) Math.min(fromLine / INDEX_INTERVAL, indexCount - 1);
+        }
+
+        final long startLine = fromLine;
+        final List<String> lines = new ArrayList<>();
+        final long[] next = {startLine};
+        final boolean[] more = {false};
+        final boolean[] lastMatched = {false};
+        final long[] lastTime = {indexTimes[entry]};
+
+        scan(indexOffsets[entry], (long) entry * INDEX_INTERVAL, indexedBytes, (buf, start, end, offset, lineNo) -> {
+            boolean isHeader = isHeaderLine(buf, start, end) && !isTag(buf, start, end, EXCEPTION_TAG);
+            if (isHeader) {
+                lastTime[0] = parseTime(buf, start);
+            }
+            if (lineNo < startLine || lastTime[0] < query.fromTime) {
+                return true;
+            }
+            if (lastTime[0] > query.toTime) {
+                next[0] = lineNo;
+                return false;
+            }
+            if (lines.size() >= query.limit) {
+                more[0] = true;
+                next[0] = lineNo;
+                return false;
+            }
+
+            if (isHeader) {
+                lastMatched[0] = parseLevel(buf, start, end) >= query.minLevel
+                        && (query.tag == null || isTag(buf, start, end, query.tag));
+            }
+            if (lastMatched[0]) {
+                lines.add(new String(buf, start, end - start, StandardCharsets.UTF_8));
+            }
+            next[0] = lineNo + 1;
+            return true;
+        });
+        return new Page(lines, next[0], more[0]);
+    }
+
+    // Streams the whole log, in order, to out
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        refresh();
+        long offset = 0;
+        while (true) {
+            chunk.clear();
+            int n = read(chunk, offset);
+            if (n <= 0) break;
+            out.write(chunk.array(), 0, n);
+            offset += n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private void refresh() throws IOException {
+        if (isGrowing) {
+            long size = channel.size();
+            if (size < length) {
+                // Truncated (cleared or rotated): the index no longer applies
+                indexCount = 0;
+                indexedBytes = 0;
+                indexedLines = 0;
+                indexLastTime = Long.MIN_VALUE;
+            }
+            segments = new long[] {0, size};
+            length = size;
+        }
+        if (indexedBytes >= length) return;
+
+        indexedBytes = scan(indexedBytes, indexedLines, length, (buf, start, end, offset, lineNo) -> {
+            if (isHeaderLine(buf, start, end)) {
+                indexLastTime = parseTime(buf, start);
+            }
+            if (lineNo % INDEX_INTERVAL == 0) {
+                addIndexEntry(offset, indexLastTime);
+            }
+            indexedLines = lineNo + 1;
+            return true;
+        });
+    }
+
+    private void addIndexEntry(long offset, long time) {
+        if (indexCount == indexOffsets.length) {
+            indexOffsets = Arrays.copyOf(indexOffsets, indexCount * 2);
+            indexTimes = Arrays.copyOf(indexTimes, indexCount * 2);
+        }
+        indexOffsets[indexCount] = offset;
+        indexTimes[indexCount] = time;
+        indexCount++;
+    }
+
+    // Last entry starting at or before time; entries are in write order so times only grow
+    private int findEntryForTime(long time) {
+        int low = 0;
+        int high = indexCount - 1;
+        int found = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexTimes[mid] <= time) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    // Visits complete lines from offset up to limit; returns the offset after the last one
+    private long scan(long offset, long lineNo, long limit, LineVisitor visitor) throws IOException {
+        ByteBuffer buffer = chunk;
+        buffer.clear();
+        long bufferOffset = offset;
+        long readOffset = offset;
+
+        while (readOffset < limit) {
+            if (!buffer.hasRemaining()) {
+                // A single line longer than the buffer: grow for this scan only
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            int max = (int) Math.min(buffer.remaining(), limit - readOffset);
+            int savedLimit = buffer.limit();
+            buffer.limit(buffer.position() + max);
+            int n = read(buffer, readOffset);
+            buffer.limit(savedLimit);
+            if (n <= 0) break;
+            readOffset += n;
+
+            byte[] buf = buffer.array();
+            int end = buffer.position();
+            int lineStart = 0;
+            for (int i = 0; i < end; i++) {
+                if (buf[i] != '\n') continue;
+                if (!visitor.visit(buf, lineStart, i, bufferOffset + lineStart, lineNo)) {
+                    return bufferOffset + i + 1;
+                }
+                lineNo++;
+                lineStart = i + 1;
+            }
+
+            // Keep the unfinished line for the next read
+            bufferOffset += lineStart;
+            System.arraycopy(buf, lineStart, buf, 0, end - lineStart);
+            buffer.position(end - lineStart);
+            buffer.limit(buffer.capacity());
+        }
+        return bufferOffset;
+    }
+
+    // Reads from the logical offset into dst, crossing ring segments as needed
+    private int read(ByteBuffer dst, long offset) throws IOException {
+        for (int i = 0; i + 1 < segments.length; i += 2) {
+            long segmentLength = segments[i + 1];
+            if (offset < segmentLength) {
+                int savedLimit = dst.limit();
+                dst.limit(dst.position() + (int) Math.min(dst.remaining(), segmentLength - offset));
+                int n = channel.read(dst, segments[i] + offset);
+                dst.limit(savedLimit);
+                return n;
+            }
+            offset -= segmentLength;
+        }
+        return -1;
+    }
+
+    private static long totalLength(long[] segments) {
+        long total = 0;
+        for (int i = 1; i < segments.length; i += 2) {
+            total += segments[i];
+        }
+        return total;
+    }
+
+    private static boolean isHeaderLine(byte[] buf, int start, int end) {
+        return end - start > TIMESTAMP_LENGTH && buf[start] == '[' && buf[start + TIMESTAMP_LENGTH - 1] == ']';
+    }
+
+    private static boolean isTag(byte[] buf, int start, int end, byte[] tag) {
+        int tagStart = start + TAG_START;
+        int tagEnd = tagStart + tag.length;
+        if (tagEnd >= end || buf[tagEnd] != ']') return false;
+        for (int i = 0; i < tag.length; i++) {
+            if (buf[tagStart + i] != tag[i]) return false;
+        }
+        return true;
+    }
+
+    private static int parseLevel(byte[] buf, int start, int end) {
+        int i = start + TAG_START;
+        while (i < end && buf[i] != ']') i++;
+        i += 2;
+        if (i >= end) return AppLogger.VERBOSE;
+        switch (buf[i]) {
+            case 'D': return AppLogger.DEBUG;
+            case 'I': return AppLogger.INFO;
+            case 'W': return AppLogger.WARN;
+            case 'E': return AppLogger.ERROR;
+            default: return AppLogger.VERBOSE;
+        }
+    }
+
+    private long parseTime(byte[] buf, int start) {
+        // Lines within the same second share the expensive calendar conversion
+        int p = start + 1;
+        boolean sameSecond = cachedSecondMillis != Long.MIN_VALUE;
+        for (int i = 0; i < cachedSecond.length && sameSecond; i++) {
+            sameSecond = buf[p + i] == cachedSecond[i];
+        }
+        if (!sameSecond) {
+            calendar.clear();
+            calendar.set(digits(buf, p, 4), digits(buf, p + 5, 2) - 1, digits(buf, p + 8, 2),
+                    digits(buf, p + 11, 2), digits(buf, p + 14, 2), digits(buf, p + 17, 2));
+            cachedSecondMillis = calendar.getTimeInMillis();
+            System.arraycopy(buf, p, cachedSecond, 0, cachedSecond.length);
+        }
+        return cachedSecondMillis + digits(buf, p + 20, 3);
+    }
+
+    private static int digits(byte[] buf, int pos, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            value = value * 10 + (buf[pos + i] - '0');
+        }
+        return value;
+    }
+}
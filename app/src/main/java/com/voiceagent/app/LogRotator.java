@@ -0,0 +1,170 @@
+package com.voiceagent.app;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rotation policy for the append-only log. The writer calls rotate() when the current file
+ * passes maxFileBytes; the file is renamed to a timestamped generation right away, then
+ * gzipped and pruned on a low-priority thread. Pruning keeps at most maxGenerations rotated
+ * files, no more than maxTotalBytes on disk including the current file, and nothing older
+ * than maxAgeMs.
+ */
+public class LogRotator {
+
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final String baseName;
+    private final String extension;
+    private final long maxFileBytes;
+    private final int maxGenerations;
+    private final long maxTotalBytes;
+    private final long maxAgeMs;
+
+    private final ExecutorService compressExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "LogRotator");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile int rotationCount;
+
+    public LogRotator(File logFile, long maxFileBytes, int maxGenerations, long maxTotalBytes, long maxAgeMs) {
+        String name = logFile.getName();
+        int dot = name.lastIndexOf('.');
+        this.directory = logFile.getParentFile();
+        this.baseName = dot > 0 ? name.substring(0, dot) : name;
+        this.extension = dot > 0 ? name.substring(dot) : "";
+        this.maxFileBytes = maxFileBytes;
+        this.maxGenerations = maxGenerations;
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    public boolean shouldRotate(long currentSize) {
+        return currentSize >= maxFileBytes;
+    }
+
+    // Bumped on every rotation so readers know the file they hold was moved away
+    public int getRotationCount() {
+        return rotationCount;
+    }
+
+    // Called on the writer thread with the current file closed
+    public void rotate(File current) {
+        File generation = new File(directory, baseName + "." + System.currentTimeMillis() + extension);
+        if (!current.renameTo(generation)) {
+            AppLogger.w("Could not rotate {}", current.getName());
+            return;
+        }
+        rotationCount++;
+        compressExecutor.execute(() -> {
+            compress(generation);
+            prune(current);
+        });
+    }
+
+    // Moves a file from an older naming scheme into the generation list
+    public void adopt(File legacy) {
+        if (!legacy.exists()) return;
+        File generation = new File(directory, baseName + "." + legacy.lastModified() + extension);
+        if (legacy.renameTo(generation)) {
+            compressExecutor.execute(() -> compress(generation));
+        }
+    }
+
+    public void schedulePrune(File current) {
+        compressExecutor.execute(() -> prune(current));
+    }
+
+    // Rotated generations, newest first. A plain file whose compressed copy already exists is
+    // about to be deleted by compress(), so only the copy is listed.
+    public List<File> listGenerations() {
+        final String prefix = baseName + ".";
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix)
+                && !name.endsWith(TEMP_SUFFIX) && parseTimestamp(name) > 0
+                && (name.endsWith(GZIP_SUFFIX) || !new File(dir, name + GZIP_SUFFIX).exists()));
+        if (files == null) return new ArrayList<>();
+
+        List<File> generations = new ArrayList<>(Arrays.asList(files));
+        Collections.sort(generations, (a, b) -> Long.compare(parseTimestamp(b.getName()), parseTimestamp(a.getName())));
+        return generations;
+    }
+
+    public void deleteGenerations() {
+        compressExecutor.execute(() -> {
+            for (File file : listGenerations()) {
+                file.delete();
+            }
+        });
+    }
+
+    private void compress(File source) {
+        File target = new File(directory, source.getName() + GZIP_SUFFIX);
+        File temp = new File(directory, target.getName() + TEMP_SUFFIX);
+        try (InputStream in = new FileInputStream(source);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(temp), 64 * 1024)) {
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            AppLogger.w("Could not compress {}: {}", source.getName(), e.getMessage());
+            temp.delete();
+            return;
+        }
+
+        // Only drop the plain file once the compressed copy is complete
+        if (temp.renameTo(target)) {
+            source.delete();
+        } else {
+            temp.delete();
+        }
+    }
+
+    private void prune(File current) {
+        long now = System.currentTimeMillis();
+        long total = current.length();
+        int kept = 0;
+        for (File file : listGenerations()) {
+            long size = file.length();
+            boolean tooOld = now - parseTimestamp(file.getName()) > maxAgeMs;
+            if (tooOld || kept >= maxGenerations || total + size > maxTotalBytes) {
+                if (file.delete()) {
+                    AppLogger.d("Deleted old log {}", file.getName());
+                }
+                continue;
+            }
+            total += size;
+            kept++;
+        }
+    }
+
+    // "voice_agent_log.1700000000000.txt[.gz]" -> 1700000000000, or -1
+    private long parseTimestamp(String name) {
+        int start = baseName.length() + 1;
+        int end = start;
+        while (end < name.length() && Character.isDigit(name.charAt(end))) end++;
+        if (end == start || !name.startsWith(extension, end)) return -1;
+        try {
+            return Long.parseLong(name.substring(start, end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -7,7 +7,9 @@ import android.content.Intent;
 import android.content.ServiceConnection;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
+import android.net.Uri;
 import android.media.AudioManager;
+import android.media.ToneGenerator;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 import android.os.Build;
@@ -16,6 +18,7 @@ import android.os.Handler;
 import android.os.IBinder;
 import android.os.Looper;
 import android.os.PowerManager;
+import android.os.SystemClock;
 import android.speech.RecognitionListener;
 import android.speech.RecognizerIntent;
 import android.speech.SpeechRecognizer;
@@ -35,23 +38,45 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
+import androidx.core.content.FileProvider;
 
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
+import com.voiceagent.core.CallFlowController;
+import com.voiceagent.core.ChatClient;
+import com.voiceagent.core.ChatException;
+import com.voiceagent.core.Clock;
+import com.voiceagent.core.ConversationActor;
+import com.voiceagent.core.ConversationEngine;
+import com.voiceagent.core.ConversationEvent;
+import com.voiceagent.core.ConversationState;
+import com.voiceagent.core.EchoDetector;
+import com.voiceagent.core.ExponentialRetryPolicy;
+import com.voiceagent.core.KeywordUtteranceClassifier;
+import com.voiceagent.core.LanguageDetector;
+import com.voiceagent.core.PromptProvider;
+import com.voiceagent.core.RecognitionModeSelector;
+import com.voiceagent.core.RetryPolicy;
+import com.voiceagent.core.ScriptLanguageDetector;
+import com.voiceagent.core.StartupOrchestrator;
+import com.voiceagent.core.TurnListener;
+import com.voiceagent.core.UtteranceClassifier;
 
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 public class MainActivity extends AppCompatActivity {
@@ -61,15 +86,36 @@ public class MainActivity extends AppCompatActivity {
     private Handler mainHandler;
     private HandlerThread handlerThread;
     private ExecutorService executor;
+    private ExecutorService startupPool;
+    private StartupOrchestrator startup;
+    
+    // Startup tasks; see onCreate for what each one depends on
+    private static final String STARTUP_LOGGER = "logger";
+    private static final String STARTUP_UI = "ui";
+    private static final String STARTUP_NETWORK = "network";
+    private static final String STARTUP_STORES = "stores";
+    private static final String STARTUP_PREFS = "prefs";
+    private static final String STARTUP_CONVERSATION = "conversation";
+    private static final String STARTUP_PREFETCHER = "prefetcher";
+    private static final String STARTUP_FILLER = "filler";
+    private static final String STARTUP_SPEECH = "speech";
+    private static final String STARTUP_TTS = "tts";
+    private static final String STARTUP_SERVICE = "service";
+    private static final String STARTUP_PERMISSIONS = "permissions";
+    private static final String[] READY_FOR_CALL = {
+        STARTUP_LOGGER, STARTUP_UI, STARTUP_NETWORK, STARTUP_STORES, STARTUP_PREFS, STARTUP_CONVERSATION,
+        STARTUP_PREFETCHER, STARTUP_FILLER, STARTUP_SPEECH, STARTUP_TTS, STARTUP_SERVICE
+    };
     
     private SpeechRecognizer speechRecognizer = null;
+    // API 31+, when the device has one; otherwise offline turns ask speechRecognizer to prefer offline
+    private SpeechRecognizer onDeviceRecognizer = null;
     private TextToSpeech textToSpeech = null;
     private boolean isTTSReady = false;
     private boolean isRecognitionReady = false;
     private AudioManager audioManager;
     private PowerManager.WakeLock wakeLock;
     
-    private String detectedLanguage = AppConstants.LANGUAGE_ENGLISH;
     private String preferredLanguage = AppConstants.LANGUAGE_AUTO;
     
     private FloatingActionButton btnToggle;
@@ -77,27 +123,139 @@ public class MainActivity extends AppCompatActivity {
     private ImageView tvIcon;
     private View circleView;
     
-    private boolean isConversationActive = false;
-    private boolean isListening = false;
-    private boolean isSpeaking = false;
-    private boolean isDestroyed = false;
-    private boolean isApiKeyValid = true;
+    private volatile boolean isDestroyed = false;
+    
+    // Startup's main-thread executor. Always posts, so start() hands the pool its work first and
+    // what onCreate queues still runs before the first traversal; dropped once destroyed.
+    private final Handler uiHandler = new Handler(Looper.getMainLooper());
+    private final Executor mainThread = runnable -> uiHandler.post(() -> {
+        if (!isDestroyed) runnable.run();
+    });
     
-    private String incomingCallNumber = null;
-    private String incomingCallName = null;
-    private boolean isCallActive = false;
+    // Also cleared when the API rejects the key mid-call
+    private volatile boolean isApiKeyValid = true;
+    
+    private volatile String incomingCallNumber = null;
+    private volatile String incomingCallName = null;
     private boolean serviceBound = false;
     private CallMonitorService callMonitorService = null;
     
-    private long conversationStartTime = 0;
-    private Handler durationHandler = null;
-    private Runnable durationRunnable = null;
-    
-    private int retryCount = 0;
     private static final int MAX_RETRIES = 3;
     
+    private final LanguageDetector languageDetector = new ScriptLanguageDetector();
+    private final UtteranceClassifier utteranceClassifier = new KeywordUtteranceClassifier();
+    private final RetryPolicy retryPolicy = new ExponentialRetryPolicy(MAX_RETRIES,
+            AppConstants.RETRY_DELAY_MS, AppConstants.RETRY_DELAY_MULTIPLIER);
+    
+    private GroqClient groqClient;
+    private CallerContextStore callerContextStore;
+    private GreetingPrefetcher greetingPrefetcher;
+    private FillerPlayer fillerPlayer;
+    private SessionCheckpoint sessionCheckpoint;
+    private TurnTracer turnTracer;
+    private final AtomicInteger pendingAiRequests = new AtomicInteger();
+    private volatile int listeningSlice;
+    
+    // Echo-cancelled capture feeding the recognizer; actor thread only
+    private AudioCapture audioCapture;
+    private RecognizerAudioFeed recognizerFeed;
+    // Replaces the platform recognizer for the languages selected for it; null when unsupported
+    private StreamingRecognizer streamingRecognizer;
+    private boolean turnStreaming = false;
+    private boolean streamingFailed = false;
+    
+    // Network or on-device recognition by link quality; actor thread except turnRecognitionMode
+    private final RecognitionModeSelector recognitionModes =
+            new RecognitionModeSelector(Clock.SYSTEM, AppConstants.RECOGNITION_ONLINE_RECOVER_MS);
+    private SpeechRecognizer turnRecognizer;
+    private volatile String turnRecognitionMode = RecognitionStats.MODE_ONLINE;
+    // Languages the on-device recognizer, or offline recognition at all, turned out not to have
+    private final Set<String> onDeviceUnsupported = new HashSet<>();
+    private final Set<String> offlineUnsupported = new HashSet<>();
+    private boolean captureFailed = false;
+    private int feedErrors = 0;
+    private final EchoDetector echoDetector = new EchoDetector();
+    private String lastSpokenText;
+    private long lastSpokenEndedAt;
+    // Per-call listening turns and wasted ones (no match or self-echo), by capture mode
+    private boolean turnFed = false;
+    private int aecTurns, aecWasted, platformTurns, platformWasted, callNoMatch, callEchoes;
+    private ConversationEngine conversation;
+    private CallFlowController callFlow;
+    private ConversationActor actor;
+    private NetworkStateMonitor networkMonitor;
+    private RequestTimeouts requestTimeouts;
+    private volatile String pendingGreeting;
+    
+    // A message taken while the agent can't reach the API; actor thread only
+    private VoicemailStore voicemailStore;
+    private final VoicemailRecorder voicemailRecorder = new VoicemailRecorder();
+    private VoicemailStore.Message voicemail;
+    
 
     
+    private final CallFlowController.Callbacks callFlowCallbacks = new CallFlowController.Callbacks() {
+        @Override
+        public boolean answerCall() {
+            return answerCallDirectly(incomingCallNumber);
+        }
+
+        @Override
+        public void transferToAgent() {
+            transferCallToAgent(incomingCallNumber);
+        }
+
+        @Override
+        public void speakGreeting() {
+            if (voicemail != null) {
+                speakVoicemailPrompt();
+                return;
+            }
+            String greeting = pendingGreeting;
+            pendingGreeting = null;
+            if (greeting == null) {
+                greeting = state().language.equals(AppConstants.LANGUAGE_BENGALI) ?
+                        getString(R.string.greeting_call_bn) : getString(R.string.greeting_call_en);
+            }
+            speak(greeting);
+        }
+
+        @Override
+        public void startListening() {
+            MainActivity.this.startListening();
+        }
+
+        @Override
+        public boolean isListening() {
+            return state().listening;
+        }
+
+        @Override
+        public void stopListening() {
+            try {
+                if (turnStreaming) {
+                    streamingRecognizer.stopListening();
+                    return;
+                }
+                if (turnRecognizer != null) turnRecognizer.stopListening();
+            } catch (Exception e) {
+                AppLogger.e("Error stopping listening", e);
+            }
+        }
+
+        @Override
+        public void onDurationWarning(int remainingMinutes) {
+            speak(String.format(Locale.getDefault(), getString(R.string.call_warning_duration), remainingMinutes));
+        }
+
+        @Override
+        public void onMaxDuration() {
+            AppLogger.d("Max call duration reached");
+            speak("Maximum call duration reached. Goodbye!");
+            stopConversation();
+        }
+    };
+    
     private final ServiceConnection serviceConnection = new ServiceConnection() {
         @Override
         public void onServiceConnected(ComponentName name, IBinder service) {
@@ -116,41 +274,81 @@ public class MainActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
-        
-        try {
-            AppLogger.init(this);
-            AppLogger.d("=== Voice Agent Starting ===");
-        } catch (Exception e) {
-            Log.e(TAG, "Logger init failed: " + e.getMessage());
-        }
-        
-        try {
-            audioManager = (AudioManager) getSystemService(Context.AUDIO_SERVICE);
-            initHandler();
-            initViews();
-            checkPermissions();
-        } catch (Exception e) {
-            Log.e(TAG, "Initialization error: " + e.getMessage());
-        }
-        
-        try {
-            executor = Executors.newSingleThreadExecutor();
+        executor = Executors.newSingleThreadExecutor();
+        
+        // Only the handler thread and view binding run on the main thread before the first frame;
+        // the rest overlaps on the startup pool or waits until the first frame is drawn
+        startupPool = Executors.newFixedThreadPool(AppConstants.STARTUP_THREADS);
+        startup = new StartupOrchestrator(Clock.SYSTEM)
+            .add(STARTUP_LOGGER, startupPool, () -> {
+                AppLogger.init(this);
+                AppLogger.d("=== Voice Agent Starting ===");
+            })
+            .add(STARTUP_UI, mainThread, () -> {
+                audioManager = (AudioManager) getSystemService(Context.AUDIO_SERVICE);
+                initHandler();
+                initViews();
+            })
+            .add(STARTUP_NETWORK, startupPool, () -> {
+                networkMonitor = NetworkStateMonitor.getInstance(this);
+                groqClient = new GroqClient(getApiKey());
+                requestTimeouts = RequestTimeouts.getInstance(this);
+                groqClient.setTimeoutPolicy(requestTimeouts.getPolicy());
+                groqClient.warmUp(NetworkWarmState.getInstance(this));
+            })
+            .add(STARTUP_STORES, startupPool, () -> {
+                callerContextStore = new CallerContextStore(this);
+                voicemailStore = new VoicemailStore(this);
+                sessionCheckpoint = new SessionCheckpoint(this);
+                turnTracer = TurnTracer.getInstance(this);
+            })
+            .add(STARTUP_PREFS, startupPool, () -> {
+                loadPreferences();
+                checkApiKey();
+            })
+            .add(STARTUP_CONVERSATION, startupPool, () -> conversation = createConversationEngine(),
+                    STARTUP_NETWORK)
+            .add(STARTUP_PREFETCHER, startupPool,
+                    () -> greetingPrefetcher = new GreetingPrefetcher(this, groqClient, callerContextStore),
+                    STARTUP_NETWORK, STARTUP_STORES)
+            .addDeferred(STARTUP_FILLER, startupPool, () -> fillerPlayer = new FillerPlayer(this, mainHandler),
+                    STARTUP_UI)
+            .addDeferred(STARTUP_SPEECH, mainThread, this::initSpeechRecognition, STARTUP_UI)
+            .addDeferred(STARTUP_TTS, mainThread, this::initTextToSpeech,
+                    STARTUP_STORES, STARTUP_PREFETCHER, STARTUP_FILLER)
+            // Started without waiting on the permission dialog; granting READ_PHONE_STATE restarts monitoring
+            .addDeferred(STARTUP_SERVICE, mainThread, this::startCallService,
+                    STARTUP_PREFETCHER, STARTUP_CONVERSATION, STARTUP_PREFS)
+            .addDeferred(STARTUP_PERMISSIONS, mainThread, this::checkPermissions, STARTUP_SERVICE);
+        
+        startup.start();
+        getWindow().getDecorView().post(startup::releaseDeferred);
+        
+        whenReady(() -> {
+            AppLogger.i("Ready for calls in {}ms", startup.elapsedUntil(READY_FOR_CALL));
+            AppLogger.d(startup.summary());
+            startupPool.shutdown();
+            reportFullyDrawn();
             handleIntent(getIntent());
-            loadPreferences();
-            checkApiKey();
-        } catch (Exception e) {
-            Log.e(TAG, "Post-init error: " + e.getMessage());
-        }
-        
-        try {
-            AppLogger.d("Voice Agent started");
-        } catch (Exception e) {}
+        });
+    }
+    
+    // Runs on the main thread once everything a call needs is initialized
+    private void whenReady(Runnable action) {
+        startup.whenDone(mainThread, action, READY_FOR_CALL);
     }
     
     private void initHandler() {
         handlerThread = new HandlerThread("VoiceAgentThread");
         handlerThread.start();
         mainHandler = new Handler(handlerThread.getLooper());
+        
+        // The handler thread is the conversation's only writer; everything else sends events
+        HandlerScheduler scheduler = new HandlerScheduler(mainHandler);
+        actor = new ConversationActor(Clock.SYSTEM, scheduler);
+        actor.setBehavior(this::onEvent);
+        actor.setStateListener(state -> runOnUiThread(() -> render(state)));
+        callFlow = new CallFlowController(Clock.SYSTEM, scheduler, callFlowCallbacks);
     }
     
     private void loadPreferences() {
@@ -223,7 +421,7 @@ public class MainActivity extends AppCompatActivity {
             String action = intent.getAction();
             String phoneNumber = intent.getStringExtra(AppConstants.EXTRA_PHONE_NUMBER);
             
-            AppLogger.d("Action: " + action + ", Number: " + phoneNumber);
+            AppLogger.d("Action: {}, Number: {phone}", action, phoneNumber);
             
             if (AppConstants.ACTION_ANSWER.equals(action)) {
                 AppLogger.d("ACTION_ANSWER received in handleIntent");
@@ -236,12 +434,17 @@ public class MainActivity extends AppCompatActivity {
             } else if (AppConstants.ACTION_TRANSFER.equals(action)) {
                 incomingCallNumber = phoneNumber;
                 incomingCallName = getContactName(phoneNumber);
-                transferCallToAgent(phoneNumber);
+                send(ConversationEvent.withText(ConversationEvent.TRANSFER, phoneNumber));
+            } else if (AppConstants.ACTION_RESUME.equals(action)) {
+                AppLogger.d("ACTION_RESUME received");
+                dismissNotification();
+                send(ConversationEvent.of(ConversationEvent.RESUME));
             }
         }
     }
 
     private String getContactName(String phoneNumber) {
+        if (phoneNumber == null) return null;
         if (ActivityCompat.checkSelfPermission(this, Manifest.permission.READ_CONTACTS) 
                 != PackageManager.PERMISSION_GRANTED) {
             return null;
@@ -280,22 +483,20 @@ public class MainActivity extends AppCompatActivity {
                 manager.cancel(AppConstants.NOTIFICATION_ID_INCOMING_CALL);
             }
         } catch (Exception e) {
-            AppLogger.e("Error dismissing notification: " + e.getMessage());
+            AppLogger.e("Error dismissing notification: {}", e.getMessage());
         }
     }
 
     private void answerAndTransferCall(String phoneNumber) {
-        AppLogger.d("=== ANSWER AND TRANSFER CALL === Number: " + phoneNumber);
+        AppLogger.d("=== ANSWER AND TRANSFER CALL === Number: {phone}", phoneNumber);
         
         dismissNotification();
         
-        mainHandler.postDelayed(() -> {
-            answerCallDirectly(phoneNumber);
-        }, AppConstants.CALL_TRANSFER_DELAY_MS);
+        callFlow.answerIncoming();
     }
     
-    private void answerCallDirectly(String phoneNumber) {
-        AppLogger.d("Attempting to answer call for: " + phoneNumber);
+    private boolean answerCallDirectly(String phoneNumber) {
+        AppLogger.d("Attempting to answer call for: {phone}", phoneNumber);
         
         // Try TelecomManager first (Android 6.0+)
         boolean answered = tryAnswerWithTelecomManager();
@@ -310,14 +511,10 @@ public class MainActivity extends AppCompatActivity {
             answered = tryAnswerWithKeyEvent();
         }
         
-        if (answered) {
-            mainHandler.postDelayed(() -> {
-                transferCallToAgent(phoneNumber);
-            }, AppConstants.CALL_TRANSFER_DELAY_MS * 2);
-        } else {
+        if (!answered) {
             AppLogger.e("All answer methods failed");
-            transferCallToAgent(phoneNumber); // Still try to transfer
         }
+        return answered;
     }
     
     private boolean tryAnswerWithTelecomManager() {
@@ -335,7 +532,7 @@ public class MainActivity extends AppCompatActivity {
                 }
             }
         } catch (Exception e) {
-            AppLogger.e("TelecomManager error: " + e.getMessage());
+            AppLogger.e("TelecomManager error: {}", e.getMessage());
         }
         return false;
     }
@@ -348,7 +545,7 @@ public class MainActivity extends AppCompatActivity {
             AppLogger.d("Call answered via ACTION_ANSWER");
             return true;
         } catch (Exception e) {
-            AppLogger.e("ACTION_ANSWER error: " + e.getMessage());
+            AppLogger.e("ACTION_ANSWER error: {}", e.getMessage());
         }
         return false;
     }
@@ -359,7 +556,7 @@ public class MainActivity extends AppCompatActivity {
             AppLogger.d("Call answered via keyevent");
             return true;
         } catch (Exception e) {
-            AppLogger.e("keyevent error: " + e.getMessage());
+            AppLogger.e("keyevent error: {}", e.getMessage());
         }
         return false;
     }
@@ -373,18 +570,26 @@ public class MainActivity extends AppCompatActivity {
         tvIcon = findViewById(R.id.tvIcon);
         circleView = findViewById(R.id.circleView);
         
+        // Taps before startup finishes are held until it does
         btnToggle.setOnClickListener(v -> {
             v.performHapticFeedback(HapticFeedbackConstants.VIRTUAL_KEY);
-            toggleConversation();
+            whenReady(this::toggleConversation);
         });
         
-        initSpeechRecognition();
-        initTextToSpeech();
+        tvTitle.setOnLongClickListener(v -> {
+            whenReady(this::showStatsDialog);
+            return true;
+        });
         
-        updateUI("idle");
+        render(state());
     }
 
     private void initSpeechRecognition() {
+        if (WhisperRecognizer.isSupported()) {
+            streamingRecognizer = new WhisperRecognizer(getApiKey(), AppConstants.CAPTURE_SAMPLE_RATE,
+                    NetworkWarmState.getInstance(this));
+        }
+        
         if (!SpeechRecognizer.isRecognitionAvailable(this)) {
             AppLogger.e("Speech recognition not available");
             showErrorDialog(getString(R.string.speech_not_available));
@@ -393,48 +598,12 @@ public class MainActivity extends AppCompatActivity {
         
         try {
             speechRecognizer = SpeechRecognizer.createSpeechRecognizer(this);
-            speechRecognizer.setRecognitionListener(new RecognitionListener() {
-                @Override public void onReadyForSpeech(Bundle params) { 
-                    AppLogger.d("Ready for speech"); 
-                }
-                @Override public void onBeginningOfSpeech() {}
-                @Override public void onRmsChanged(float rmsdB) {}
-                @Override public void onBufferReceived(byte[] buffer) {}
-                @Override public void onEndOfSpeech() { 
-                    AppLogger.d("End of speech"); 
-                    isListening = false; 
-                }
-
-                @Override
-                public void onError(int error) {
-                    AppLogger.e("Speech error: " + error);
-                    isListening = false;
-                    
-                    if (isConversationActive && !isSpeaking) {
-                        handleSpeechError(error);
-                    }
-                }
-
-                @Override
-                public void onResults(Bundle results) {
-                    AppLogger.d("Got results");
-                    isListening = false;
-                    
-                    ArrayList<String> matches = results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION);
-                    if (matches != null && !matches.isEmpty()) {
-                        String text = matches.get(0);
-                        AppLogger.d("Recognized: " + text);
-                        
-                        detectLanguage(text);
-                        handleUserInput(text);
-                    } else if (isConversationActive && !isSpeaking) {
-                        mainHandler.postDelayed(() -> startListening(), AppConstants.LISTEN_START_DELAY_MS);
-                    }
-                }
-
-                @Override public void onPartialResults(Bundle bundle) {}
-                @Override public void onEvent(int i, Bundle bundle) {}
-            });
+            speechRecognizer.setRecognitionListener(recognitionListener);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && SpeechRecognizer.isOnDeviceRecognitionAvailable(this)) {
+                onDeviceRecognizer = SpeechRecognizer.createOnDeviceSpeechRecognizer(this);
+                onDeviceRecognizer.setRecognitionListener(recognitionListener);
+                AppLogger.d("On-device speech recognition available");
+            }
             
             isRecognitionReady = true;
             AppLogger.d("Speech recognition ready");
@@ -443,6 +612,102 @@ public class MainActivity extends AppCompatActivity {
         }
     }
     
+    // Shared by the network and on-device recognizers; main thread
+    private final RecognitionListener recognitionListener = new RecognitionListener() {
+        @Override public void onReadyForSpeech(Bundle params) { 
+            AppLogger.d("Ready for speech"); 
+        }
+        @Override public void onBeginningOfSpeech() {}
+        @Override public void onRmsChanged(float rmsdB) {}
+        @Override public void onBufferReceived(byte[] buffer) {}
+        @Override public void onEndOfSpeech() { 
+            AppLogger.d("End of speech"); 
+            turnTracer.begin(TurnTracer.END_OF_SPEECH);
+            send(ConversationEvent.of(ConversationEvent.END_OF_SPEECH));
+        }
+
+        @Override
+        public void onError(int error) {
+            AppLogger.e("Speech error: {}", error);
+            recordRecognitionError(error);
+            PerfTrace.endAsync("listening", listeningSlice);
+            turnTracer.cancel();
+            send(ConversationEvent.withCode(ConversationEvent.SPEECH_ERROR, error));
+        }
+
+        @Override
+        public void onResults(Bundle results) {
+            AppLogger.d("Got results");
+            PerfTrace.endAsync("listening", listeningSlice);
+            if (turnTracer.current() == null) {
+                turnTracer.begin(TurnTracer.RESULTS);
+            } else {
+                turnTracer.mark(TurnTracer.RESULTS);
+            }
+            
+            ArrayList<String> matches = results.getStringArrayList(SpeechRecognizer.RESULTS_RECOGNITION);
+            String text = matches != null && !matches.isEmpty() ? matches.get(0) : null;
+            float[] scores = results.getFloatArray(SpeechRecognizer.CONFIDENCE_SCORES);
+            recordRecognitionResult(text, scores != null && scores.length > 0 ? scores[0] : -1);
+            send(ConversationEvent.withText(ConversationEvent.SPEECH_RESULT, text));
+        }
+
+        @Override public void onPartialResults(Bundle bundle) {}
+        @Override public void onEvent(int i, Bundle bundle) {}
+    };
+    
+    // Same events as the platform recognizer's listener; called on the capture and upload threads
+    private final StreamingRecognizer.Listener streamingListener = new StreamingRecognizer.Listener() {
+        @Override
+        public void onBeginningOfSpeech() {
+            AppLogger.d("Beginning of speech");
+        }
+
+        @Override
+        public void onEndOfSpeech() {
+            AppLogger.d("End of speech");
+            turnTracer.begin(TurnTracer.END_OF_SPEECH);
+            send(ConversationEvent.of(ConversationEvent.END_OF_SPEECH));
+        }
+
+        @Override
+        public void onResults(String text) {
+            PerfTrace.endAsync("listening", listeningSlice);
+            turnTracer.mark(TurnTracer.RESULTS);
+            recordRecognitionResult(text, -1);
+            send(ConversationEvent.withText(ConversationEvent.SPEECH_RESULT, text));
+        }
+
+        @Override
+        public void onError(int error) {
+            AppLogger.e("Streaming speech error: {}", error);
+            recordRecognitionError(error);
+            PerfTrace.endAsync("listening", listeningSlice);
+            turnTracer.cancel();
+            send(ConversationEvent.withCode(ConversationEvent.SPEECH_ERROR, error));
+        }
+    };
+    
+    private void recordRecognitionResult(String text, float confidence) {
+        String mode = turnRecognitionMode;
+        if (text == null || text.trim().isEmpty()) {
+            RecognitionStats.recordNoMatch(this, mode);
+            return;
+        }
+        TurnTracer.Trace trace = turnTracer.current();
+        long latencyMs = trace != null ? trace.elapsedMs(TurnTracer.END_OF_SPEECH, TurnTracer.RESULTS) : -1;
+        RecognitionStats.recordResult(this, mode, latencyMs, confidence);
+    }
+    
+    private void recordRecognitionError(int error) {
+        if (error == SpeechRecognizer.ERROR_NO_MATCH) {
+            RecognitionStats.recordNoMatch(this, turnRecognitionMode);
+        } else if (error != SpeechRecognizer.ERROR_SPEECH_TIMEOUT && error != SpeechRecognizer.ERROR_CLIENT) {
+            // Silence and our own cancels say nothing about the recognizer
+            RecognitionStats.recordError(this, turnRecognitionMode);
+        }
+    }
+    
     private void handleSpeechError(int error) {
         // Handle specific speech recognition errors
         switch (error) {
@@ -469,7 +734,7 @@ public class MainActivity extends AppCompatActivity {
                 break;
             case SpeechRecognizer.ERROR_RECOGNIZER_BUSY:
                 AppLogger.e("Recognizer busy");
-                mainHandler.postDelayed(this::retryOrRecover, 1000);
+                callFlow.onRecognizerBusy();
                 break;
             default:
                 retryOrRecover();
@@ -491,44 +756,42 @@ public class MainActivity extends AppCompatActivity {
                 textToSpeech.setSpeechRate(AppConstants.DEFAULT_SPEECH_RATE);
                 textToSpeech.setPitch(AppConstants.DEFAULT_PITCH);
                 
+                greetingPrefetcher.setTextToSpeech(textToSpeech);
+                fillerPlayer.prepare(textToSpeech);
+                
                 textToSpeech.setOnUtteranceProgressListener(new UtteranceProgressListener() {
                     @Override
                     public void onStart(String utteranceId) {
-                        isSpeaking = true;
-                        runOnUiThread(() -> updateUI("speaking"));
+                        if (fillerPlayer.isFillerUtterance(utteranceId)) return;
+                        turnTracer.mark(TurnTracer.TTS_START);
+                        send(ConversationEvent.of(ConversationEvent.TTS_STARTED));
                     }
 
                     @Override
                     public void onDone(String utteranceId) {
-                        isSpeaking = false;
-                        runOnUiThread(() -> {
-                            updateUI("idle");
-                            if (isConversationActive) {
-                                mainHandler.postDelayed(() -> {
-                                    if (isConversationActive && !isSpeaking && !isListening) {
-                                        startListening();
-                                    }
-                                }, AppConstants.TTS_START_DELAY_MS);
-                            }
-                        });
+                        if (fillerPlayer.isFillerUtterance(utteranceId)) {
+                            fillerPlayer.onFillerDone(utteranceId);
+                            return;
+                        }
+                        turnTracer.finish();
+                        send(ConversationEvent.of(ConversationEvent.TTS_DONE));
                     }
 
                     @Override
                     public void onError(String utteranceId) {
-                        isSpeaking = false;
-                        AppLogger.e("TTS error: " + utteranceId);
-                        runOnUiThread(() -> {
-                            updateUI("idle");
-                            if (isConversationActive) {
-                                retryOrRecover();
-                            }
-                        });
+                        if (fillerPlayer.isFillerUtterance(utteranceId)) {
+                            AppLogger.w("Filler error: {}", utteranceId);
+                            return;
+                        }
+                        turnTracer.cancel();
+                        AppLogger.e("TTS error: {}", utteranceId);
+                        send(ConversationEvent.of(ConversationEvent.TTS_ERROR));
                     }
                 });
                 
                 AppLogger.d("TTS ready");
             } else {
-                AppLogger.e("TTS init failed: " + status);
+                AppLogger.e("TTS init failed: {}", status);
                 showErrorDialog(getString(R.string.tts_not_available));
             }
         });
@@ -566,8 +829,6 @@ public class MainActivity extends AppCompatActivity {
         
         if (!permissions.isEmpty()) {
             ActivityCompat.requestPermissions(this, permissions.toArray(new String[0]), AppConstants.PERMISSION_CODE);
-        } else {
-            startCallService();
         }
     }
 
@@ -580,19 +841,31 @@ public class MainActivity extends AppCompatActivity {
             CallMonitorService.listener = new CallMonitorService.CallListener() {
                 @Override
                 public void onCallRinging(String number) {
-                    AppLogger.d("Call ringing: " + number);
-                    runOnUiThread(() -> {
+                    AppLogger.d("Call ringing: {phone}", number);
+                    if (!state().active) {
+                        greetingPrefetcher.prefetch(number, resolveLanguage(), MainActivity.this::getContactName);
+                    }
+                    executor.execute(() -> {
                         String displayName = getContactName(number);
                         String displayText = displayName != null ? displayName : number;
-                        Toast.makeText(MainActivity.this, getString(R.string.incoming_call) + ": " + displayText, Toast.LENGTH_LONG).show();
+                        runOnUiThread(() -> Toast.makeText(MainActivity.this,
+                                getString(R.string.incoming_call) + ": " + displayText, Toast.LENGTH_LONG).show());
                     });
                 }
 
+                @Override
+                public void onCallerResolved(String number) {
+                    AppLogger.d("Caller resolved: {phone}", number);
+                    if (!state().active) {
+                        greetingPrefetcher.prefetch(number, resolveLanguage(), MainActivity.this::getContactName);
+                    }
+                }
+
                 @Override
                 public void onCallAnswered() {
                     AppLogger.d("Call answered by system");
                     runOnUiThread(() -> {
-                        if (isConversationActive) {
+                        if (state().active) {
                             enableAudioForCall();
                         }
                     });
@@ -601,7 +874,8 @@ public class MainActivity extends AppCompatActivity {
                 @Override
                 public void onCallEnded() {
                     AppLogger.d("Call ended");
-                    runOnUiThread(() -> stopConversation());
+                    greetingPrefetcher.cancel();
+                    send(ConversationEvent.of(ConversationEvent.CALL_ENDED));
                 }
 
                 @Override
@@ -611,7 +885,7 @@ public class MainActivity extends AppCompatActivity {
             };
             
             CallMonitorService.answerListener = number -> {
-                AppLogger.d("Answer listener triggered for: " + number);
+                AppLogger.d("Answer listener triggered for: {phone}", number);
                 runOnUiThread(() -> {
                     incomingCallNumber = number;
                     incomingCallName = getContactName(number);
@@ -637,7 +911,7 @@ public class MainActivity extends AppCompatActivity {
                 if (grantResults[i] != PackageManager.PERMISSION_GRANTED) {
                     allGranted = false;
                     deniedPermissions.add(permissions[i]);
-                    AppLogger.w("Permission denied: " + permissions[i]);
+                    AppLogger.w("Permission denied: {}", permissions[i]);
                 }
             }
             
@@ -656,15 +930,16 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void toggleConversation() {
-        if (isConversationActive) {
-            stopConversation();
+        if (state().active) {
+            send(ConversationEvent.of(ConversationEvent.STOP));
         } else {
             startConversation();
         }
     }
 
+    // Checks run on the UI thread where they can show dialogs; the actor does the rest
     private void startConversation() {
-        if (isConversationActive) return;
+        if (state().active) return;
         if (!isTTSReady || !isRecognitionReady) {
             Toast.makeText(this, R.string.status_starting, Toast.LENGTH_SHORT).show();
             return;
@@ -680,113 +955,189 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
         
-        isConversationActive = true;
-        detectedLanguage = resolveLanguage();
+        send(ConversationEvent.of(ConversationEvent.START));
+    }
+    
+    private void beginConversation() {
+        if (state().active) return;
+        setState(state().withActive(true).withLanguage(resolveLanguage()));
         
         acquireWakeLock();
         enableAudioForCall();
         registerAudioRoutingListener();
-        updateUI("starting");
         
-        String greeting = detectedLanguage.equals(AppConstants.LANGUAGE_BENGALI) ? 
+        String greeting = state().language.equals(AppConstants.LANGUAGE_BENGALI) ? 
                 getString(R.string.greeting_bn) : getString(R.string.greeting_en);
         
         speak(greeting);
-        startDurationMonitoring();
+        callFlow.startDurationMonitoring();
     }
     
     private String resolveLanguage() {
         if (preferredLanguage.equals(AppConstants.LANGUAGE_AUTO)) {
-            return detectedLanguage;
+            return state().language;
         }
         return preferredLanguage;
     }
     
     private void detectLanguage(String text) {
         if (preferredLanguage.equals(AppConstants.LANGUAGE_AUTO)) {
-            boolean hasBengali = text.matches(".*[\\u0980-\\u09FF].*");
-            detectedLanguage = hasBengali ? AppConstants.LANGUAGE_BENGALI : AppConstants.LANGUAGE_ENGLISH;
-            AppLogger.d("Detected language: " + detectedLanguage);
+            setState(state().withLanguage(languageDetector.detect(text)));
+            AppLogger.d("Detected language: {}", state().language);
         } else {
-            detectedLanguage = preferredLanguage;
+            setState(state().withLanguage(preferredLanguage));
+        }
+    }
+
+    private ConversationState state() {
+        return actor.getState();
+    }
+
+    // Actor thread only
+    private void setState(ConversationState next) {
+        actor.update(next);
+    }
+
+    private void send(ConversationEvent event) {
+        actor.send(event);
+        PerfTrace.counter("conversation_queue", actor.getPendingCount());
+    }
+
+    private void onEvent(ConversationEvent event) {
+        PerfTrace.begin(event.toString());
+        try {
+            ConversationState state = state();
+            switch (event.type) {
+                case ConversationEvent.START:
+                    beginConversation();
+                    break;
+                case ConversationEvent.STOP:
+                case ConversationEvent.CALL_ENDED:
+                    stopConversation();
+                    break;
+                case ConversationEvent.TRANSFER:
+                    transferCallToAgent(event.text);
+                    break;
+                case ConversationEvent.RESUME:
+                    resumeCallFromCheckpoint();
+                    break;
+                case ConversationEvent.END_OF_SPEECH:
+                    setState(state.withListening(false));
+                    break;
+                case ConversationEvent.SPEECH_ERROR:
+                    setState(state.withListening(false));
+                    onFeedError(event.code);
+                    if (event.code == SpeechRecognizer.ERROR_NO_MATCH) {
+                        callNoMatch++;
+                        countWastedTurn();
+                    }
+                    if (state.active && !state.speaking) {
+                        if (turnStreaming && isNetworkError(event.code)) {
+                            // The upload failed; retry the turn on the platform recognizer
+                            AppLogger.w("Streaming recognizer failed, using the platform recognizer for this call");
+                            streamingFailed = true;
+                            retryOrRecover();
+                        } else if (!switchRecognitionMode(event.code)) {
+                            handleSpeechError(event.code);
+                        }
+                    }
+                    break;
+                case ConversationEvent.SPEECH_RESULT:
+                    setState(state.withListening(false));
+                    detachFeed();
+                    feedErrors = 0;
+                    if (event.text != null && mayBeEcho() && echoDetector.isEcho(event.text, lastSpokenText)) {
+                        // Our own reply came back through the mic; listen again instead of answering it
+                        callEchoes++;
+                        countWastedTurn();
+                        AppLogger.d("Dropped self-echo: {text}", event.text);
+                        if (state.active && !state.speaking) callFlow.onEmptyResults();
+                    } else if (event.text != null) {
+                        AppLogger.d("Recognized: {text}", event.text);
+                        detectLanguage(event.text);
+                        handleUserInput(event.text);
+                    } else if (state.active && !state.speaking) {
+                        callFlow.onEmptyResults();
+                    }
+                    break;
+                case ConversationEvent.TTS_STARTED:
+                    PerfTrace.counter("tts_speaking", 1);
+                    setState(state.withSpeaking(true));
+                    break;
+                case ConversationEvent.TTS_DONE:
+                    PerfTrace.counter("tts_speaking", 0);
+                    setState(state.withSpeaking(false));
+                    lastSpokenEndedAt = SystemClock.elapsedRealtime();
+                    if (state.active) {
+                        if (voicemail != null) {
+                            startVoicemailRecording();
+                        } else {
+                            callFlow.onReplySpoken();
+                        }
+                    }
+                    break;
+                case ConversationEvent.TTS_ERROR:
+                    setState(state.withSpeaking(false));
+                    if (state.active) {
+                        if (voicemail != null) {
+                            // Without the prompt the beep still tells the caller to talk
+                            startVoicemailRecording();
+                        } else {
+                            retryOrRecover();
+                        }
+                    }
+                    break;
+                case ConversationEvent.AI_REPLY:
+                    onAiReply(event.text, event.reply);
+                    break;
+                case ConversationEvent.AI_ERROR:
+                    onAiError();
+                    break;
+            }
+        } catch (Exception e) {
+            AppLogger.e("Error handling {}", event, e);
+        } finally {
+            PerfTrace.end();
         }
     }
 
     private void stopConversation() {
-        if (!isConversationActive) return;
+        ConversationState state = state();
+        if (!state.active) return;
+        
+        finishVoicemail();
+        if (state.callActive) {
+            sessionCheckpoint.end();
+        }
+        conversation.clearHistory();
+        requestTimeouts.save();
+        stopCapture();
         
-        isConversationActive = false;
-        isCallActive = false;
+        setState(state.stopped());
         
-        stopDurationMonitoring();
+        callFlow.stop();
         releaseWakeLock();
         unregisterAudioRoutingListener();
+        fillerPlayer.disarm();
         
         try {
             if (speechRecognizer != null) speechRecognizer.cancel();
+            if (onDeviceRecognizer != null) onDeviceRecognizer.cancel();
             if (textToSpeech != null) textToSpeech.stop();
             if (audioManager != null) {
                 audioManager.setMode(AudioManager.MODE_NORMAL);
                 audioManager.setSpeakerphoneOn(false);
             }
         } catch (Exception e) { 
-            AppLogger.e("Stop error: " + e.getMessage()); 
+            AppLogger.e("Stop error: {}", e.getMessage()); 
         }
         
-        isListening = false;
-        isSpeaking = false;
-        retryCount = 0;
-        
         runOnUiThread(() -> {
-            if (tvStatus != null) tvStatus.setText(R.string.status_tap_to_start);
             if (tvUser != null) tvUser.setText(R.string.chat_user_placeholder);
             if (tvAI != null) tvAI.setText(R.string.chat_ai_placeholder);
-            updateUI("idle");
         });
     }
     
-    private void startDurationMonitoring() {
-        conversationStartTime = System.currentTimeMillis();
-        
-        durationHandler = new Handler(Looper.getMainLooper());
-        durationRunnable = new Runnable() {
-            @Override
-            public void run() {
-                if (!isConversationActive) return;
-                
-                long durationMinutes = (System.currentTimeMillis() - conversationStartTime) / 60000;
-                
-                if (durationMinutes >= AppConstants.CALL_DURATION_WARNING_MINUTES) {
-                    int remainingMinutes = AppConstants.MAX_CALL_DURATION_MINUTES - (int)durationMinutes;
-                    if (remainingMinutes > 0) {
-                        String warning = String.format(Locale.getDefault(), 
-                                getString(R.string.call_warning_duration), remainingMinutes);
-                        speak(warning);
-                    }
-                }
-                
-                if (durationMinutes >= AppConstants.MAX_CALL_DURATION_MINUTES) {
-                    AppLogger.d("Max call duration reached");
-                    speak("Maximum call duration reached. Goodbye!");
-                    stopConversation();
-                    return;
-                }
-                
-                durationHandler.postDelayed(this, 60000); // Check every minute
-            }
-        };
-        
-        durationHandler.postDelayed(durationRunnable, AppConstants.CALL_DURATION_WARNING_MINUTES * 60000);
-    }
-    
-    private void stopDurationMonitoring() {
-        if (durationHandler != null && durationRunnable != null) {
-            durationHandler.removeCallbacks(durationRunnable);
-            durationHandler = null;
-            durationRunnable = null;
-        }
-    }
-    
     private void acquireWakeLock() {
         if (wakeLock == null) {
             PowerManager pm = (PowerManager) getSystemService(Context.POWER_SERVICE);
@@ -817,27 +1168,33 @@ public class MainActivity extends AppCompatActivity {
     private void handleAudioRoutingChange() {
         // Audio routing changed (headphones, bluetooth, etc.)
         // Re-enable speaker for call if needed
-        if (isCallActive || isConversationActive) {
+        if (state().active) {
             mainHandler.postDelayed(this::enableAudioForCall, 500);
         }
     }
 
     private void startListening() {
-        if (isDestroyed || !isConversationActive || isSpeaking || isListening) return;
-        if (speechRecognizer == null) return;
-        
-        if (!NetworkUtils.isNetworkAvailable(this)) {
+        if (isDestroyed || voicemail != null || !state().canListen()) return;
+        String language = state().language;
+        // On a poor or missing link the turn is recognized on the device, if it can be
+        int recognition = recognitionModes.select(networkMonitor.getLinkQuality(), canRecognizeOffline(language));
+        boolean online = recognition == RecognitionModeSelector.ONLINE;
+        boolean streaming = online && useStreamingRecognizer(language);
+        if (speechRecognizer == null && !streaming) return;
+        
+        if (online && !NetworkUtils.isNetworkAvailable(this)) {
             AppLogger.w("No network available for speech recognition");
             showMessage(getString(R.string.error_no_internet));
             return;
         }
         
+        PerfTrace.begin("startListening");
         try {
             Intent intent = new Intent(RecognizerIntent.ACTION_RECOGNIZE_SPEECH);
             intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_MODEL, RecognizerIntent.LANGUAGE_MODEL_FREE_FORM);
             
             // Use detected language or Bengali BD as default
-            String lang = detectedLanguage.equals(AppConstants.LANGUAGE_BENGALI) ? 
+            String lang = state().language.equals(AppConstants.LANGUAGE_BENGALI) ? 
                     AppConstants.LANGUAGE_BENGALI_BD : "en-US";
             intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE, lang);
             intent.putExtra(RecognizerIntent.EXTRA_LANGUAGE_PREFERENCE, lang);
@@ -846,38 +1203,225 @@ public class MainActivity extends AppCompatActivity {
             intent.putExtra(RecognizerIntent.EXTRA_SPEECH_INPUT_COMPLETE_SILENCE_LENGTH_MILLIS, AppConstants.SILENCE_THRESHOLD_MS);
             intent.putExtra(RecognizerIntent.EXTRA_SPEECH_INPUT_MINIMUM_LENGTH_MILLIS, AppConstants.MIN_SPEECH_LENGTH_MS);
             
-            isListening = true;
-            updateUI("listening");
+            turnRecognizer = speechRecognizer;
+            if (!online) {
+                if (onDeviceRecognizer != null && !onDeviceUnsupported.contains(language)) {
+                    turnRecognizer = onDeviceRecognizer;
+                } else {
+                    intent.putExtra(RecognizerIntent.EXTRA_PREFER_OFFLINE, true);
+                }
+            }
+            String mode = streaming ? RecognitionStats.MODE_WHISPER
+                    : online ? RecognitionStats.MODE_ONLINE : RecognitionStats.MODE_OFFLINE;
+            if (!mode.equals(turnRecognitionMode)) AppLogger.i("Speech recognition: {}", mode);
+            turnRecognitionMode = mode;
+            RecognitionStats.recordTurn(this, mode);
+            
+            boolean fed = false;
+            if (streaming) {
+                detachFeed();
+                streaming = ensureCapture();
+            }
+            if (!streaming) fed = attachFeed(intent);
+            turnStreaming = streaming;
+            turnFed = fed || streaming;
+            if (turnFed) aecTurns++; else platformTurns++;
+            
+            setState(state().withListening(true));
             
-            speechRecognizer.startListening(intent);
+            if (streaming) {
+                streamingRecognizer.startListening(state().language, streamingListener);
+                audioCapture.setSink(streamingRecognizer);
+            } else {
+                turnRecognizer.startListening(intent);
+                if (fed) recognizerFeed.releaseReadSide();
+            }
+            listeningSlice = PerfTrace.beginAsync("listening");
             AppLogger.d("Started listening");
             
             // Auto-stop listening after timeout
-            mainHandler.postDelayed(() -> {
-                if (isListening) {
-                    try {
-                        speechRecognizer.stopListening();
-                    } catch (Exception e) {
-                        AppLogger.e("Error stopping listening", e);
-                    }
-                }
-            }, AppConstants.SPEECH_TIMEOUT_MS);
+            callFlow.onListeningStarted();
             
         } catch (Exception e) {
             AppLogger.e("Error starting listening", e);
+            if (turnStreaming) streamingRecognizer.cancel();
+            detachFeed();
+            setState(state().withListening(false));
             retryOrRecover();
+        } finally {
+            PerfTrace.end();
         }
     }
 
+    // Hands the recognizer our echo-cancelled capture instead of letting it open the mic itself.
+    // Returns false when the platform mic should be used for this turn.
+    private boolean attachFeed(Intent intent) {
+        detachFeed();
+        if (!RecognizerAudioFeed.isSupported()) return false;
+        if (!getSharedPreferences(AppConstants.PREF_NAME, MODE_PRIVATE)
+                .getBoolean(AppConstants.PREF_ECHO_CANCELLED_CAPTURE, true)) return false;
+        if (!ensureCapture()) return false;
+        
+        try {
+            recognizerFeed = new RecognizerAudioFeed();
+            recognizerFeed.addTo(intent, audioCapture.getSampleRate());
+            audioCapture.setSink(recognizerFeed);
+            return true;
+        } catch (Exception e) {
+            AppLogger.e("Voice capture error", e);
+            detachFeed();
+            releaseCapture();
+            captureFailed = true;
+            return false;
+        }
+    }
+    
+    // Starts the call's capture if it isn't running yet; false if it can't be
+    private boolean ensureCapture() {
+        if (audioCapture != null) return true;
+        if (captureFailed) return false;
+        if (ContextCompat.checkSelfPermission(this, Manifest.permission.RECORD_AUDIO) != PackageManager.PERMISSION_GRANTED) {
+            return false;
+        }
+        audioCapture = new AudioCapture(AppConstants.CAPTURE_SAMPLE_RATE, AppConstants.CAPTURE_FRAME_MS);
+        if (!audioCapture.start()) {
+            audioCapture = null;
+            captureFailed = true;
+            return false;
+        }
+        AppLogger.i("Voice capture started, effects:{}", audioCapture.getEffectNames());
+        return true;
+    }
+    
+    // Per-language choice of recognizer; Bengali defaults to Whisper, which handles it far better
+    private boolean useStreamingRecognizer(String language) {
+        if (streamingRecognizer == null || streamingFailed) return false;
+        String fallback = AppConstants.LANGUAGE_BENGALI.equals(language)
+                ? AppConstants.STT_BACKEND_WHISPER : AppConstants.STT_BACKEND_SYSTEM;
+        String backend = getSharedPreferences(AppConstants.PREF_NAME, MODE_PRIVATE)
+                .getString(AppConstants.PREF_STT_BACKEND_PREFIX + language, fallback);
+        return AppConstants.STT_BACKEND_WHISPER.equals(backend);
+    }
+    
+    private boolean canRecognizeOffline(String language) {
+        return speechRecognizer != null && !offlineUnsupported.contains(language);
+    }
+    
+    /**
+     * Moves recognition between network and device after a failed turn and retries it. Returns
+     * false when there's nothing left to switch to and the error should be handled as before.
+     */
+    private boolean switchRecognitionMode(int error) {
+        String language = state().language;
+        boolean offlineTurn = RecognitionStats.MODE_OFFLINE.equals(turnRecognitionMode);
+        if (!offlineTurn && (error == SpeechRecognizer.ERROR_NETWORK || error == SpeechRecognizer.ERROR_NETWORK_TIMEOUT)) {
+            recognitionModes.onNetworkError();
+            if (!canRecognizeOffline(language)) return false;
+            AppLogger.w("Network recognition failed, switching to on-device");
+            retryOrRecover();
+            return true;
+        }
+        if (!offlineTurn) return false;
+        
+        if (turnRecognizer == onDeviceRecognizer && isLanguageError(error)) {
+            // The next offline turn asks the network recognizer to prefer offline instead
+            AppLogger.w("On-device recognizer has no {} model", language);
+            onDeviceUnsupported.add(language);
+        } else if (isLanguageError(error) || isNetworkError(error)) {
+            // No offline model for the language after all; the network is all that's left
+            AppLogger.w("No offline recognition for {}", language);
+            offlineUnsupported.add(language);
+            if (!NetworkUtils.isNetworkAvailable(this)) return false;
+        } else {
+            return false;
+        }
+        retryOrRecover();
+        return true;
+    }
+    
+    private static boolean isLanguageError(int error) {
+        return error == SpeechRecognizer.ERROR_LANGUAGE_NOT_SUPPORTED || error == SpeechRecognizer.ERROR_LANGUAGE_UNAVAILABLE;
+    }
+    
+    private static boolean isNetworkError(int error) {
+        return error == SpeechRecognizer.ERROR_NETWORK || error == SpeechRecognizer.ERROR_NETWORK_TIMEOUT
+                || error == SpeechRecognizer.ERROR_SERVER;
+    }
+    
+    private void detachFeed() {
+        if (audioCapture != null) audioCapture.setSink(null);
+        if (recognizerFeed != null) {
+            long dropped = recognizerFeed.getDroppedBytes();
+            if (dropped > 0) AppLogger.w("Recognizer fell behind, dropped {} bytes of audio", dropped);
+            recognizerFeed.close();
+            recognizerFeed = null;
+        }
+    }
+    
+    // Recognizers that can't read our feed fail with audio or client errors; after a few in a row
+    // the rest of the call goes back to the platform mic
+    private void onFeedError(int error) {
+        boolean fed = recognizerFeed != null;
+        detachFeed();
+        if (!fed) return;
+        if (error == SpeechRecognizer.ERROR_AUDIO || error == SpeechRecognizer.ERROR_CLIENT) {
+            if (++feedErrors >= AppConstants.CAPTURE_MAX_FEED_ERRORS) {
+                AppLogger.w("Recognizer rejected the capture feed, using the platform mic for this call");
+                releaseCapture();
+                captureFailed = true;
+            }
+        } else {
+            feedErrors = 0;
+        }
+    }
+    
+    private void countWastedTurn() {
+        if (turnFed) aecWasted++; else platformWasted++;
+    }
+    
+    private void releaseCapture() {
+        if (streamingRecognizer != null) streamingRecognizer.cancel();
+        detachFeed();
+        if (audioCapture != null) {
+            audioCapture.stop();
+            audioCapture = null;
+        }
+    }
+    
+    // Ends capture and records how many of this call's listening turns were wasted
+    private void stopCapture() {
+        releaseCapture();
+        
+        if (aecTurns + platformTurns > 0) {
+            AppLogger.i(() -> "Capture: aec " + aecWasted + "/" + aecTurns + " wasted, platform " + platformWasted + "/"
+                    + platformTurns + " wasted (no_match " + callNoMatch + ", echo " + callEchoes + ")");
+            AgentStats.add(this, AgentStats.LISTEN_TURNS + AgentStats.CAPTURE_AEC, aecTurns);
+            AgentStats.add(this, AgentStats.WASTED_TURNS + AgentStats.CAPTURE_AEC, aecWasted);
+            AgentStats.add(this, AgentStats.LISTEN_TURNS + AgentStats.CAPTURE_PLATFORM, platformTurns);
+            AgentStats.add(this, AgentStats.WASTED_TURNS + AgentStats.CAPTURE_PLATFORM, platformWasted);
+        }
+        aecTurns = aecWasted = platformTurns = platformWasted = callNoMatch = callEchoes = 0;
+        turnFed = false;
+        turnStreaming = false;
+        streamingFailed = false;
+        feedErrors = 0;
+        captureFailed = false;
+        lastSpokenText = null;
+        lastSpokenEndedAt = 0;
+    }
+
+    // Only while a reply is playing or just after it can the mic be hearing it
+    private boolean mayBeEcho() {
+        return state().speaking || SystemClock.elapsedRealtime() - lastSpokenEndedAt < AppConstants.ECHO_WINDOW_MS;
+    }
+
     private void handleUserInput(String text) {
-        if (text == null || text.trim().isEmpty()) { 
+        int kind = utteranceClassifier.classify(text);
+        if (kind == UtteranceClassifier.EMPTY) { 
             startListening(); 
             return; 
         }
-        
-        String lowerText = text.toLowerCase();
-        if (lowerText.contains("stop") || lowerText.contains("বন্ধ") || 
-            lowerText.contains("বন্ধ কর") || lowerText.contains("exit")) { 
+        if (kind == UtteranceClassifier.STOP) { 
             stopConversation(); 
             return; 
         }
@@ -886,151 +1430,250 @@ public class MainActivity extends AppCompatActivity {
             runOnUiThread(() -> tvUser.setText(getString(R.string.chat_user_label) + " " + text));
         }
         
-        retryCount = 0;
         processWithAI(text);
     }
 
     private void processWithAI(String input) {
         if (!NetworkUtils.isNetworkAvailable(this)) {
+            if (state().callActive) {
+                startVoicemail();
+                return;
+            }
             showErrorDialog(getString(R.string.error_no_internet));
-            updateUI("idle");
             return;
         }
         
-        updateUI("thinking");
+        final String language = state().language;
+        setState(state().withThinking(true));
+        AgentStats.increment(this, AgentStats.AI_TURNS);
+        fillerPlayer.arm(language);
+        
+        final TurnTracer.Trace trace = turnTracer.current();
+        if (trace != null) {
+            trace.setLanguage(language);
+            AppLogger.d("Turn {} sent to AI", trace.id);
+        }
         
+        PerfTrace.counter("ai_queue", pendingAiRequests.incrementAndGet());
         executor.execute(() -> {
+            PerfTrace.counter("ai_queue", pendingAiRequests.decrementAndGet());
+            PerfTrace.begin("aiTurn");
             try {
-                String response = getGroqResponseWithRetry(input, detectedLanguage);
-                retryCount = 0; // Reset on success
-                
-                runOnUiThread(() -> {
-                    if (tvAI != null) tvAI.setText(getString(R.string.chat_ai_label) + " " + response);
-                    setTTSLanguage(detectedLanguage);
-                    speak(response);
-                });
-                
+                String response = conversation.respond(input, language, listenerFor(trace));
+                send(ConversationEvent.aiReply(input, response));
             } catch (Exception e) {
-                AppLogger.e("AI error: " + e.getMessage(), e);
-                runOnUiThread(() -> {
-                    String errorMsg = detectedLanguage.equals(AppConstants.LANGUAGE_BENGALI) ? 
-                            getString(R.string.did_not_understand_bn) : getString(R.string.did_not_understand);
-                    if (tvAI != null) tvAI.setText(getString(R.string.chat_ai_label) + " " + errorMsg);
-                    speak(errorMsg);
-                });
+                AppLogger.e("AI error: {}", e.getMessage(), e);
+                if (e instanceof ChatException && ((ChatException) e).getStatusCode() == 401) {
+                    // Wrong or revoked key; no later turn of this call would get an answer either
+                    isApiKeyValid = false;
+                }
+                send(ConversationEvent.of(ConversationEvent.AI_ERROR));
+            } finally {
+                PerfTrace.end();
             }
         });
     }
     
-    private String getGroqResponseWithRetry(String input, String lang) throws Exception {
-        Exception lastException = null;
-        
-        for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
-            try {
-                if (attempt > 0) {
-                    AppLogger.d("Retry attempt " + attempt + " after delay");
-                    Thread.sleep(AppConstants.RETRY_DELAY_MS * (long) Math.pow(AppConstants.RETRY_DELAY_MULTIPLIER, attempt - 1));
-                    runOnUiThread(() -> showMessage(getString(R.string.retrying)));
-                }
-                
-                return getGroqResponse(input, lang);
-                
-            } catch (Exception e) {
-                lastException = e;
-                AppLogger.w("Attempt " + (attempt + 1) + " failed: " + e.getMessage());
-                
-                // Don't retry for certain errors
-                if (e.getMessage() != null && (e.getMessage().contains("401") || 
-                    e.getMessage().contains("API key") ||
-                    e.getMessage().contains("unauthorized"))) {
-                    break; // Don't retry auth errors
-                }
-            }
+    private void onAiReply(String input, String response) {
+        ConversationState state = state();
+        setState(state.withThinking(false));
+        boolean afterFiller = fillerPlayer.disarm();
+        // The call may have ended while the model was busy; its history is already gone
+        if (!state.active) return;
+        
+        if (state.callActive && incomingCallNumber != null) {
+            callerContextStore.record(incomingCallNumber, input, response);
         }
+        addToHistory(new SessionCheckpoint.Turn(state.language, input, response));
         
-        throw lastException != null ? lastException : new Exception("All retries failed");
+        runOnUiThread(() -> {
+            if (tvAI != null) tvAI.setText(getString(R.string.chat_ai_label) + " " + response);
+        });
+        setTTSLanguage(state.language);
+        speak(response, afterFiller);
     }
-
-    private String getGroqResponse(String input, String lang) throws Exception {
-        // Check network first
-        if (!NetworkUtils.isNetworkAvailable(this)) {
-            throw new Exception("No network available");
+    
+    private void onAiError() {
+        ConversationState state = state();
+        setState(state.withThinking(false));
+        boolean afterFiller = fillerPlayer.disarm();
+        if (!state.active) return;
+        if (state.callActive && shouldTakeVoicemail()) {
+            startVoicemail();
+            return;
         }
         
-        URL url = new URL(AppConstants.GROQ_API_BASE_URL);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        
-        String systemPrompt = lang.equals(AppConstants.LANGUAGE_BENGALI) ? 
+        String errorMsg = state.language.equals(AppConstants.LANGUAGE_BENGALI) ? 
+                getString(R.string.did_not_understand_bn) : getString(R.string.did_not_understand);
+        runOnUiThread(() -> {
+            if (tvAI != null) tvAI.setText(getString(R.string.chat_ai_label) + " " + errorMsg);
+        });
+        speak(errorMsg, afterFiller);
+    }
+    
+    // The conversation can't work without the API, but a caller can still leave a message
+    private boolean shouldTakeVoicemail() {
+        return !isApiKeyValid || !NetworkUtils.isNetworkAvailable(this);
+    }
+    
+    // The API went away mid-call: stop taking turns and ask for a message instead
+    private void startVoicemail() {
+        AppLogger.i("Agent unavailable mid-call ({}), taking voicemail",
+                isApiKeyValid ? "no network" : "API key rejected");
+        callFlow.stop();
+        voicemail = voicemailStore.create(incomingCallNumber, state().language);
+        speakVoicemailPrompt();
+    }
+    
+    // Plays from the cache, so it doesn't depend on the network the call just lost
+    private void speakVoicemailPrompt() {
+        String prompt = fillerPlayer.voicemailPrompt(voicemail.language);
+        runOnUiThread(() -> {
+            if (tvAI != null) tvAI.setText(getString(R.string.chat_ai_label) + " " + prompt);
+        });
+        setTTSLanguage(voicemail.language);
+        speak(prompt);
+    }
+    
+    // After the prompt: a beep, then the caller's message straight to a file
+    private void startVoicemailRecording() {
+        if (voicemailRecorder.isRecording()) return;
+        // The recorder needs the mic to itself
+        releaseCapture();
+        playBeep();
+        try {
+            voicemailRecorder.start(voicemailStore.audioFile(voicemail),
+                    () -> send(ConversationEvent.of(ConversationEvent.STOP)));
+            AppLogger.d("Recording voicemail");
+            runOnUiThread(() -> {
+                if (tvAI != null) tvAI.setText(R.string.voicemail_recording);
+            });
+        } catch (IOException | RuntimeException e) {
+            AppLogger.e("Cannot record voicemail", e);
+            send(ConversationEvent.of(ConversationEvent.STOP));
+        }
+    }
+    
+    private void playBeep() {
+        try {
+            ToneGenerator tone = new ToneGenerator(AudioManager.STREAM_VOICE_CALL, ToneGenerator.MAX_VOLUME);
+            tone.startTone(ToneGenerator.TONE_PROP_BEEP, AppConstants.VOICEMAIL_BEEP_MS);
+            mainHandler.postDelayed(tone::release, AppConstants.VOICEMAIL_BEEP_MS * 2L);
+        } catch (RuntimeException e) {
+            AppLogger.w("No voicemail beep: {}", e.getMessage());
+        }
+    }
+    
+    // Queues the message for transcription, unless the caller hung up before saying anything
+    private void finishVoicemail() {
+        VoicemailStore.Message message = voicemail;
+        voicemail = null;
+        if (message == null) return;
+        
+        long durationMs = voicemailRecorder.stop();
+        if (durationMs < AppConstants.VOICEMAIL_MIN_MS) {
+            AppLogger.d("Voicemail too short ({}ms), discarded", durationMs);
+            voicemailStore.delete(message);
+            return;
+        }
+        message.durationMs = durationMs;
+        try {
+            voicemailStore.save(message);
+            VoicemailWorker.schedule(this);
+            AppLogger.i("Voicemail of {}ms queued", durationMs);
+        } catch (IOException e) {
+            AppLogger.e("Error saving voicemail", e);
+            voicemailStore.delete(message);
+        }
+    }
+    
+    private ConversationEngine createConversationEngine() {
+        ChatClient client = (request, listener) -> {
+            // Check network first
+            if (!NetworkUtils.isNetworkAvailable(this)) {
+                throw new Exception("No network available");
+            }
+            return groqClient.getChatClient().complete(request, listener);
+        };
+        PromptProvider prompts = lang -> lang.equals(AppConstants.LANGUAGE_BENGALI) ?
             "আপনি বন্ধুসুলভ সহকারী। উত্তর দিন সংক্ষেপে বাংলায়।" :
             "You are a friendly phone assistant. Keep responses short.";
-        
-        try {
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Authorization", "Bearer " + getApiKey());
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setConnectTimeout(AppConstants.API_CONNECT_TIMEOUT);
-            conn.setReadTimeout(AppConstants.API_READ_TIMEOUT);
-            conn.setDoOutput(true);
-            
-            String jsonBody = String.format(Locale.US, 
-                "{\"model\":\"%s\"," +
-                "\"messages\":[{\"role\":\"system\",\"content\":\"%s\"}," +
-                "{\"role\":\"user\",\"content\":\"%s\"}]," +
-                "\"temperature\":0.7,\"max_tokens\":150}",
-                AppConstants.GROQ_MODEL,
-                systemPrompt.replace("\"", "\\\""),
-                input.replace("\"", "\\\"")
-            );
-            
-            conn.getOutputStream().write(jsonBody.getBytes());
-            
-            int responseCode = conn.getResponseCode();
-            AppLogger.d("API response code: " + responseCode);
-            
-            if (responseCode == 401) {
-                throw new Exception("API key invalid - 401 Unauthorized");
-            } else if (responseCode == 429) {
-                throw new Exception("Rate limit exceeded");
-            } else if (responseCode != 200) {
-                throw new Exception("API error: " + responseCode);
+        return new ConversationEngine(client, prompts, retryPolicy, AppConstants.GROQ_MODEL, 150,
+                AppConstants.MAX_HISTORY_TURNS);
+    }
+
+    // Trace stages and endpoint latency from the client, plus the retry notice the caller hears about
+    private TurnListener listenerFor(TurnTracer.Trace trace) {
+        final TurnListener stages = GroqClient.listenerFor(trace);
+        return new TurnListener() {
+            @Override
+            public void onRequestStart() {
+                stages.onRequestStart();
             }
-            
-            BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) response.append(line);
-            reader.close();
-            
-            JSONObject json = new JSONObject(response.toString());
-            return json.getJSONArray("choices").getJSONObject(0).getJSONObject("message").getString("content");
-                    
-        } finally {
-            conn.disconnect();
+
+            // Only the connect is network time; the wait for the first byte is mostly the model
+            // generating, and a pooled connection connects in no time and says nothing about the link
+            @Override
+            public void onConnected(long connectMs) {
+                if (connectMs > 0) networkMonitor.recordEndpointLatency(connectMs);
+            }
+
+            @Override
+            public void onFirstByte() {
+                stages.onFirstByte();
+            }
+
+            @Override
+            public void onResponse() {
+                stages.onResponse();
+            }
+
+            @Override
+            public void onRetry(int attempt, Exception lastError) {
+                AppLogger.w("Attempt {} failed: {}", attempt, lastError.getMessage());
+                AppLogger.d("Retry attempt {} after delay", attempt);
+                runOnUiThread(() -> showMessage(getString(R.string.retrying)));
+            }
+        };
+    }
+    
+    private void addToHistory(SessionCheckpoint.Turn turn) {
+        conversation.addTurn(turn);
+        if (state().callActive) {
+            sessionCheckpoint.recordTurn(turn.language, turn.userText, turn.aiText);
         }
     }
 
     private void speak(String text) {
+        speak(text, false);
+    }
+    
+    // queueAfterFiller keeps a playing filler and splices the reply in right after it
+    private void speak(String text, boolean queueAfterFiller) {
         if (textToSpeech == null || !isTTSReady) {
             AppLogger.e("TTS not ready");
             return;
         }
         
+        PerfTrace.begin("speak");
         try {
-            isSpeaking = true;
-            updateUI("speaking");
+            lastSpokenText = text;
+            setState(state().withSpeaking(true));
             
             Bundle params = new Bundle();
             params.putInt(TextToSpeech.Engine.KEY_PARAM_STREAM, AudioManager.STREAM_VOICE_CALL);
             
+            int queueMode = queueAfterFiller ? TextToSpeech.QUEUE_ADD : TextToSpeech.QUEUE_FLUSH;
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                textToSpeech.speak(text, TextToSpeech.QUEUE_FLUSH, params, AppConstants.TTS_UTTERANCE_ID);
+                textToSpeech.speak(text, queueMode, params, AppConstants.TTS_UTTERANCE_ID);
             } else {
-                textToSpeech.speak(text, TextToSpeech.QUEUE_FLUSH, null);
+                textToSpeech.speak(text, queueMode, null);
             }
         } catch (Exception e) {
             AppLogger.e("TTS error", e);
-            isSpeaking = false;
-            updateUI("idle");
+            setState(state().withSpeaking(false));
+        } finally {
+            PerfTrace.end();
         }
     }
 
@@ -1074,43 +1717,49 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void retryOrRecover() {
-        if (isConversationActive && !isSpeaking) {
-            mainHandler.postDelayed(this::startListening, 1000);
+        ConversationState state = state();
+        if (state.active && !state.speaking) {
+            callFlow.recover();
         }
     }
     
-    private void updateUI(String state) {
+    // Draws a published state snapshot; UI thread
+    private void render(ConversationState state) {
         try {
             if (isDestroyed) return;
             
             int bgColor;
             String statusText;
+            int stateCode;
             
-            switch (state) {
+            String phase = !state.active ? "idle"
+                    : state.speaking ? "speaking"
+                    : state.listening ? "listening"
+                    : state.thinking ? "thinking"
+                    : "idle";
+            switch (phase) {
                 case "listening":
                     bgColor = 0xFF4CAF50;
                     statusText = getString(R.string.status_listening);
+                    stateCode = 1;
                     break;
                 case "speaking":
                     bgColor = 0xFF2196F3;
                     statusText = getString(R.string.status_speaking);
+                    stateCode = 3;
                     break;
                 case "thinking":
                     bgColor = 0xFFFF9800;
                     statusText = getString(R.string.status_thinking);
-                    break;
-                case "starting":
-                    bgColor = 0xFF9C27B0;
-                    statusText = getString(R.string.status_starting);
-                    break;
-                case "error":
-                    bgColor = 0xFFF44336;
-                    statusText = getString(R.string.status_error);
+                    stateCode = 2;
                     break;
                 default:
                     bgColor = 0xFF1A1A2E;
                     statusText = getString(R.string.status_tap_to_start);
+                    stateCode = 0;
             }
+            // 0 idle, 1 listening, 2 thinking, 3 speaking
+            PerfTrace.counter("agent_state", stateCode);
             
             if (circleView != null) {
                 circleView.setBackgroundColor(bgColor);
@@ -1135,12 +1784,56 @@ public class MainActivity extends AppCompatActivity {
         });
     }
     
+    private void showStatsDialog() {
+        if (isDestroyed) return;
+        new MaterialAlertDialogBuilder(this)
+            .setTitle(R.string.stats_title)
+            .setMessage(AgentStats.summary(this) + RecognitionStats.summary(this) + voicemailStore.summary()
+                    + WarmUpWorker.summary(this) + startup.summary() + networkMonitor.summary() + requestTimeouts.summary() + "\n"
+                    + turnTracer.summary()
+                    + "\n" + actor.summary())
+            .setPositiveButton(R.string.action_ok, null)
+            .setNeutralButton(R.string.action_share_logs, (dialog, which) -> shareLogs())
+            .show();
+    }
+    
+    // Zips the logs into the cache and hands them to whatever the user picks to send them with
+    private void shareLogs() {
+        executor.execute(() -> {
+            File dir = new File(getCacheDir(), AppConstants.LOG_EXPORT_DIR);
+            File zip = new File(dir, AppConstants.LOG_EXPORT_FILE);
+            try {
+                if (!dir.exists() && !dir.mkdirs()) {
+                    throw new IOException("Cannot create " + dir);
+                }
+                try (OutputStream out = new FileOutputStream(zip)) {
+                    AppLogger.exportLogs(out);
+                }
+            } catch (IOException e) {
+                AppLogger.e("Log export failed", e);
+                runOnUiThread(() -> Toast.makeText(this, R.string.share_logs_failed, Toast.LENGTH_LONG).show());
+                return;
+            }
+            
+            Uri uri = FileProvider.getUriForFile(this, getPackageName() + AppConstants.LOG_EXPORT_AUTHORITY_SUFFIX, zip);
+            Intent send = new Intent(Intent.ACTION_SEND)
+                    .setType("application/zip")
+                    .putExtra(Intent.EXTRA_STREAM, uri)
+                    .addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            runOnUiThread(() -> {
+                if (isDestroyed) return;
+                startActivity(Intent.createChooser(send, getString(R.string.action_share_logs)));
+            });
+        });
+    }
+    
     private void transferCallToAgent(String phoneNumber) {
         AppLogger.d("=== TRANSFER CALL TO AGENT ===");
         
-        isCallActive = true;
-        isConversationActive = true;
-        detectedLanguage = resolveLanguage();
+        setState(state().withActive(true).withCallActive(true).withLanguage(resolveLanguage()));
+        
+        conversation.clearHistory();
+        sessionCheckpoint.begin(phoneNumber, state().language);
         
         acquireWakeLock();
         enableAudioForCall();
@@ -1150,23 +1843,54 @@ public class MainActivity extends AppCompatActivity {
         
         String displayName = incomingCallName != null ? incomingCallName : phoneNumber;
         
-        mainHandler.postDelayed(() -> {
-            String greeting = detectedLanguage.equals(AppConstants.LANGUAGE_BENGALI) ?
-                    getString(R.string.greeting_call_bn) : getString(R.string.greeting_call_en);
-            speak(greeting);
-        }, AppConstants.GREETING_DELAY_MS);
+        if (shouldTakeVoicemail()) {
+            AppLogger.i("Agent unavailable ({}), taking voicemail",
+                    isApiKeyValid ? "no network" : "no valid API key");
+            voicemail = voicemailStore.create(phoneNumber, state().language);
+            // The prompt goes out in place of the greeting; the recorder caps the length
+            callFlow.onCallTransferred(false);
+            return;
+        }
         
-        mainHandler.postDelayed(() -> {
-            if (isConversationActive && !isSpeaking) {
-                startListening();
-            }
-        }, AppConstants.FIRST_LISTEN_DELAY_MS);
+        pendingGreeting = greetingPrefetcher.takeIfReady(phoneNumber);
+        callFlow.onCallTransferred(pendingGreeting != null);
         
         mainHandler.post(() -> 
             Toast.makeText(this, R.string.call_connected, Toast.LENGTH_LONG).show()
         );
         
-        startDurationMonitoring();
+        callFlow.startDurationMonitoring();
+    }
+    
+    // Picks up a call whose process was killed mid-conversation, without a new greeting
+    private void resumeCallFromCheckpoint() {
+        SessionCheckpoint.Session session = sessionCheckpoint.readLast();
+        if (session == null || session.ended) {
+            AppLogger.w("No open session to resume");
+            return;
+        }
+        
+        AppLogger.i("Resuming call after restart, {} turns restored", session.turns.size());
+        
+        incomingCallNumber = session.phoneNumber.isEmpty() ? null : session.phoneNumber;
+        incomingCallName = getContactName(incomingCallNumber);
+        conversation.setHistory(session.turns);
+        setState(state().withActive(true).withCallActive(true).withLanguage(session.language));
+        
+        acquireWakeLock();
+        enableAudioForCall();
+        registerAudioRoutingListener();
+        
+        if (isTTSReady) {
+            setTTSLanguage(session.language);
+            speak(session.language.equals(AppConstants.LANGUAGE_BENGALI) ?
+                    getString(R.string.resume_call_bn) : getString(R.string.resume_call_en));
+        } else {
+            // TTS is still binding after the restart; listen straight away rather than wait
+            callFlow.listenNow();
+        }
+        
+        callFlow.startDurationMonitoring();
     }
     
     private void bringToFront() {
@@ -1178,7 +1902,7 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onNewIntent(Intent intent) {
         super.onNewIntent(intent);
-        handleIntent(intent);
+        whenReady(() -> handleIntent(intent));
     }
     
     @Override
@@ -1188,12 +1912,39 @@ public class MainActivity extends AppCompatActivity {
         AppLogger.d("Configuration changed");
     }
 
+    // Actor thread, after the last event
+    private void releaseSpeech() {
+        try {
+            if (speechRecognizer != null) {
+                speechRecognizer.destroy();
+                speechRecognizer = null;
+            }
+            if (streamingRecognizer != null) {
+                streamingRecognizer.release();
+            }
+            if (onDeviceRecognizer != null) {
+                onDeviceRecognizer.destroy();
+                onDeviceRecognizer = null;
+            }
+            if (textToSpeech != null) {
+                textToSpeech.stop();
+                textToSpeech.shutdown();
+                textToSpeech = null;
+            }
+            if (greetingPrefetcher != null) {
+                greetingPrefetcher.shutdown();
+            }
+        } catch (Exception e) {
+            AppLogger.e("Error releasing speech engines", e);
+        }
+    }
+
     @Override
     protected void onDestroy() {
         AppLogger.d("onDestroy");
         isDestroyed = true;
         
-        stopDurationMonitoring();
+        if (callFlow != null) callFlow.stop();
         releaseWakeLock();
         unregisterAudioRoutingListener();
         
@@ -1207,15 +1958,12 @@ public class MainActivity extends AppCompatActivity {
         }
         
         try {
-            stopConversation();
-            if (speechRecognizer != null) { 
-                speechRecognizer.destroy(); 
-                speechRecognizer = null; 
-            }
-            if (textToSpeech != null) { 
-                textToSpeech.stop(); 
-                textToSpeech.shutdown(); 
-                textToSpeech = null; 
+            // Queued behind STOP on the actor thread, so stopConversation still has them;
+            // quitSafely() below lets both run before the thread ends
+            send(ConversationEvent.of(ConversationEvent.STOP));
+            if (mainHandler != null) mainHandler.post(this::releaseSpeech);
+            if (startupPool != null) {
+                startupPool.shutdown();
             }
             if (executor != null) { 
                 executor.shutdown(); 
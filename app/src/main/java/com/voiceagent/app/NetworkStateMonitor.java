@@ -0,0 +1,146 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+import com.voiceagent.core.LinkQuality;
+import com.voiceagent.core.RttEstimator;
+
+import java.util.Locale;
+
+/**
+ * Keeps the default network's state current from ConnectivityManager callbacks, so hot paths
+ * read a volatile snapshot instead of making binder calls. Alongside what the platform reports
+ * it keeps a smoothed time-to-first-byte to the LLM endpoint, reset when the network changes.
+ */
+public class NetworkStateMonitor {
+
+    public static final String TRANSPORT_NONE = "NONE";
+    public static final String TRANSPORT_WIFI = "WIFI";
+    public static final String TRANSPORT_CELLULAR = "MOBILE";
+    public static final String TRANSPORT_ETHERNET = "ETHERNET";
+    public static final String TRANSPORT_OTHER = "OTHER";
+
+    public static class Snapshot {
+        public final boolean connected;
+        public final String transport;
+        public final boolean metered;
+        public final int downstreamKbps;
+        public final int upstreamKbps;
+
+        Snapshot(boolean connected, String transport, boolean metered, int downstreamKbps, int upstreamKbps) {
+            this.connected = connected;
+            this.transport = transport;
+            this.metered = metered;
+            this.downstreamKbps = downstreamKbps;
+            this.upstreamKbps = upstreamKbps;
+        }
+    }
+
+    private static final Snapshot DISCONNECTED = new Snapshot(false, TRANSPORT_NONE, false, 0, 0);
+
+    private static NetworkStateMonitor instance;
+
+    private final RttEstimator endpointRtt = new RttEstimator();
+    private volatile Snapshot snapshot = DISCONNECTED;
+    private Network current;
+
+    public static synchronized NetworkStateMonitor getInstance(Context context) {
+        if (instance == null) {
+            instance = new NetworkStateMonitor(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private NetworkStateMonitor(Context context) {
+        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (cm == null) return;
+
+        // Seed once so the first reader doesn't see "disconnected" before the first callback
+        Network network = cm.getActiveNetwork();
+        if (network != null) {
+            update(network, cm.getNetworkCapabilities(network));
+        }
+
+        try {
+            cm.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onCapabilitiesChanged(Network network, NetworkCapabilities capabilities) {
+                    update(network, capabilities);
+                }
+
+                @Override
+                public void onLost(Network network) {
+                    synchronized (NetworkStateMonitor.this) {
+                        if (!network.equals(current)) return;
+                        current = null;
+                        snapshot = DISCONNECTED;
+                    }
+                    AppLogger.d("Network lost");
+                }
+            });
+        } catch (Exception e) {
+            AppLogger.e("Error registering network callback: {}", e.getMessage());
+        }
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isConnected() {
+        return snapshot.connected;
+    }
+
+    // Network-only round trips to the endpoint: a new connection's connect time or a preconnect
+    public void recordEndpointLatency(long ms) {
+        endpointRtt.record(ms);
+    }
+
+    // -1 until a request has completed on this network
+    public long getEndpointRttMs() {
+        return endpointRtt.getSmoothedMs();
+    }
+
+    public int getLinkQuality() {
+        Snapshot s = snapshot;
+        return LinkQuality.classify(s.connected, s.downstreamKbps, endpointRtt.getSmoothedMs());
+    }
+
+    public String summary() {
+        Snapshot s = snapshot;
+        return String.format(Locale.US, "Network: %s%s, %d kbps down, endpoint %d ms (%s)\n", s.transport,
+                s.metered ? " metered" : "", s.downstreamKbps, getEndpointRttMs(),
+                LinkQuality.name(getLinkQuality()));
+    }
+
+    private void update(Network network, NetworkCapabilities capabilities) {
+        Snapshot next = capabilities == null ? DISCONNECTED : new Snapshot(
+                capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET),
+                transportOf(capabilities),
+                !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED),
+                capabilities.getLinkDownstreamBandwidthKbps(),
+                capabilities.getLinkUpstreamBandwidthKbps());
+
+        boolean changed;
+        synchronized (this) {
+            changed = !network.equals(current);
+            current = network;
+            snapshot = next;
+        }
+        if (changed) {
+            // Latency measured on the old network says nothing about this one
+            endpointRtt.reset();
+            AppLogger.d("Network {} metered={} down={}kbps", next.transport, next.metered, next.downstreamKbps);
+        }
+    }
+
+    private static String transportOf(NetworkCapabilities capabilities) {
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) return TRANSPORT_WIFI;
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) return TRANSPORT_CELLULAR;
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) return TRANSPORT_ETHERNET;
+        return TRANSPORT_OTHER;
+    }
+}
@@ -16,19 +16,10 @@ public class NetworkUtils {
     
     private static ConnectivityManager.NetworkCallback networkCallback;
     
+    // Reads the monitor's cached snapshot; no binder calls after the first use
     public static boolean isNetworkAvailable(Context context) {
-        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
-        if (cm == null) return false;
-        
-        Network network = cm.getActiveNetwork();
-        if (network == null) return false;
-        
-        NetworkCapabilities capabilities = cm.getNetworkCapabilities(network);
-        if (capabilities == null) return false;
-        
-        return capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI) ||
-               capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR) ||
-               capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET);
+        NetworkStateMonitor.Snapshot snapshot = NetworkStateMonitor.getInstance(context).getSnapshot();
+        return snapshot.connected && !snapshot.transport.equals(NetworkStateMonitor.TRANSPORT_OTHER);
     }
     
     public static boolean isWifiConnected(Context context) {
@@ -88,7 +79,7 @@ public class NetworkUtils {
                 try {
                     cm.unregisterNetworkCallback(networkCallback);
                 } catch (Exception e) {
-                    AppLogger.e("Error unregistering network callback: " + e.getMessage());
+                    AppLogger.e("Error unregistering network callback: {}", e.getMessage());
                 }
             }
             networkCallback = null;
@@ -96,23 +87,6 @@ public class NetworkUtils {
     }
     
     public static String getConnectionType(Context context) {
-        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
-        if (cm == null) return "UNKNOWN";
-        
-        Network network = cm.getActiveNetwork();
-        if (network == null) return "NONE";
-        
-        NetworkCapabilities capabilities = cm.getNetworkCapabilities(network);
-        if (capabilities == null) return "NONE";
-        
-        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
-            return "WIFI";
-        } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
-            return "MOBILE";
-        } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
-            return "ETHERNET";
-        }
-        
-        return "UNKNOWN";
+        return NetworkStateMonitor.getInstance(context).getSnapshot().transport;
     }
 }
@@ -0,0 +1,88 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.net.SSLCertificateSocketFactory;
+import android.net.SSLSessionCache;
+import android.os.SystemClock;
+
+import com.voiceagent.core.HttpChatClient;
+import com.voiceagent.core.HttpTranscriptionClient;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Network state worth keeping across process restarts. TLS sessions go to a cache in app-private
+ * storage, so the first request after a restart resumes a session instead of doing a full
+ * handshake. The connection itself is opened in the background as soon as the client is built,
+ * so the DNS lookup, TCP connect and resumed handshake are done before the first turn needs them.
+ */
+public class NetworkWarmState {
+
+    private static NetworkWarmState instance;
+
+    private final NetworkStateMonitor networkMonitor;
+    private final SSLSocketFactory socketFactory;
+    private final ExecutorService warmExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "NetworkWarm");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long lastWarmedAt;
+
+    public static synchronized NetworkWarmState getInstance(Context context) {
+        if (instance == null) {
+            instance = new NetworkWarmState(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @SuppressWarnings("deprecation")
+    private NetworkWarmState(Context context) {
+        networkMonitor = NetworkStateMonitor.getInstance(context);
+        SSLSocketFactory factory = null;
+        try {
+            // Stored under the app's private "sslcache" directory
+            factory = SSLCertificateSocketFactory.getDefault(AppConstants.API_CONNECT_TIMEOUT,
+                    new SSLSessionCache(context));
+        } catch (Exception e) {
+            AppLogger.e("TLS session cache unavailable: {}", e.getMessage());
+        }
+        socketFactory = factory;
+    }
+
+    // Call once when the client is built; every connection must use the same factory to be pooled
+    public void install(HttpChatClient client) {
+        if (socketFactory != null) client.setSslSocketFactory(socketFactory);
+    }
+
+    public void install(HttpTranscriptionClient client) {
+        if (socketFactory != null) client.setSslSocketFactory(socketFactory);
+    }
+
+    // Opens a pooled connection to the endpoint, unless one was opened recently enough to still be alive
+    public void warm(final HttpChatClient client) {
+        long now = SystemClock.elapsedRealtime();
+        if (now - lastWarmedAt < AppConstants.NETWORK_WARM_INTERVAL_MS) return;
+        lastWarmedAt = now;
+
+        warmExecutor.execute(() -> {
+            if (!networkMonitor.isConnected()) {
+                lastWarmedAt = 0;
+                return;
+            }
+            long ms = client.preconnect(AppConstants.API_CONNECT_TIMEOUT);
+            if (ms < 0) {
+                lastWarmedAt = 0;
+                AppLogger.w("Could not preconnect to the LLM endpoint");
+            } else {
+                // The HEAD costs the endpoint nothing, so this is all network
+                networkMonitor.recordEndpointLatency(ms);
+                AppLogger.d("Preconnected to the LLM endpoint in {}ms", ms);
+            }
+        });
+    }
+}
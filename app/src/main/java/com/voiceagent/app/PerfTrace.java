@@ -0,0 +1,76 @@
+package com.voiceagent.app;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thin wrapper over android.os.Trace for Perfetto/systrace captures of the call pipeline.
+ * On API 29+ it follows the system's own switch, Trace.isEnabled(), so a capture started with
+ * Perfetto or `adb shell atrace` picks the sections up with nothing to set in the app; before
+ * that it traces in debug builds only.
+ *
+ * The switch is checked on every call, so a capture can start or stop mid-section. Each thread
+ * counts the sections it really began, and end() only closes those, so a pair that straddles
+ * a flip never ends a section it didn't begin.
+ *
+ * Sections must begin and end on the same thread; async slices can end anywhere and are
+ * matched by name and cookie (API 29+, silently skipped before).
+ */
+public class PerfTrace {
+
+    private static final AtomicInteger nextCookie = new AtomicInteger(1);
+
+    // Sections this thread has begun, innermost last; true where one was really opened
+    private static final class Stack {
+        final boolean[] opened = new boolean[64];
+        int depth;
+    }
+
+    private static final ThreadLocal<Stack> stacks = new ThreadLocal<Stack>() {
+        @Override
+        protected Stack initialValue() {
+            return new Stack();
+        }
+    };
+
+    public static boolean isEnabled() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) return Trace.isEnabled();
+        return BuildConfig.DEBUG;
+    }
+
+    public static void begin(String name) {
+        boolean traced = isEnabled();
+        if (traced) Trace.beginSection(name);
+        Stack stack = stacks.get();
+        if (stack.depth < stack.opened.length) stack.opened[stack.depth] = traced;
+        stack.depth++;
+    }
+
+    public static void end() {
+        Stack stack = stacks.get();
+        if (stack.depth == 0) return;
+        stack.depth--;
+        if (stack.depth < stack.opened.length && stack.opened[stack.depth]) Trace.endSection();
+    }
+
+    // Returns the cookie to pass to endAsync, or 0 when tracing is off
+    public static int beginAsync(String name) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || !Trace.isEnabled()) return 0;
+        int cookie = nextCookie.getAndIncrement();
+        Trace.beginAsyncSection(name, cookie);
+        return cookie;
+    }
+
+    public static void endAsync(String name, int cookie) {
+        if (cookie == 0 || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) return;
+        Trace.endAsyncSection(name, cookie);
+    }
+
+    public static void counter(String name, long value) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && Trace.isEnabled()) {
+            Trace.setCounter(name, value);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+
+import java.util.Locale;
+
+/**
+ * Per recognition mode (online, offline, whisper) counters kept with AgentStats: turns, results,
+ * no-match and error outcomes, time from end of speech to results, and the recognizer's own
+ * confidence where it gives one. No-match rate and confidence stand in for accuracy, which we
+ * can't measure on a live call.
+ */
+public class RecognitionStats {
+
+    public static final String MODE_ONLINE = "online";
+    public static final String MODE_OFFLINE = "offline";
+    public static final String MODE_WHISPER = "whisper";
+    private static final String[] MODES = {MODE_ONLINE, MODE_OFFLINE, MODE_WHISPER};
+
+    private static final String TURNS = "stat_stt_turns_";
+    private static final String RESULTS = "stat_stt_results_";
+    private static final String NO_MATCH = "stat_stt_no_match_";
+    private static final String ERRORS = "stat_stt_errors_";
+    private static final String LATENCY_MS = "stat_stt_latency_ms_";
+    private static final String TIMED = "stat_stt_timed_";
+    private static final String CONFIDENCE_MILLI = "stat_stt_confidence_milli_";
+    private static final String SCORED = "stat_stt_scored_";
+
+    public static void recordTurn(Context context, String mode) {
+        AgentStats.increment(context, TURNS + mode);
+    }
+
+    // latencyMs < 0 or confidence < 0 when unknown
+    public static void recordResult(Context context, String mode, long latencyMs, float confidence) {
+        AgentStats.increment(context, RESULTS + mode);
+        if (latencyMs >= 0) {
+            AgentStats.add(context, LATENCY_MS + mode, latencyMs);
+            AgentStats.increment(context, TIMED + mode);
+        }
+        if (confidence >= 0) {
+            AgentStats.add(context, CONFIDENCE_MILLI + mode, Math.round(confidence * 1000));
+            AgentStats.increment(context, SCORED + mode);
+        }
+    }
+
+    public static void recordNoMatch(Context context, String mode) {
+        AgentStats.increment(context, NO_MATCH + mode);
+    }
+
+    public static void recordError(Context context, String mode) {
+        AgentStats.increment(context, ERRORS + mode);
+    }
+
+    public static String summary(Context context) {
+        StringBuilder sb = new StringBuilder();
+        for (String mode : MODES) {
+            long turns = AgentStats.get(context, TURNS + mode);
+            if (turns == 0) continue;
+            long timed = AgentStats.get(context, TIMED + mode);
+            long scored = AgentStats.get(context, SCORED + mode);
+            sb.append(String.format(Locale.US, "STT %s: %d turns, %d results, %.1f%% no match, %d errors",
+                    mode, turns, AgentStats.get(context, RESULTS + mode),
+                    100.0 * AgentStats.get(context, NO_MATCH + mode) / turns, AgentStats.get(context, ERRORS + mode)));
+            if (timed > 0) {
+                sb.append(String.format(Locale.US, ", %d ms avg", AgentStats.get(context, LATENCY_MS + mode) / timed));
+            }
+            if (scored > 0) {
+                sb.append(String.format(Locale.US, ", confidence %.2f",
+                        AgentStats.get(context, CONFIDENCE_MILLI + mode) / 1000.0 / scored));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
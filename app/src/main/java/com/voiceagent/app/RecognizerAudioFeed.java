@@ -0,0 +1,92 @@
+package com.voiceagent.app;
+
+import android.content.Intent;
+import android.media.AudioFormat;
+import android.os.Build;
+import android.os.ParcelFileDescriptor;
+import android.speech.RecognizerIntent;
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+
+import java.io.IOException;
+
+/**
+ * Hands captured frames to SpeechRecognizer through a pipe, for one listening turn
+ * (RecognizerIntent.EXTRA_AUDIO_SOURCE, API 33+). The write end is non-blocking, so a recognizer
+ * that has stopped reading costs dropped frames rather than a stalled capture thread.
+ */
+public class RecognizerAudioFeed implements AudioCapture.FrameSink {
+
+    private final ParcelFileDescriptor readSide;
+    private final ParcelFileDescriptor writeSide;
+    private boolean closed;
+    private long droppedBytes;
+
+    public static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU;
+    }
+
+    public RecognizerAudioFeed() throws IOException {
+        ParcelFileDescriptor[] pipe = ParcelFileDescriptor.createPipe();
+        readSide = pipe[0];
+        writeSide = pipe[1];
+        try {
+            int flags = Os.fcntlInt(writeSide.getFileDescriptor(), OsConstants.F_GETFL, 0);
+            Os.fcntlInt(writeSide.getFileDescriptor(), OsConstants.F_SETFL, flags | OsConstants.O_NONBLOCK);
+        } catch (ErrnoException e) {
+            close();
+            throw new IOException("Cannot make audio pipe non-blocking", e);
+        }
+    }
+
+    public void addTo(Intent intent, int sampleRate) {
+        intent.putExtra(RecognizerIntent.EXTRA_AUDIO_SOURCE, readSide);
+        intent.putExtra(RecognizerIntent.EXTRA_AUDIO_SOURCE_CHANNEL_COUNT, 1);
+        intent.putExtra(RecognizerIntent.EXTRA_AUDIO_SOURCE_ENCODING, AudioFormat.ENCODING_PCM_16BIT);
+        intent.putExtra(RecognizerIntent.EXTRA_AUDIO_SOURCE_SAMPLING_RATE, sampleRate);
+    }
+
+    // The recognizer holds its own copy once startListening has sent the intent
+    public void releaseReadSide() {
+        closeQuietly(readSide);
+    }
+
+    // Synchronized with close(), so a write can never land on a descriptor number reused after it
+    @Override
+    public synchronized void onFrame(byte[] frame, int length) {
+        if (closed) return;
+        int offset = 0;
+        try {
+            while (offset < length) {
+                offset += Os.write(writeSide.getFileDescriptor(), frame, offset, length - offset);
+            }
+        } catch (ErrnoException e) {
+            if (e.errno == OsConstants.EAGAIN) {
+                droppedBytes += length - offset;
+            } else {
+                // EPIPE: the recognizer is done with this turn
+                closed = true;
+            }
+        } catch (IOException e) {
+            closed = true;
+        }
+    }
+
+    public synchronized long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    public synchronized void close() {
+        closed = true;
+        closeQuietly(writeSide);
+        closeQuietly(readSide);
+    }
+
+    private static void closeQuietly(ParcelFileDescriptor fd) {
+        try {
+            fd.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
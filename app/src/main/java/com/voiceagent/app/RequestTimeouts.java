@@ -0,0 +1,62 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+
+import com.voiceagent.core.AdaptiveTimeouts;
+
+import java.util.Map;
+
+/**
+ * Adaptive timeouts for the LLM endpoint, keyed by the current transport and endpoint host so
+ * Wi-Fi and cellular learn separately. The latency histograms are persisted at the end of each
+ * call, so a fresh process starts from what the last one learned instead of the fixed defaults.
+ */
+public class RequestTimeouts {
+
+    private static final String PREF_TIMEOUTS_NAME = "voice_agent_timeouts";
+
+    private static RequestTimeouts instance;
+
+    private final SharedPreferences prefs;
+    private final AdaptiveTimeouts timeouts;
+
+    public static synchronized RequestTimeouts getInstance(Context context) {
+        if (instance == null) {
+            instance = new RequestTimeouts(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private RequestTimeouts(Context context) {
+        final NetworkStateMonitor monitor = NetworkStateMonitor.getInstance(context);
+        final String host = Uri.parse(AppConstants.GROQ_API_BASE_URL).getHost();
+        timeouts = new AdaptiveTimeouts(
+                () -> monitor.getSnapshot().transport + "/" + host,
+                new AdaptiveTimeouts.Bounds(AppConstants.API_CONNECT_TIMEOUT,
+                        AppConstants.API_CONNECT_TIMEOUT_MIN_MS, AppConstants.API_CONNECT_TIMEOUT),
+                new AdaptiveTimeouts.Bounds(AppConstants.API_READ_TIMEOUT,
+                        AppConstants.API_READ_TIMEOUT_MIN_MS, AppConstants.API_READ_TIMEOUT),
+                AppConstants.API_TIMEOUT_MARGIN_MS);
+
+        prefs = context.getSharedPreferences(PREF_TIMEOUTS_NAME, Context.MODE_PRIVATE);
+        timeouts.restore(prefs.getAll());
+    }
+
+    public AdaptiveTimeouts getPolicy() {
+        return timeouts;
+    }
+
+    public void save() {
+        SharedPreferences.Editor editor = prefs.edit();
+        for (Map.Entry<String, String> entry : timeouts.export().entrySet()) {
+            editor.putString(entry.getKey(), entry.getValue());
+        }
+        editor.apply();
+    }
+
+    public String summary() {
+        return timeouts.summary();
+    }
+}
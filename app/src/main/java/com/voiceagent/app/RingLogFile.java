@@ -0,0 +1,142 @@
+package com.voiceagent.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Fixed-size, memory-mapped ring log. Writes land in a shared mapping, so the kernel keeps
+ * them even if the process dies before anything is flushed, and the file never grows past
+ * its capacity.
+ *
+ * Header layout (32 bytes): magic, version, data capacity, reserved, write position
+ * (total bytes ever written), generation (number of times the ring wrapped).
+ */
+public class RingLogFile implements LogOutput {
+
+    private static final int MAGIC = 0x52494E47; // "RING"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_CAPACITY = 8;
+    private static final int OFFSET_WRITE_POSITION = 16;
+    private static final int OFFSET_GENERATION = 24;
+
+    private final File file;
+    private final int capacity;
+    private final MappedByteBuffer map;
+
+    public RingLogFile(File file, int capacity) throws IOException {
+        this.file = file;
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            boolean valid = raf.length() >= HEADER_SIZE && raf.readInt() == MAGIC && raf.readInt() == VERSION;
+            int existingCapacity = valid ? raf.readInt() : -1;
+            if (existingCapacity != capacity || raf.length() != HEADER_SIZE + (long) capacity) {
+                // New file, or a different size: start over rather than misread old data
+                raf.setLength(0);
+                raf.setLength(HEADER_SIZE + (long) capacity);
+                valid = false;
+            }
+
+            map = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity);
+            this.capacity = capacity;
+            if (!valid) {
+                map.putInt(OFFSET_MAGIC, MAGIC);
+                map.putInt(OFFSET_VERSION, VERSION);
+                map.putInt(OFFSET_CAPACITY, capacity);
+                map.putLong(OFFSET_WRITE_POSITION, 0);
+                map.putLong(OFFSET_GENERATION, 0);
+            }
+        } finally {
+            raf.close();
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void write(ByteBuffer data) {
+        long position = map.getLong(OFFSET_WRITE_POSITION);
+        int length = data.remaining();
+
+        // Anything longer than the ring only keeps its tail; the skipped bytes still count
+        // so readers see the ring as wrapped
+        if (length > capacity) {
+            data.position(data.position() + length - capacity);
+            position += length - capacity;
+            length = capacity;
+        }
+
+        int offset = (int) (position % capacity);
+        int first = Math.min(length, capacity - offset);
+        ByteBuffer target = map.duplicate();
+        target.position(HEADER_SIZE + offset);
+        ByteBuffer slice = data.duplicate();
+        slice.limit(slice.position() + first);
+        target.put(slice);
+        if (first < length) {
+            target.position(HEADER_SIZE);
+            slice.limit(slice.position() + length - first);
+            target.put(slice);
+        }
+        data.position(data.limit());
+
+        long newPosition = position + length;
+        // Header goes last, so a crash mid-copy leaves the previous position intact
+        map.putLong(OFFSET_GENERATION, newPosition / capacity);
+        map.putLong(OFFSET_WRITE_POSITION, newPosition);
+    }
+
+    @Override
+    public synchronized void truncate() {
+        map.putLong(OFFSET_WRITE_POSITION, 0);
+        map.putLong(OFFSET_GENERATION, 0);
+    }
+
+    @Override
+    public void close() {
+        // The mapping is released with the buffer; nothing to flush
+    }
+
+    @Override
+    public boolean isWriteThrough() {
+        return true;
+    }
+
+    public long getGeneration() {
+        return map.getLong(OFFSET_GENERATION);
+    }
+
+    // File offset/length pairs of the readable data in write order, starting at the first
+    // whole line once the ring has wrapped
+    public synchronized long[] getRegions() {
+        long position = map.getLong(OFFSET_WRITE_POSITION);
+        if (position <= capacity) {
+            return new long[] {HEADER_SIZE, position};
+        }
+
+        // Oldest byte sits at the write offset; skip the line the wrap cut through
+        int start = (int) (position % capacity);
+        int from = 0;
+        while (from < capacity && map.get(HEADER_SIZE + (start + from) % capacity) != '\n') {
+            from++;
+        }
+        from++;
+        if (from >= capacity) return new long[0];
+
+        int physical = start + from;
+        if (physical < capacity) {
+            return new long[] {HEADER_SIZE + physical, capacity - physical, HEADER_SIZE, start};
+        }
+        return new long[] {HEADER_SIZE + physical - capacity, capacity - from};
+    }
+}
@@ -0,0 +1,172 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+
+import com.voiceagent.core.ChatTurn;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Append-only checkpoint of the active call session, so a START_STICKY restart can pick the
+ * conversation up where it was. Records are written on a background thread and synced to disk;
+ * a torn record at the tail is ignored when reading.
+ */
+public class SessionCheckpoint {
+
+    private static final String CHECKPOINT_FILE_NAME = "session.ckpt";
+
+    private static final byte RECORD_START = 1;
+    private static final byte RECORD_TURN = 2;
+    private static final byte RECORD_END = 3;
+
+    public static class Turn implements ChatTurn {
+        public final String language;
+        public final String userText;
+        public final String aiText;
+
+        public Turn(String language, String userText, String aiText) {
+            this.language = language;
+            this.userText = userText;
+            this.aiText = aiText;
+        }
+
+        @Override
+        public String getUserText() {
+            return userText;
+        }
+
+        @Override
+        public String getAiText() {
+            return aiText;
+        }
+    }
+
+    public static class Session {
+        public String phoneNumber;
+        public String language;
+        public long startTime;
+        public long lastUpdateTime;
+        public boolean ended;
+        public final List<Turn> turns = new ArrayList<>();
+    }
+
+    private static final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+
+    private final File checkpointFile;
+
+    public SessionCheckpoint(Context context) {
+        checkpointFile = new File(context.getApplicationContext().getFilesDir(), CHECKPOINT_FILE_NAME);
+    }
+
+    public void begin(final String phoneNumber, final String language) {
+        final long now = System.currentTimeMillis();
+        writeExecutor.execute(() -> {
+            if (checkpointFile.exists() && !checkpointFile.delete()) {
+                AppLogger.w("Could not clear old session checkpoint");
+            }
+            append(out -> {
+                out.writeByte(RECORD_START);
+                out.writeLong(now);
+                out.writeUTF(phoneNumber != null ? phoneNumber : "");
+                out.writeUTF(language);
+            });
+        });
+    }
+
+    public void recordTurn(final String language, final String userText, final String aiText) {
+        final long now = System.currentTimeMillis();
+        writeExecutor.execute(() -> append(out -> {
+            out.writeByte(RECORD_TURN);
+            out.writeLong(now);
+            out.writeUTF(language);
+            out.writeUTF(userText);
+            out.writeUTF(aiText);
+        }));
+    }
+
+    public void end() {
+        final long now = System.currentTimeMillis();
+        writeExecutor.execute(() -> append(out -> {
+            out.writeByte(RECORD_END);
+            out.writeLong(now);
+        }));
+    }
+
+    public Session readLast() {
+        if (!checkpointFile.exists()) return null;
+
+        Session session = null;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)));
+            while (true) {
+                byte type = in.readByte();
+                long time = in.readLong();
+                if (type == RECORD_START) {
+                    session = new Session();
+                    session.startTime = time;
+                    session.phoneNumber = in.readUTF();
+                    session.language = in.readUTF();
+                } else if (type == RECORD_TURN && session != null) {
+                    Turn turn = new Turn(in.readUTF(), in.readUTF(), in.readUTF());
+                    session.turns.add(turn);
+                    session.language = turn.language;
+                } else if (type == RECORD_END && session != null) {
+                    session.ended = true;
+                } else {
+                    AppLogger.w("Unexpected checkpoint record: {}", type);
+                    break;
+                }
+                if (session != null) session.lastUpdateTime = time;
+            }
+        } catch (EOFException e) {
+            // End of file or a record torn by process death
+        } catch (IOException e) {
+            AppLogger.e("Error reading session checkpoint", e);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        return session;
+    }
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Writes one whole record with a single write() so a crash leaves at most one torn record
+    private void append(RecordWriter writer) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(buffer);
+            writer.write(out);
+            out.flush();
+
+            FileOutputStream fos = new FileOutputStream(checkpointFile, true);
+            try {
+                fos.write(buffer.toByteArray());
+                fos.getFD().sync();
+            } finally {
+                fos.close();
+            }
+        } catch (IOException e) {
+            AppLogger.e("Error writing session checkpoint", e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Screens incoming numbers against the local spam blocklist.
+ *
+ * The blocklist is compiled into two files in app-private storage: a Bloom filter and a
+ * sorted array of 64-bit number keys. Both are memory-mapped, so a lookup is a handful of
+ * bit probes plus (only on a Bloom hit) a binary search, and nothing is copied onto the heap.
+ */
+public class SpamScreener {
+
+    private static final int BLOOM_MAGIC = 0x564150BF;
+    private static final int BLOOM_HEADER_SIZE = 16;
+
+    private static SpamScreener instance;
+
+    // One compiled list; replaced whole, so a lookup never mixes an old filter with new sizes
+    private static final class Blocklist {
+        final MappedByteBuffer bloomBits;
+        final LongBuffer numbers;
+        final int numHashes;
+        final long numBits;
+
+        Blocklist(MappedByteBuffer bloomBits, LongBuffer numbers, int numHashes, long numBits) {
+            this.bloomBits = bloomBits;
+            this.numbers = numbers;
+            this.numHashes = numHashes;
+            this.numBits = numBits;
+        }
+    }
+
+    private final File blocklistDir;
+    private final File sourceFile;
+    private final File numbersFile;
+    private final File bloomFile;
+
+    private volatile Blocklist blocklist;
+
+    public static synchronized SpamScreener getInstance(Context context) {
+        if (instance == null) {
+            instance = new SpamScreener(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SpamScreener(Context context) {
+        blocklistDir = new File(context.getFilesDir(), AppConstants.BLOCKLIST_DIR);
+        sourceFile = new File(blocklistDir, AppConstants.BLOCKLIST_SOURCE_FILE);
+        numbersFile = new File(blocklistDir, "numbers.bin");
+        bloomFile = new File(blocklistDir, "bloom.bin");
+    }
+
+    /**
+     * Recompiles the blocklist if the plain-text source is newer than the compiled files,
+     * then maps the compiled files. Call off the main thread.
+     */
+    public synchronized void refresh() {
+        try {
+            if (sourceFile.exists() && sourceFile.lastModified() > numbersFile.lastModified()) {
+                InputStream in = new FileInputStream(sourceFile);
+                try {
+                    compile(in);
+                } finally {
+                    in.close();
+                }
+            }
+            load();
+        } catch (Exception e) {
+            AppLogger.e("Error refreshing spam blocklist", e);
+        }
+    }
+
+    /**
+     * Replaces the blocklist with the numbers read from {@code in}, one per line.
+     */
+    public synchronized void update(InputStream in) throws IOException {
+        compile(in);
+        load();
+    }
+
+    public boolean isReady() {
+        return blocklist != null;
+    }
+
+    public int size() {
+        Blocklist current = blocklist;
+        return current != null ? current.numbers.capacity() : 0;
+    }
+
+    public boolean isBlocked(String phoneNumber) {
+        Blocklist current = blocklist;
+        if (current == null) return false;
+
+        long key = normalize(phoneNumber);
+        if (key < 0) return false;
+
+        if (!mightContain(current, key)) return false;
+        return binarySearch(current.numbers, key);
+    }
+
+    // Keeps the last 10 digits so "+8801712345678", "01712345678" and "1712345678" match
+    static long normalize(String phoneNumber) {
+        if (phoneNumber == null) return -1;
+
+        long key = 0;
+        long scale = 1;
+        int digits = 0;
+        for (int i = phoneNumber.length() - 1; i >= 0 && digits < 10; i--) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                key += (c - '0') * scale;
+                scale *= 10;
+                digits++;
+            }
+        }
+        return digits >= 6 ? key : -1;
+    }
+
+    private static boolean mightContain(Blocklist list, long key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= list.numHashes; i++) {
+            int combined = h1 + i * h2;
+            if (combined < 0) combined = ~combined;
+            long bit = combined % list.numBits;
+            int b = list.bloomBits.get(BLOOM_HEADER_SIZE + (int) (bit >>> 3));
+            if ((b & (1 << (bit & 7))) == 0) return false;
+        }
+        return true;
+    }
+
+    private static boolean binarySearch(LongBuffer sorted, long key) {
+        int low = 0;
+        int high = sorted.capacity() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = sorted.get(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 64-bit finalizer from MurmurHash3
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private void load() throws IOException {
+        if (!numbersFile.exists() || !bloomFile.exists()) {
+            AppLogger.d("No compiled spam blocklist");
+            return;
+        }
+
+        RandomAccessFile bloomRaf = new RandomAccessFile(bloomFile, "r");
+        RandomAccessFile numbersRaf = new RandomAccessFile(numbersFile, "r");
+        try {
+            FileChannel bloomChannel = bloomRaf.getChannel();
+            MappedByteBuffer bits = bloomChannel.map(FileChannel.MapMode.READ_ONLY, 0, bloomChannel.size());
+            if (bits.getInt(0) != BLOOM_MAGIC) {
+                AppLogger.w("Spam blocklist Bloom filter is corrupt, ignoring");
+                return;
+            }
+
+            FileChannel numbersChannel = numbersRaf.getChannel();
+            LongBuffer sorted = numbersChannel.map(FileChannel.MapMode.READ_ONLY, 0, numbersChannel.size()).asLongBuffer();
+
+            blocklist = new Blocklist(bits, sorted, bits.getInt(4), bits.getLong(8));
+            AppLogger.i("Spam blocklist loaded: {} numbers", sorted.capacity());
+        } finally {
+            // Mappings stay valid after the channel is closed
+            bloomRaf.close();
+            numbersRaf.close();
+        }
+    }
+
+    private void compile(InputStream in) throws IOException {
+        long start = System.currentTimeMillis();
+
+        long[] keys = new long[1024];
+        int count = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            long key = normalize(line.trim());
+            if (key < 0) continue;
+            if (count == keys.length) keys = Arrays.copyOf(keys, count * 2);
+            keys[count++] = key;
+        }
+
+        Arrays.sort(keys, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || keys[unique - 1] != keys[i]) keys[unique++] = keys[i];
+        }
+
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        int n = Math.max(unique, 1);
+        long bits = (long) Math.ceil(-n * Math.log(AppConstants.BLOCKLIST_FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+        bits = Math.max(64, (bits + 7) & ~7L);
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+
+        ByteBuffer bloom = ByteBuffer.allocate(BLOOM_HEADER_SIZE + (int) (bits >>> 3));
+        bloom.putInt(0, BLOOM_MAGIC);
+        bloom.putInt(4, hashes);
+        bloom.putLong(8, bits);
+        for (int i = 0; i < unique; i++) {
+            long hash = mix(keys[i]);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int j = 1; j <= hashes; j++) {
+                int combined = h1 + j * h2;
+                if (combined < 0) combined = ~combined;
+                long bit = combined % bits;
+                int index = BLOOM_HEADER_SIZE + (int) (bit >>> 3);
+                bloom.put(index, (byte) (bloom.get(index) | (1 << (bit & 7))));
+            }
+        }
+
+        ByteBuffer sorted = ByteBuffer.allocate(unique * 8);
+        sorted.asLongBuffer().put(keys, 0, unique);
+
+        if (!blocklistDir.exists() && !blocklistDir.mkdirs()) {
+            throw new IOException("Cannot create " + blocklistDir);
+        }
+        writeAtomically(bloomFile, bloom);
+        writeAtomically(numbersFile, sorted);
+
+        final int compiled = unique;
+        final long filterKb = bits >>> 13;
+        final long elapsedMs = System.currentTimeMillis() - start;
+        AppLogger.i(() -> "Spam blocklist compiled: " + compiled + " numbers, " + hashes + " hashes, "
+                + filterKb + " KB filter in " + elapsedMs + "ms");
+    }
+
+    private static void writeAtomically(File target, ByteBuffer data) throws IOException {
+        File tmp = new File(target.getParent(), target.getName() + ".tmp");
+        RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+        try {
+            raf.setLength(0);
+            FileChannel channel = raf.getChannel();
+            data.rewind();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        } finally {
+            raf.close();
+        }
+        if (!tmp.renameTo(target)) {
+            throw new IOException("Cannot replace " + target);
+        }
+    }
+}
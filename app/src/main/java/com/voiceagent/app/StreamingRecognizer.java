@@ -0,0 +1,27 @@
+package com.voiceagent.app;
+
+/**
+ * A speech recognizer that listens to our own AudioCapture instead of opening the microphone,
+ * used in place of the platform SpeechRecognizer for the languages it's selected for. Errors
+ * use SpeechRecognizer's codes so both paths share one error handler.
+ */
+public interface StreamingRecognizer extends AudioCapture.FrameSink {
+
+    interface Listener {
+        void onBeginningOfSpeech();
+        void onEndOfSpeech();
+        void onResults(String text);
+        void onError(int error);
+    }
+
+    // language is one of the AppConstants.LANGUAGE_* codes; replaces any turn still running
+    void startListening(String language, Listener listener);
+
+    // Ends the turn now and recognizes what was heard so far
+    void stopListening();
+
+    // Ends the turn without a result or error
+    void cancel();
+
+    void release();
+}
@@ -0,0 +1,195 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+
+import com.voiceagent.core.LatencyHistogram;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times each conversational turn from end of speech to the end of the spoken reply. A turn
+ * carries a trace id and a monotonic timestamp per stage; when it finishes, the time between
+ * consecutive stages is recorded into a histogram per stage and language. Histograms are
+ * persisted so percentiles survive restarts.
+ */
+public class TurnTracer {
+
+    public static final int END_OF_SPEECH = 0;
+    public static final int RESULTS = 1;
+    public static final int REQUEST_START = 2;
+    public static final int FIRST_BYTE = 3;
+    public static final int RESPONSE = 4;
+    public static final int TTS_START = 5;
+    public static final int TTS_DONE = 6;
+    private static final int STAGE_COUNT = 7;
+
+    // Interval names, each ending at the stage with the same index
+    private static final String[] INTERVAL_NAMES = {
+        null, "stt", "queue", "ttfb", "body", "tts_start", "tts_play"
+    };
+    private static final String DEAD_AIR = "dead_air";
+
+    private static final String PREF_LATENCY_NAME = "voice_agent_latency";
+
+    public static class Trace {
+        public final long id;
+        private final long[] stageNanos = new long[STAGE_COUNT];
+        private volatile String language = AppConstants.LANGUAGE_ENGLISH;
+
+        // Async trace slices: the whole turn, and the interval currently running
+        private final int turnCookie;
+        private final int[] intervalCookies = new int[STAGE_COUNT];
+
+        Trace(long id) {
+            this.id = id;
+            this.turnCookie = PerfTrace.beginAsync("turn");
+        }
+
+        public synchronized void mark(int stage) {
+            stageNanos[stage] = SystemClock.elapsedRealtimeNanos();
+            closeInterval(stage);
+            if (stage + 1 < STAGE_COUNT) {
+                closeInterval(stage + 1);
+                intervalCookies[stage + 1] = PerfTrace.beginAsync(INTERVAL_NAMES[stage + 1]);
+            }
+        }
+
+        synchronized void closeSlices() {
+            for (int stage = RESULTS; stage < STAGE_COUNT; stage++) {
+                closeInterval(stage);
+            }
+            PerfTrace.endAsync("turn", turnCookie);
+        }
+
+        private void closeInterval(int stage) {
+            if (stage == END_OF_SPEECH || intervalCookies[stage] == 0) return;
+            PerfTrace.endAsync(INTERVAL_NAMES[stage], intervalCookies[stage]);
+            intervalCookies[stage] = 0;
+        }
+
+        public void setLanguage(String language) {
+            this.language = language;
+        }
+
+        synchronized long elapsedMs(int from, int to) {
+            if (stageNanos[from] == 0 || stageNanos[to] == 0) return -1;
+            return (stageNanos[to] - stageNanos[from]) / 1000000L;
+        }
+    }
+
+    private static TurnTracer instance;
+
+    private final SharedPreferences prefs;
+    private final Map<String, LatencyHistogram> histograms = new TreeMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private volatile Trace current;
+
+    public static synchronized TurnTracer getInstance(Context context) {
+        if (instance == null) {
+            instance = new TurnTracer(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private TurnTracer(Context context) {
+        prefs = context.getSharedPreferences(PREF_LATENCY_NAME, Context.MODE_PRIVATE);
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            if (entry.getValue() instanceof String) {
+                histograms.put(entry.getKey(), LatencyHistogram.decode((String) entry.getValue()));
+            }
+        }
+    }
+
+    // Starts a new turn at the given stage, replacing any unfinished one
+    public Trace begin(int stage) {
+        Trace previous = current;
+        if (previous != null) previous.closeSlices();
+        Trace trace = new Trace(nextId.getAndIncrement());
+        trace.mark(stage);
+        current = trace;
+        return trace;
+    }
+
+    public Trace current() {
+        return current;
+    }
+
+    // Marks a stage on the current turn, if there is one
+    public void mark(int stage) {
+        Trace trace = current;
+        if (trace != null) trace.mark(stage);
+    }
+
+    public void cancel() {
+        Trace trace = current;
+        current = null;
+        if (trace != null) trace.closeSlices();
+    }
+
+    public void finish() {
+        Trace trace = current;
+        if (trace == null) return;
+        current = null;
+        trace.mark(TTS_DONE);
+        trace.closeSlices();
+
+        String language = trace.language;
+        StringBuilder line = new StringBuilder("Turn ").append(trace.id).append(' ').append(language).append(':');
+        SharedPreferences.Editor editor = prefs.edit();
+        synchronized (histograms) {
+            for (int stage = RESULTS; stage < STAGE_COUNT; stage++) {
+                // Skipped stages (e.g. no first byte on an error) leave their interval out
+                long ms = trace.elapsedMs(stage - 1, stage);
+                if (ms < 0) continue;
+                record(editor, INTERVAL_NAMES[stage], language, ms);
+                line.append(' ').append(INTERVAL_NAMES[stage]).append('=').append(ms);
+            }
+
+            long deadAir = trace.elapsedMs(END_OF_SPEECH, TTS_START);
+            if (deadAir >= 0) {
+                record(editor, DEAD_AIR, language, deadAir);
+                line.append(' ').append(DEAD_AIR).append('=').append(deadAir);
+            }
+        }
+        editor.apply();
+        AppLogger.i(line.toString());
+    }
+
+    private void record(SharedPreferences.Editor editor, String interval, String language, long ms) {
+        String key = interval + "/" + language;
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            histograms.put(key, histogram);
+        }
+        histogram.record(ms);
+        editor.putString(key, histogram.encode());
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        synchronized (histograms) {
+            if (histograms.isEmpty()) return "";
+            sb.append("Latency ms (p50 / p95 / p99, count)\n");
+            for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+                LatencyHistogram histogram = entry.getValue();
+                sb.append(String.format(Locale.US, "%s: %d / %d / %d, %d\n", entry.getKey(),
+                        histogram.percentile(50), histogram.percentile(95), histogram.percentile(99),
+                        histogram.getCount()));
+            }
+        }
+        return sb.toString();
+    }
+
+    public void reset() {
+        synchronized (histograms) {
+            histograms.clear();
+        }
+        prefs.edit().clear().apply();
+    }
+}
@@ -0,0 +1,85 @@
+package com.voiceagent.app;
+
+import android.media.MediaRecorder;
+import android.os.Build;
+import android.os.SystemClock;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Records a voicemail straight to a compressed file: Opus in Ogg on API 29+, which the
+ * transcription endpoint takes as is, otherwise AAC in MP4. Speech at 24 kbit/s keeps a
+ * two-minute message under 400 KB, so a backlog of them costs little to keep or upload.
+ */
+public class VoicemailRecorder {
+
+    public interface LimitListener {
+        void onLimitReached();
+    }
+
+    private MediaRecorder recorder;
+    private long startedAt;
+
+    public static String fileExtension() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q ? ".ogg" : ".m4a";
+    }
+
+    public static String contentType(File file) {
+        return file.getName().endsWith(".ogg") ? "audio/ogg" : "audio/mp4";
+    }
+
+    // The limit listener runs on the recorder's thread once VOICEMAIL_MAX_MS is reached
+    public void start(File file, LimitListener limitListener) throws IOException {
+        stop();
+        MediaRecorder next = new MediaRecorder();
+        try {
+            next.setAudioSource(MediaRecorder.AudioSource.VOICE_COMMUNICATION);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                next.setOutputFormat(MediaRecorder.OutputFormat.OGG);
+                next.setAudioEncoder(MediaRecorder.AudioEncoder.OPUS);
+            } else {
+                next.setOutputFormat(MediaRecorder.OutputFormat.MPEG_4);
+                next.setAudioEncoder(MediaRecorder.AudioEncoder.AAC);
+            }
+            next.setAudioChannels(1);
+            next.setAudioSamplingRate(AppConstants.VOICEMAIL_SAMPLE_RATE);
+            next.setAudioEncodingBitRate(AppConstants.VOICEMAIL_BIT_RATE);
+            next.setMaxDuration(AppConstants.VOICEMAIL_MAX_MS);
+            next.setOutputFile(file.getAbsolutePath());
+            next.setOnInfoListener((mr, what, extra) -> {
+                if (what == MediaRecorder.MEDIA_RECORDER_INFO_MAX_DURATION_REACHED) {
+                    limitListener.onLimitReached();
+                }
+            });
+            next.prepare();
+            next.start();
+        } catch (IOException | RuntimeException e) {
+            next.release();
+            throw e;
+        }
+        recorder = next;
+        startedAt = SystemClock.elapsedRealtime();
+    }
+
+    public boolean isRecording() {
+        return recorder != null;
+    }
+
+    // Returns the recorded length, or 0 when nothing usable was written
+    public long stop() {
+        if (recorder == null) return 0;
+        long durationMs = Math.min(SystemClock.elapsedRealtime() - startedAt, AppConstants.VOICEMAIL_MAX_MS);
+        try {
+            recorder.stop();
+        } catch (RuntimeException e) {
+            // Stopped before the encoder produced anything
+            AppLogger.w("Voicemail recorder stopped empty: {}", e.getMessage());
+            durationMs = 0;
+        } finally {
+            recorder.release();
+            recorder = null;
+        }
+        return durationMs;
+    }
+}
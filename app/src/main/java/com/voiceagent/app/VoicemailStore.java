@@ -0,0 +1,199 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Voicemails waiting to be transcribed and summarized, kept in the files dir as one audio file
+ * plus a small JSON sidecar each. The sidecar is replaced atomically after every step, so a
+ * worker killed halfway through a batch only redoes the messages it hadn't saved.
+ */
+public class VoicemailStore {
+
+    private static final String META_SUFFIX = ".json";
+    // Kept so the stats dialog can show recent summaries after the audio is gone
+    private static final int MAX_KEPT_DONE = 20;
+    private static final int MAX_SHOWN = 3;
+
+    public static class Message {
+        public final String id;
+        public final String phoneNumber;
+        public final long receivedAt;
+        public final String language;
+        public long durationMs;
+        public String transcript;
+        public String summary;
+        public int attempts;
+
+        Message(String id, String phoneNumber, long receivedAt, String language) {
+            this.id = id;
+            this.phoneNumber = phoneNumber;
+            this.receivedAt = receivedAt;
+            this.language = language;
+        }
+
+        public boolean isDone() {
+            return summary != null;
+        }
+    }
+
+    private final File dir;
+
+    public VoicemailStore(Context context) {
+        dir = new File(context.getApplicationContext().getFilesDir(), AppConstants.VOICEMAIL_DIR);
+    }
+
+    // Names the file a new recording goes to; nothing is queued until save()
+    public Message create(String phoneNumber, String language) {
+        long now = System.currentTimeMillis();
+        return new Message(Long.toString(now), phoneNumber, now, language);
+    }
+
+    public File audioFile(Message message) {
+        dir.mkdirs();
+        return new File(dir, message.id + VoicemailRecorder.fileExtension());
+    }
+
+    // The file the recording actually went to, whichever format this device wrote
+    public File findAudio(Message message) {
+        for (String extension : new String[] {".ogg", ".m4a"}) {
+            File file = new File(dir, message.id + extension);
+            if (file.exists()) return file;
+        }
+        return null;
+    }
+
+    public synchronized void save(Message message) throws IOException {
+        dir.mkdirs();
+        JSONObject json = new JSONObject();
+        try {
+            json.put("id", message.id);
+            json.put("number", message.phoneNumber);
+            json.put("receivedAt", message.receivedAt);
+            json.put("language", message.language);
+            json.put("durationMs", message.durationMs);
+            json.put("transcript", message.transcript);
+            json.put("summary", message.summary);
+            json.put("attempts", message.attempts);
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+
+        File target = new File(dir, message.id + META_SUFFIX);
+        File tmp = new File(dir, target.getName() + ".tmp");
+        OutputStream out = new FileOutputStream(tmp);
+        try {
+            out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(target)) {
+            throw new IOException("Cannot replace " + target);
+        }
+    }
+
+    // Drops the recording once it's transcribed; the sidecar keeps the text
+    public void deleteAudio(Message message) {
+        File audio = findAudio(message);
+        if (audio != null && !audio.delete()) AppLogger.w("Cannot delete voicemail audio {}", audio.getName());
+    }
+
+    public synchronized void delete(Message message) {
+        deleteAudio(message);
+        new File(dir, message.id + META_SUFFIX).delete();
+    }
+
+    // Oldest first
+    public synchronized List<Message> all() {
+        List<Message> messages = new ArrayList<>();
+        File[] files = dir.listFiles((d, name) -> name.endsWith(META_SUFFIX));
+        if (files == null) return messages;
+        Arrays.sort(files);
+        for (File file : files) {
+            try {
+                messages.add(read(file));
+            } catch (IOException | JSONException e) {
+                AppLogger.w("Unreadable voicemail {}: {}", file.getName(), e.getMessage());
+            }
+        }
+        return messages;
+    }
+
+    public List<Message> pending() {
+        List<Message> pending = new ArrayList<>();
+        for (Message message : all()) {
+            if (!message.isDone()) pending.add(message);
+        }
+        return pending;
+    }
+
+    // Keeps only the newest finished messages
+    public synchronized void trim() {
+        List<Message> done = new ArrayList<>();
+        for (Message message : all()) {
+            if (message.isDone()) done.add(message);
+        }
+        for (int i = 0; i < done.size() - MAX_KEPT_DONE; i++) {
+            delete(done.get(i));
+        }
+    }
+
+    private static Message read(File file) throws IOException, JSONException {
+        byte[] data = new byte[(int) file.length()];
+        InputStream in = new FileInputStream(file);
+        try {
+            int read = 0;
+            while (read < data.length) {
+                int n = in.read(data, read, data.length - read);
+                if (n < 0) break;
+                read += n;
+            }
+        } finally {
+            in.close();
+        }
+        JSONObject json = new JSONObject(new String(data, StandardCharsets.UTF_8));
+        Message message = new Message(json.getString("id"), json.optString("number", null),
+                json.getLong("receivedAt"), json.optString("language", AppConstants.LANGUAGE_ENGLISH));
+        message.durationMs = json.optLong("durationMs");
+        message.transcript = json.has("transcript") ? json.getString("transcript") : null;
+        message.summary = json.has("summary") ? json.getString("summary") : null;
+        message.attempts = json.optInt("attempts");
+        return message;
+    }
+
+    public String summary() {
+        List<Message> messages = all();
+        if (messages.isEmpty()) return "";
+        int pending = 0;
+        int shown = 0;
+        StringBuilder recent = new StringBuilder();
+        DateFormat format = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            Message message = messages.get(i);
+            if (!message.isDone()) {
+                pending++;
+            } else if (shown++ < MAX_SHOWN) {
+                recent.append(String.format(Locale.US, "  %s %s: %s\n", format.format(new Date(message.receivedAt)),
+                        message.phoneNumber != null ? message.phoneNumber : "unknown", message.summary));
+            }
+        }
+        return String.format(Locale.US, "Voicemail: %d messages, %d waiting for transcription\n", messages.size(),
+                pending) + recent;
+    }
+}
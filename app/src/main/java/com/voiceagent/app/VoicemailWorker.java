@@ -0,0 +1,245 @@
+package com.voiceagent.app;
+
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.voiceagent.core.ChatException;
+import com.voiceagent.core.HttpTranscriptionClient;
+import com.voiceagent.core.VoicemailDigest;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Works through the voicemail queue once the network is back: each recording is transcribed,
+ * then the transcripts are summarized VOICEMAIL_BATCH_SIZE at a time with one chat request per
+ * batch, and a notification lists what came in. Progress is saved per message, so a retry
+ * after a failure picks up where this run stopped.
+ */
+public class VoicemailWorker extends Worker {
+
+    private static final int UPLOAD_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_FALLBACK_CHARS = 120;
+
+    // Set on a 401/403; every later request in this run would be refused the same way
+    private boolean keyRejected;
+
+    public VoicemailWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    // Runs after any pass already queued, so a message saved mid-run isn't missed
+    public static void schedule(Context context) {
+        try {
+            OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(VoicemailWorker.class)
+                .setConstraints(new Constraints.Builder().setRequiredNetworkType(NetworkType.CONNECTED).build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, AppConstants.VOICEMAIL_BACKOFF_MS, TimeUnit.MILLISECONDS)
+                .build();
+            WorkManager.getInstance(context).enqueueUniqueWork(AppConstants.VOICEMAIL_WORK_NAME,
+                    ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+        } catch (Exception e) {
+            AppLogger.e("Error scheduling voicemail processing", e);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        VoicemailStore store = new VoicemailStore(context);
+        List<VoicemailStore.Message> pending = store.pending();
+        if (pending.isEmpty()) return Result.success();
+
+        boolean retry = false;
+        HttpTranscriptionClient transcriber = new HttpTranscriptionClient(AppConstants.WHISPER_API_URL,
+                BuildConfig.GROQ_API_KEY, AppConstants.WHISPER_MODEL,
+                AppConstants.API_CONNECT_TIMEOUT, AppConstants.API_READ_TIMEOUT);
+        List<VoicemailStore.Message> transcribed = new ArrayList<>();
+        List<VoicemailStore.Message> summarized = new ArrayList<>();
+        for (VoicemailStore.Message message : pending) {
+            if (isStopped()) return Result.retry();
+            if (keyRejected) break;
+            if (message.transcript == null && !transcribe(store, transcriber, message)) {
+                retry = true;
+            } else if (message.isDone()) {
+                // Given up on; it still goes in the notification
+                summarized.add(message);
+            } else {
+                transcribed.add(message);
+            }
+        }
+
+        GroqClient groqClient = new GroqClient(BuildConfig.GROQ_API_KEY);
+        for (int start = 0; start < transcribed.size(); start += AppConstants.VOICEMAIL_BATCH_SIZE) {
+            if (isStopped()) return Result.retry();
+            if (keyRejected) break;
+            List<VoicemailStore.Message> batch = transcribed.subList(start,
+                    Math.min(start + AppConstants.VOICEMAIL_BATCH_SIZE, transcribed.size()));
+            if (summarize(store, groqClient, batch)) {
+                summarized.addAll(batch);
+            } else {
+                retry = true;
+            }
+        }
+
+        if (!summarized.isEmpty()) {
+            notify(context, summarized);
+            store.trim();
+        }
+        AppLogger.i("Voicemail: {} of {} summarized", summarized.size(), pending.size());
+        return retry ? Result.retry() : Result.success();
+    }
+
+    // One recording per request; the endpoint takes a single file. False leaves it for the retry.
+    private boolean transcribe(VoicemailStore store, HttpTranscriptionClient transcriber,
+                               VoicemailStore.Message message) {
+        File audio = store.findAudio(message);
+        if (audio == null) {
+            AppLogger.w("Voicemail {} has no recording", message.id);
+            message.transcript = "";
+            return save(store, message);
+        }
+        HttpTranscriptionClient.Upload upload = null;
+        try {
+            String language = AppConstants.LANGUAGE_AUTO.equals(message.language) ? null : message.language;
+            upload = transcriber.begin(language, audio.getName(), VoicemailRecorder.contentType(audio));
+            byte[] buffer = new byte[UPLOAD_BUFFER_SIZE];
+            InputStream in = new FileInputStream(audio);
+            try {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    upload.write(buffer, 0, read);
+                }
+            } finally {
+                in.close();
+            }
+            message.transcript = upload.finish().trim();
+            AppLogger.d("Voicemail {} transcribed: {} bytes in {}ms", message.id, upload.getBytes(),
+                    upload.getTotalMs());
+            return save(store, message);
+        } catch (IOException e) {
+            if (upload != null) upload.cancel();
+            AppLogger.w("Voicemail {} transcription failed: {}", message.id, e.getMessage());
+            return giveUpIfExhausted(store, message, e);
+        }
+    }
+
+    // One chat request for the whole batch; messages the reply skipped keep the start of their transcript
+    private boolean summarize(VoicemailStore store, GroqClient groqClient, List<VoicemailStore.Message> batch) {
+        List<String> transcripts = new ArrayList<>();
+        for (VoicemailStore.Message message : batch) {
+            transcripts.add(message.transcript.isEmpty() ? "(silence)" : message.transcript);
+        }
+        String[] summaries;
+        try {
+            String reply = groqClient.complete(VoicemailDigest.SYSTEM_PROMPT,
+                    VoicemailDigest.prompt(transcripts), AppConstants.VOICEMAIL_SUMMARY_MAX_TOKENS);
+            summaries = VoicemailDigest.parse(reply, batch.size());
+        } catch (Exception e) {
+            AppLogger.w("Voicemail summary of {} failed: {}", batch.size(), e.getMessage());
+            boolean exhausted = true;
+            for (VoicemailStore.Message message : batch) {
+                exhausted &= giveUpIfExhausted(store, message, e);
+            }
+            return exhausted;
+        }
+
+        boolean saved = true;
+        for (int i = 0; i < batch.size(); i++) {
+            VoicemailStore.Message message = batch.get(i);
+            message.summary = summaries[i] != null ? summaries[i] : fallbackSummary(message);
+            saved &= save(store, message);
+            store.deleteAudio(message);
+        }
+        return saved;
+    }
+
+    // After VOICEMAIL_MAX_ATTEMPTS the message is closed with what we have, so one bad recording
+    // can't keep the job retrying forever. True once it's closed.
+    private boolean giveUpIfExhausted(VoicemailStore store, VoicemailStore.Message message, Exception error) {
+        int status = error instanceof ChatException ? ((ChatException) error).getStatusCode() : 0;
+        if (status == 401 || status == 403) {
+            // Voicemail is taken because the key stopped working; the message waits for a working
+            // key without using up its attempts
+            keyRejected = true;
+            return false;
+        }
+        message.attempts++;
+        // Any other 4xx is about this message, like a recording the endpoint won't take, and a
+        // retry gets the same answer
+        boolean rejected = status >= 400 && status < 500 && status != 408 && status != 429;
+        if (message.attempts < AppConstants.VOICEMAIL_MAX_ATTEMPTS && !rejected) {
+            save(store, message);
+            return false;
+        }
+        AppLogger.e("Giving up on voicemail {} after {} attempts", message.id, message.attempts);
+        message.summary = fallbackSummary(message);
+        return save(store, message);
+    }
+
+    private static String fallbackSummary(VoicemailStore.Message message) {
+        if (message.transcript == null) {
+            return String.format(Locale.US, "Message of %d s, not transcribed", message.durationMs / 1000);
+        }
+        if (message.transcript.isEmpty()) return "No message left";
+        return message.transcript.length() > MAX_FALLBACK_CHARS
+                ? message.transcript.substring(0, MAX_FALLBACK_CHARS) + "…" : message.transcript;
+    }
+
+    private static boolean save(VoicemailStore store, VoicemailStore.Message message) {
+        try {
+            store.save(message);
+            return true;
+        } catch (IOException e) {
+            AppLogger.e("Error saving voicemail {}", message.id, e);
+            return false;
+        }
+    }
+
+    private static void notify(Context context, List<VoicemailStore.Message> messages) {
+        try {
+            StringBuilder text = new StringBuilder();
+            for (VoicemailStore.Message message : messages) {
+                if (text.length() > 0) text.append('\n');
+                text.append(message.phoneNumber != null ? message.phoneNumber : "Unknown").append(": ")
+                        .append(message.summary);
+            }
+            Intent intent = new Intent(context, MainActivity.class);
+            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+            PendingIntent contentIntent = PendingIntent.getActivity(context, 0, intent,
+                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+            CallMonitorService.createNotificationChannels(context);
+            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, AppConstants.CHANNEL_ID_VOICEMAIL)
+                .setSmallIcon(R.drawable.ic_mic_white)
+                .setContentTitle(context.getString(R.string.voicemail_notification_title, messages.size()))
+                .setContentText(text)
+                .setStyle(new NotificationCompat.BigTextStyle().bigText(text))
+                .setAutoCancel(true)
+                .setContentIntent(contentIntent);
+            NotificationManager manager = context.getSystemService(NotificationManager.class);
+            if (manager != null) manager.notify(AppConstants.NOTIFICATION_ID_VOICEMAIL, builder.build());
+        } catch (Exception e) {
+            AppLogger.e("Error posting voicemail notification", e);
+        }
+    }
+}
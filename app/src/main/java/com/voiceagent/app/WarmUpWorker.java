@@ -0,0 +1,179 @@
+package com.voiceagent.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.speech.tts.TextToSpeech;
+import android.speech.tts.UtteranceProgressListener;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds, after boot or an app upgrade, what the first call would otherwise build on demand:
+ * the logger, notification channels, the caller-ID blocklist and caller history, and the TTS
+ * engine with the cached fillers and voicemail prompts. Runs through WorkManager only while the
+ * battery isn't low. Each step is timed; the steps that failed are recorded for the stats dialog,
+ * and a "ready" timestamp only when none of the ones a call depends on did.
+ *
+ * The network isn't warmed here: a connection opened at boot is long gone by the first call, and
+ * MainActivity opens one when it starts.
+ */
+public class WarmUpWorker extends Worker {
+
+    private static final String KEY_REASON = "reason";
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    public WarmUpWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    // Replaces any pending warm-up, e.g. a boot followed quickly by an upgrade
+    public static void schedule(Context context, String reason) {
+        try {
+            OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(WarmUpWorker.class)
+                .setConstraints(new Constraints.Builder().setRequiresBatteryNotLow(true).build())
+                .setInputData(new Data.Builder().putString(KEY_REASON, reason).build())
+                .build();
+            WorkManager.getInstance(context).enqueueUniqueWork(AppConstants.WARM_UP_WORK_NAME,
+                    ExistingWorkPolicy.REPLACE, request);
+        } catch (Exception e) {
+            AppLogger.e("Error scheduling warm-up", e);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        final Context context = getApplicationContext();
+        long start = SystemClock.elapsedRealtime();
+        StringBuilder line = new StringBuilder();
+        List<String> failed = new ArrayList<>();
+
+        // A call can't be answered properly without channels, caller ID and TTS
+        step(line, failed, "logger", () -> AppLogger.init(context));
+        boolean callReady = step(line, failed, "channels", () -> CallMonitorService.createNotificationChannels(context));
+        callReady &= step(line, failed, "caller_id", () -> {
+            SpamScreener.getInstance(context).refresh();
+            new CallerContextStore(context).preload();
+        });
+        step(line, failed, "stores", () -> {
+            TurnTracer.getInstance(context);
+            RequestTimeouts.getInstance(context);
+        });
+        callReady &= step(line, failed, "tts", () -> warmTextToSpeech(context));
+
+        if (isStopped()) return Result.success();
+
+        long duration = SystemClock.elapsedRealtime() - start;
+        String reason = getInputData().getString(KEY_REASON);
+        SharedPreferences.Editor editor = context.getSharedPreferences(AppConstants.PREF_NAME, Context.MODE_PRIVATE).edit()
+            .putLong(AppConstants.PREF_WARM_UP_DURATION_MS, duration)
+            .putString(AppConstants.PREF_WARM_UP_REASON, reason)
+            .putString(AppConstants.PREF_WARM_UP_FAILED, String.join(",", failed));
+        if (callReady) {
+            editor.putLong(AppConstants.PREF_WARM_UP_READY_AT, System.currentTimeMillis());
+        } else {
+            // An earlier warm-up's timestamp would claim this boot is ready too
+            editor.remove(AppConstants.PREF_WARM_UP_READY_AT);
+        }
+        editor.apply();
+        if (callReady) {
+            AppLogger.i("Warm-up after {} ready in {}ms:{}", reason, duration, line);
+        } else {
+            AppLogger.w("Warm-up after {} not ready, failed {}", reason, failed);
+        }
+        return Result.success();
+    }
+
+    // False if the step threw; a stopped worker skips the step and reports it as done
+    private boolean step(StringBuilder line, List<String> failed, String name, Step step) {
+        if (isStopped()) return true;
+        long start = SystemClock.elapsedRealtime();
+        boolean ok = true;
+        try {
+            step.run();
+        } catch (Exception e) {
+            AppLogger.w("Warm-up step {} failed: {}", name, e.getMessage());
+            failed.add(name);
+            ok = false;
+        }
+        line.append(' ').append(name).append('=').append(SystemClock.elapsedRealtime() - start);
+        return ok;
+    }
+
+    // Binds the engine so its process and voices are loaded, and leaves the fillers in the cache
+    private static void warmTextToSpeech(Context context) throws Exception {
+        final CountDownLatch initialized = new CountDownLatch(1);
+        final AtomicInteger status = new AtomicInteger(TextToSpeech.ERROR);
+        TextToSpeech tts = new TextToSpeech(context, result -> {
+            status.set(result);
+            initialized.countDown();
+        });
+        try {
+            if (!initialized.await(AppConstants.WARM_UP_TTS_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                    || status.get() != TextToSpeech.SUCCESS) {
+                throw new IllegalStateException("TTS not ready, status " + status.get());
+            }
+
+            final FillerPlayer fillers = new FillerPlayer(context, null);
+            final Semaphore synthesized = new Semaphore(0);
+            tts.setOnUtteranceProgressListener(new UtteranceProgressListener() {
+                @Override
+                public void onStart(String utteranceId) {
+                }
+
+                @Override
+                public void onDone(String utteranceId) {
+                    fillers.onFillerDone(utteranceId);
+                    synthesized.release();
+                }
+
+                @Override
+                public void onError(String utteranceId) {
+                    synthesized.release();
+                }
+            });
+            int queued = fillers.prepare(tts);
+            if (!synthesized.tryAcquire(queued, AppConstants.WARM_UP_TTS_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Filler synthesis timed out");
+            }
+        } finally {
+            tts.shutdown();
+        }
+    }
+
+    public static String summary(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(AppConstants.PREF_NAME, Context.MODE_PRIVATE);
+        long readyAt = prefs.getLong(AppConstants.PREF_WARM_UP_READY_AT, 0);
+        String failed = prefs.getString(AppConstants.PREF_WARM_UP_FAILED, "");
+        String reason = prefs.getString(AppConstants.PREF_WARM_UP_REASON, "?");
+        if (readyAt == 0) {
+            return failed.isEmpty() ? "" : String.format(Locale.US, "Warm-up: not ready after %s, failed %s\n",
+                    reason, failed);
+        }
+        return String.format(Locale.US, "Warm-up: ready %s after %s, took %d ms%s\n",
+                DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(new Date(readyAt)),
+                reason, prefs.getLong(AppConstants.PREF_WARM_UP_DURATION_MS, 0),
+                failed.isEmpty() ? "" : ", failed " + failed);
+    }
+}
@@ -0,0 +1,338 @@
+package com.voiceagent.app;
+
+import android.media.MediaCodec;
+import android.media.MediaCodecList;
+import android.media.MediaFormat;
+import android.os.Build;
+import android.speech.SpeechRecognizer;
+
+import com.voiceagent.core.ChatException;
+import com.voiceagent.core.EnergyEndpointer;
+import com.voiceagent.core.HttpTranscriptionClient;
+import com.voiceagent.core.OggOpusWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Recognizes speech with Whisper on the Groq transcription endpoint. Capture frames are
+ * encoded to Opus with the platform encoder as they arrive and uploaded as an Ogg stream while
+ * the caller is still talking, so when our endpointer hears the end of the utterance only the
+ * last page and the model's own time are left. Opus at 24 kbit/s is about a tenth of the PCM.
+ *
+ * Frames arrive on the capture thread, which only encodes and queues pages; the upload runs on
+ * its own thread. Needs the Opus encoder, API 29+.
+ */
+public class WhisperRecognizer implements StreamingRecognizer {
+
+    private static final String MIME = "audio/opus";
+    private static final String FILE_NAME = "speech.ogg";
+    private static final String CONTENT_TYPE = "audio/ogg";
+    // libopus lookahead at 48 kHz; the encoder only reports its own in codec config we don't parse
+    private static final int PRE_SKIP = 312;
+    private static final int FRAME_GRANULES = OggOpusWriter.GRANULE_RATE / 50;  // 20 ms packets
+    private static final long INPUT_TIMEOUT_US = 5000;
+    private static final int MAX_DRAIN_ATTEMPTS = 20;
+    private static final byte[] END = new byte[0];
+
+    private static Boolean supported;
+
+    private final HttpTranscriptionClient client;
+    private final int sampleRate;
+    private final ExecutorService uploader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "WhisperUpload");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Session session;
+
+    public static synchronized boolean isSupported() {
+        if (supported == null) {
+            boolean found = false;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                try {
+                    found = new MediaCodecList(MediaCodecList.REGULAR_CODECS)
+                            .findEncoderForFormat(format(AppConstants.CAPTURE_SAMPLE_RATE)) != null;
+                } catch (Exception e) {
+                    AppLogger.e("Opus encoder lookup failed: {}", e.getMessage());
+                }
+            }
+            supported = found;
+        }
+        return supported;
+    }
+
+    public WhisperRecognizer(String apiKey, int sampleRate, NetworkWarmState warmState) {
+        this.client = new HttpTranscriptionClient(AppConstants.WHISPER_API_URL, apiKey, AppConstants.WHISPER_MODEL,
+                AppConstants.API_CONNECT_TIMEOUT, AppConstants.API_READ_TIMEOUT);
+        this.sampleRate = sampleRate;
+        warmState.install(client);
+    }
+
+    private static MediaFormat format(int sampleRate) {
+        MediaFormat format = MediaFormat.createAudioFormat(MIME, sampleRate, 1);
+        format.setInteger(MediaFormat.KEY_BIT_RATE, AppConstants.WHISPER_BIT_RATE);
+        return format;
+    }
+
+    @Override
+    public void startListening(String language, Listener listener) {
+        cancel();
+        Session next = new Session(language, listener);
+        if (!next.open()) {
+            listener.onError(SpeechRecognizer.ERROR_CLIENT);
+            return;
+        }
+        session = next;
+        uploader.execute(next::upload);
+    }
+
+    @Override
+    public void stopListening() {
+        Session current = session;
+        if (current != null) current.end();
+    }
+
+    @Override
+    public void cancel() {
+        Session current = session;
+        session = null;
+        if (current != null) current.abort();
+    }
+
+    @Override
+    public void release() {
+        cancel();
+        uploader.shutdownNow();
+    }
+
+    // Capture thread
+    @Override
+    public void onFrame(byte[] frame, int length) {
+        Session current = session;
+        if (current != null) current.onFrame(frame, length);
+    }
+
+    private class Session {
+        final String language;
+        final Listener listener;
+        final EnergyEndpointer endpointer = new EnergyEndpointer(AppConstants.CAPTURE_FRAME_MS,
+                AppConstants.WHISPER_SPEECH_START_MS, AppConstants.WHISPER_END_SILENCE_MS,
+                AppConstants.SPEECH_TIMEOUT_MS, AppConstants.WHISPER_MAX_SPEECH_MS);
+        final BlockingQueue<byte[]> pages = new LinkedBlockingQueue<>();
+        final OggOpusWriter writer = new OggOpusWriter(new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // Each call is one whole page
+                pages.offer(Arrays.copyOfRange(b, off, off + len));
+            }
+        }, (int) System.nanoTime());
+        final MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+
+        MediaCodec codec;
+        byte[] packet = new byte[512];
+        long inputSamples = 0;
+        int droppedFrames = 0;
+        boolean closed = false;
+        volatile boolean cancelled = false;
+
+        Session(String language, Listener listener) {
+            this.language = language;
+            this.listener = listener;
+        }
+
+        boolean open() {
+            try {
+                codec = MediaCodec.createEncoderByType(MIME);
+                codec.configure(format(sampleRate), null, null, MediaCodec.CONFIGURE_FLAG_ENCODE);
+                codec.start();
+                writer.writeHeaders(1, sampleRate, PRE_SKIP);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                AppLogger.e("Opus encoder error: {}", e.getMessage());
+                closeCodec();
+                return false;
+            }
+        }
+
+        synchronized void onFrame(byte[] frame, int length) {
+            if (closed) return;
+            try {
+                encode(frame, length);
+            } catch (IOException | RuntimeException e) {
+                AppLogger.e("Opus encoding failed: {}", e.getMessage());
+                fail(SpeechRecognizer.ERROR_CLIENT);
+                return;
+            }
+
+            switch (endpointer.onFrame(frame, length)) {
+                case EnergyEndpointer.SPEECH_STARTED:
+                    listener.onBeginningOfSpeech();
+                    break;
+                case EnergyEndpointer.SPEECH_ENDED:
+                    end();
+                    break;
+                case EnergyEndpointer.NO_SPEECH:
+                    fail(SpeechRecognizer.ERROR_SPEECH_TIMEOUT);
+                    break;
+            }
+        }
+
+        private void encode(byte[] frame, int length) throws IOException {
+            int index = codec.dequeueInputBuffer(0);
+            if (index >= 0) {
+                ByteBuffer input = codec.getInputBuffer(index);
+                int size = Math.min(length, input.remaining());
+                input.put(frame, 0, size);
+                codec.queueInputBuffer(index, 0, size, inputSamples * 1000000L / sampleRate, 0);
+                inputSamples += size / 2;
+            } else {
+                // The encoder fell behind; losing 20 ms beats stalling the capture thread
+                droppedFrames++;
+            }
+            drain();
+        }
+
+        // Moves finished packets into the writer; true once the end of stream came out
+        private boolean drain() throws IOException {
+            while (true) {
+                int index = codec.dequeueOutputBuffer(info, 0);
+                if (index < 0) return false;
+                ByteBuffer output = codec.getOutputBuffer(index);
+                boolean last = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+                if ((info.flags & MediaCodec.BUFFER_FLAG_CODEC_CONFIG) == 0 && info.size > 0) {
+                    if (packet.length < info.size) packet = new byte[info.size];
+                    output.position(info.offset);
+                    output.get(packet, 0, info.size);
+                    long granule = PRE_SKIP + info.presentationTimeUs * OggOpusWriter.GRANULE_RATE / 1000000L
+                            + FRAME_GRANULES;
+                    writer.writePacket(packet, 0, info.size, granule);
+                }
+                codec.releaseOutputBuffer(index, false);
+                if (last) return true;
+            }
+        }
+
+        // Endpoint or stopListening: flush the encoder and let the upload finish
+        synchronized void end() {
+            if (closed) return;
+            closed = true;
+            listener.onEndOfSpeech();
+            if (!endpointer.hasSpeech()) {
+                // Stopped before anyone spoke; nothing worth sending
+                cancelled = true;
+                closeCodec();
+                pages.offer(END);
+                listener.onError(SpeechRecognizer.ERROR_SPEECH_TIMEOUT);
+                return;
+            }
+            try {
+                int index = codec.dequeueInputBuffer(INPUT_TIMEOUT_US);
+                if (index >= 0) {
+                    codec.queueInputBuffer(index, 0, 0, inputSamples * 1000000L / sampleRate,
+                            MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                    for (int attempt = 0; attempt < MAX_DRAIN_ATTEMPTS && !drain(); attempt++) {
+                        Thread.sleep(INPUT_TIMEOUT_US / 1000);
+                    }
+                }
+                writer.finish();
+            } catch (IOException | RuntimeException e) {
+                AppLogger.w("Opus encoder didn't flush: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closeCodec();
+            if (droppedFrames > 0) AppLogger.w("Whisper upload dropped {} frames", droppedFrames);
+            pages.offer(END);
+        }
+
+        synchronized void abort() {
+            cancelled = true;
+            if (closed) {
+                pages.offer(END);
+                return;
+            }
+            closed = true;
+            closeCodec();
+            pages.offer(END);
+        }
+
+        private void fail(int error) {
+            boolean wasCancelled = cancelled;
+            abort();
+            if (session == this) session = null;
+            if (!wasCancelled) listener.onError(error);
+        }
+
+        private void closeCodec() {
+            if (codec == null) return;
+            try {
+                codec.stop();
+            } catch (RuntimeException ignored) {
+            }
+            codec.release();
+            codec = null;
+        }
+
+        // Upload thread
+        void upload() {
+            HttpTranscriptionClient.Upload upload = null;
+            try {
+                upload = client.begin(whisperLanguage(language), FILE_NAME, CONTENT_TYPE);
+                while (true) {
+                    byte[] page = pages.take();
+                    if (page == END || cancelled) break;
+                    upload.write(page, 0, page.length);
+                }
+                if (cancelled) {
+                    upload.cancel();
+                    return;
+                }
+                String text = upload.finish();
+                AppLogger.d("Whisper: {} bytes, {}ms after end of speech", upload.getBytes(), upload.getTailMs());
+                if (cancelled) return;
+                if (session == this) session = null;
+                if (text.isEmpty()) {
+                    listener.onError(SpeechRecognizer.ERROR_NO_MATCH);
+                } else {
+                    listener.onResults(text);
+                }
+            } catch (InterruptedException e) {
+                if (upload != null) upload.cancel();
+                Thread.currentThread().interrupt();
+            } catch (ChatException e) {
+                AppLogger.e("Whisper upload rejected: {}", e.getMessage());
+                synchronized (this) {
+                    fail(SpeechRecognizer.ERROR_SERVER);
+                }
+            } catch (SocketTimeoutException e) {
+                AppLogger.e("Whisper upload timed out");
+                synchronized (this) {
+                    fail(SpeechRecognizer.ERROR_NETWORK_TIMEOUT);
+                }
+            } catch (IOException e) {
+                AppLogger.e("Whisper upload failed: {}", e.getMessage());
+                synchronized (this) {
+                    fail(SpeechRecognizer.ERROR_NETWORK);
+                }
+            }
+        }
+    }
+
+    // The app's language codes are already ISO-639-1; auto lets Whisper detect it
+    private static String whisperLanguage(String language) {
+        return AppConstants.LANGUAGE_AUTO.equals(language) ? null : language;
+    }
+}